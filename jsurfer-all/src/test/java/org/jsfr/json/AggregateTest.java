@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class AggregateTest {
+
+    private final JavaCollectionProvider provider = JavaCollectionProvider.INSTANCE;
+
+    @Test
+    public void testApproxDistinctWithinErrorBound() {
+        for (int distinct : new int[] {10, 1000, 100000}) {
+            Aggregate<Long> numbers = Aggregate.approxDistinct();
+            Aggregate<Long> strings = Aggregate.approxDistinct();
+            for (int round = 0; round < 3; round++) {
+                for (long i = 0; i < distinct; i++) {
+                    numbers.accept((Object) (i * 7919), provider);
+                    strings.accept((Object) ("id-" + i), provider);
+                }
+            }
+            // well within four standard errors of precision 14
+            assertTrue(numbers.get() + " of " + distinct, Math.abs(numbers.get() - distinct) <= distinct * 0.04);
+            assertTrue(strings.get() + " of " + distinct, Math.abs(strings.get() - distinct) <= distinct * 0.04);
+        }
+    }
+
+    @Test
+    public void testApproxDistinctTreatsEqualNumbersAsOne() {
+        Aggregate<Long> distinct = Aggregate.approxDistinct();
+        distinct.accept((Object) 1L, provider);
+        distinct.accept((Object) 1.0, provider);
+        distinct.accept((Object) "1", provider);
+        assertEquals(2L, distinct.get().longValue());
+    }
+
+    @Test
+    public void testNumberAggregatesIgnoreOtherValues() {
+        Aggregate<Double> sum = Aggregate.sum();
+        Aggregate<Double> avg = Aggregate.avg();
+        Aggregate<Double> min = Aggregate.min();
+        assertEquals(0.0, sum.get(), 0);
+        assertNull(avg.get());
+        assertNull(min.get());
+        for (Object value : new Object[] {"text", 0.1, true, 0.2, 3L}) {
+            sum.accept(value, provider);
+            avg.accept(value, provider);
+            min.accept(value, provider);
+        }
+        assertEquals(3.3, sum.get(), 1e-15);
+        assertEquals(1.1, avg.get(), 1e-15);
+        assertEquals(0.1, min.get(), 0);
+    }
+
+    @Test
+    public void testIntegralNumbersSummedExactly() {
+        Aggregate<Double> sum = Aggregate.sum();
+        // each of these rounds to 2^63 as a double
+        for (Object value : new Object[] {Long.MAX_VALUE - 1, 1, -Long.MAX_VALUE}) {
+            sum.accept(value, provider);
+        }
+        assertEquals(0.0, sum.get(), 0);
+
+        Aggregate<Double> overflowing = Aggregate.avg();
+        for (Object value : new Object[] {Long.MAX_VALUE, Long.MAX_VALUE, 0.5, -Long.MAX_VALUE}) {
+            overflowing.accept(value, provider);
+        }
+        assertEquals(0x1p63 / 4, overflowing.get(), 1);
+    }
+
+    @Test
+    public void testExtremesOfIntegralAndOtherNumbers() {
+        Aggregate<Double> min = Aggregate.min();
+        Aggregate<Double> max = Aggregate.max();
+        for (Object value : new Object[] {3L, 2.5, -7, 2.75}) {
+            min.accept(value, provider);
+            max.accept(value, provider);
+        }
+        assertEquals(-7.0, min.get(), 0);
+        assertEquals(3.0, max.get(), 0);
+    }
+
+    @Test
+    public void testPrecisionOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> Aggregate.approxDistinct(3));
+        assertThrows(IllegalArgumentException.class, () -> Aggregate.approxDistinct(17));
+    }
+
+}
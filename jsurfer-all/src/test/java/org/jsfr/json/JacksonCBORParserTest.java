@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.jsfr.json.provider.JacksonProvider;
 import org.junit.Before;
+import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -41,7 +42,12 @@ public class JacksonCBORParserTest extends JsonSurferTest<ObjectNode, ArrayNode,
     @Before
     public void setUp() {
         provider = new JacksonProvider();
-        surfer = new JsonSurfer(new JacksonParser(new CBORFactory()), provider);
+        surfer = JsonSurferCbor.INSTANCE;
+    }
+
+    @Test
+    public void testBinaryValues() throws Exception {
+        assertBinaryValues(new ObjectMapper(new CBORFactory()));
     }
 
     @Override
@@ -69,4 +75,24 @@ public class JacksonCBORParserTest extends JsonSurferTest<ObjectNode, ArrayNode,
         // skip non-byte-based source
     }
 
+    @Override
+    public void testSurfLines() throws Exception {
+        // skip line-delimited text source
+    }
+
+    @Override
+    public void testSurfLinesInParallel() throws Exception {
+        // skip line-delimited text source
+    }
+
+    @Override
+    public void testNonBlockingParserFedInChunks() throws Exception {
+        // skip non-blocking json parser over binary source
+    }
+
+    @Override
+    public void testNonBlockingParserWithBigIntegerBeforeFloat() throws Exception {
+        // skip non-blocking json parser over binary source
+    }
+
 }
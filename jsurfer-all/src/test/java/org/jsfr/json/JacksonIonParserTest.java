@@ -29,8 +29,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.ion.IonFactory;
+import com.fasterxml.jackson.dataformat.ion.IonObjectMapper;
 import org.jsfr.json.provider.JacksonProvider;
 import org.junit.Before;
+import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -41,7 +43,12 @@ public class JacksonIonParserTest extends JsonSurferTest<ObjectNode, ArrayNode,
     @Before
     public void setUp() {
         provider = new JacksonProvider();
-        surfer = new JsonSurfer(new JacksonParser(new IonFactory()), provider);
+        surfer = JsonSurferIon.INSTANCE;
+    }
+
+    @Test
+    public void testBinaryValues() throws Exception {
+        assertBinaryValues(new IonObjectMapper(IonFactory.forBinaryWriters()));
     }
 
     @Override
@@ -69,4 +76,24 @@ public class JacksonIonParserTest extends JsonSurferTest<ObjectNode, ArrayNode,
         // skip non-byte-based source
     }
 
+    @Override
+    public void testSurfLines() throws Exception {
+        // skip line-delimited text source
+    }
+
+    @Override
+    public void testSurfLinesInParallel() throws Exception {
+        // skip line-delimited text source
+    }
+
+    @Override
+    public void testNonBlockingParserFedInChunks() throws Exception {
+        // skip non-blocking json parser over binary source
+    }
+
+    @Override
+    public void testNonBlockingParserWithBigIntegerBeforeFloat() throws Exception {
+        // skip non-blocking json parser over binary source
+    }
+
 }
@@ -36,6 +36,9 @@ import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
 import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
 import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
 import org.apache.avro.Schema;
+import org.jsfr.json.compiler.JsonPathCompiler;
+import org.jsfr.json.path.ChildNode;
+import org.jsfr.json.path.JsonPath;
 import org.jsfr.json.provider.JacksonProvider;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -44,9 +47,12 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.eq;
@@ -64,6 +70,23 @@ public class JacksonParserTest extends JsonSurferTest<ObjectNode, ArrayNode, Jso
         surfer = new JsonSurfer(JacksonParser.INSTANCE, provider);
     }
 
+    @Test
+    public void testFieldNamesShareCompiledKeys() throws Exception {
+        JsonPath authorPath = JsonPathCompiler.compile("$.store.book[*].author");
+        JsonPath titlePath = JsonPathCompiler.compile("$..title");
+        String author = ((ChildNode) authorPath.get(3)).getKey();
+        String title = ((ChildNode) titlePath.get(2)).getKey();
+        List<String> names = new ArrayList<>();
+        surfer.configBuilder()
+                .bind(authorPath, (value, context) -> names.add(context.getCurrentFieldName()))
+                .bind(titlePath, (value, context) -> names.add(context.getCurrentFieldName()))
+                .buildAndSurf(read("sample.json"));
+        assertEquals(8, names.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertSame(i % 2 == 0 ? author : title, names.get(i));
+        }
+    }
+
     @Test
     public void testNonBlockingParser() {
         JsonPathListener mockListener = mock(JsonPathListener.class);
@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonPathPublisherTest {
+
+    private static final List<JsonSurfer> SURFERS = Arrays.asList(
+        new JsonSurfer(NativeParser.INSTANCE, JavaCollectionProvider.INSTANCE),
+        new JsonSurfer(JacksonParser.INSTANCE, JavaCollectionProvider.INSTANCE),
+        new JsonSurfer(GsonParser.INSTANCE, JavaCollectionProvider.INSTANCE),
+        new JsonSurfer(FastJsonParser.INSTANCE, JavaCollectionProvider.INSTANCE),
+        new JsonSurfer(JsonSimpleParser.INSTANCE, JavaCollectionProvider.INSTANCE));
+
+    private static final String JSON = "{\"items\": [{\"id\": 1, \"name\": \"first\"}, {\"id\": 2, \"name\": \"second\"}, "
+        + "{\"id\": 3, \"name\": \"third\"}], \"total\": 3}";
+
+    @Test
+    public void testDemandThrottlesInput() {
+        for (JsonSurfer surfer : SURFERS) {
+            ChunkSource source = new ChunkSource(JSON, 8);
+            Collector collector = new Collector();
+            JsonPathPublisher publisher = surfer.publisher("$.items[*].name");
+            publisher.subscribe(collector);
+            source.subscribe(publisher);
+            // reads ahead up to the first match only
+            int delivered = source.delivered;
+            assertTrue(delivered > 0 && delivered < source.chunks.size());
+            assertTrue(collector.values.isEmpty());
+
+            collector.subscription.request(1);
+            assertEquals(Arrays.asList("first"), collector.values);
+            assertTrue(source.delivered > delivered && source.delivered < source.chunks.size());
+            delivered = source.delivered;
+
+            collector.subscription.request(1);
+            assertEquals(Arrays.asList("first", "second"), collector.values);
+            assertTrue(source.delivered > delivered && source.delivered < source.chunks.size());
+
+            collector.subscription.request(10);
+            assertEquals(Arrays.asList("first", "second", "third"), collector.values);
+            assertTrue(collector.completed);
+            assertNull(collector.error);
+        }
+    }
+
+    @Test
+    public void testCompletesAfterLastDemandedMatch() {
+        for (JsonSurfer surfer : SURFERS) {
+            ChunkSource source = new ChunkSource(JSON, 1);
+            Collector collector = new Collector();
+            JsonPathPublisher publisher = surfer.publisher("$.total");
+            publisher.subscribe(collector);
+            source.subscribe(publisher);
+            collector.subscription.request(1);
+            assertEquals(Arrays.asList(3L), longs(collector.values));
+            assertTrue(collector.completed);
+        }
+    }
+
+    @Test
+    public void testMalformedInputFails() {
+        for (JsonSurfer surfer : SURFERS) {
+            ChunkSource source = new ChunkSource("{\"items\": [{\"name\": \"first\"}, {\"name\": \"unterminated}]}", 4);
+            Collector collector = new Collector();
+            JsonPathPublisher publisher = surfer.publisher("$.items[*].name");
+            publisher.subscribe(collector);
+            source.subscribe(publisher);
+            collector.subscription.request(Long.MAX_VALUE);
+            assertEquals(Arrays.asList("first"), collector.values);
+            assertTrue(collector.error != null);
+        }
+    }
+
+    @Test
+    public void testCancelStopsInput() {
+        for (JsonSurfer surfer : SURFERS) {
+            ChunkSource source = new ChunkSource(JSON, 8);
+            Collector collector = new Collector();
+            JsonPathPublisher publisher = surfer.publisher("$.items[*].id");
+            publisher.subscribe(collector);
+            source.subscribe(publisher);
+            collector.subscription.request(1);
+            collector.subscription.cancel();
+            int delivered = source.delivered;
+            collector.subscription.request(10);
+            assertEquals(Arrays.asList(1L), longs(collector.values));
+            assertEquals(delivered, source.delivered);
+            assertTrue(source.cancelled);
+        }
+    }
+
+    @Test
+    public void testAsynchronousSignals() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"id\": ").append(i).append('}');
+        }
+        byte[] bytes = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        for (JsonSurfer surfer : SURFERS) {
+            List<Object> ids = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            JsonPathPublisher publisher = surfer.publisher("$[*].id");
+            publisher.subscribe(new Flow.Subscriber<Object>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription = s;
+                    ForkJoinPool.commonPool().execute(() -> s.request(1));
+                }
+
+                @Override
+                public void onNext(Object item) {
+                    ids.add(item);
+                    ForkJoinPool.commonPool().execute(() -> subscription.request(1));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(null);
+                }
+            });
+            try (SubmissionPublisher<ByteBuffer> source = new SubmissionPublisher<>()) {
+                source.subscribe(publisher);
+                for (int i = 0; i < bytes.length; i += 100) {
+                    source.submit(ByteBuffer.wrap(bytes, i, Math.min(100, bytes.length - i)));
+                }
+            }
+            done.get(30, TimeUnit.SECONDS);
+            assertEquals(10000, ids.size());
+            assertEquals(9999L, ((Number) ids.get(9999)).longValue());
+        }
+    }
+
+    @Test
+    public void testSingleSubscriber() {
+        JsonPathPublisher publisher = SURFERS.get(0).publisher("$.total");
+        publisher.subscribe(new Collector());
+        Collector second = new Collector();
+        publisher.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    private static List<Long> longs(List<Object> numbers) {
+        List<Long> longs = new ArrayList<>();
+        for (Object number : numbers) {
+            longs.add(((Number) number).longValue());
+        }
+        return longs;
+    }
+
+    /**
+     * Publishes a document in chunks of a fixed size, one chunk per requested item on the requesting thread
+     */
+    private static final class ChunkSource implements Flow.Publisher<ByteBuffer> {
+
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private int delivered;
+        private boolean cancelled;
+
+        ChunkSource(String json, int chunkSize) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += chunkSize) {
+                chunks.add(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+            }
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && !cancelled && delivered <= chunks.size(); i++) {
+                        if (delivered++ < chunks.size()) {
+                            subscriber.onNext(chunks.get(delivered - 1));
+                        } else {
+                            subscriber.onComplete();
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+    }
+
+    private static final class Collector implements Flow.Subscriber<Object> {
+
+        private final List<Object> values = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            this.subscription = s;
+        }
+
+        @Override
+        public void onNext(Object item) {
+            values.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+
+    }
+
+}
@@ -29,7 +29,6 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.junit.Before;
 import org.junit.Ignore;
-import org.junit.Test;
 
 /**
  * Created by Leo on 2017/8/26.
@@ -66,16 +65,9 @@ public class JsonSimpleParserTest extends JsonSurferTest<JSONObject, JSONArray,
         // ignore
     }
 
-    @Test(expected = UnsupportedOperationException.class)
     @Override
-    public void testSurfingIterator() throws Exception {
-        super.testSurfingIterator();
-    }
-
-    @Test(expected = UnsupportedOperationException.class)
-    @Override
-    public void testResumableParser() throws Exception {
-        super.testResumableParser();
+    public void testNonBlockingParserWithBigIntegerBeforeFloat() throws Exception {
+        // skip integers beyond long, json-simple does not parse them
     }
 
 }
@@ -24,16 +24,33 @@
 
 package org.jsfr.json;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.CustomMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
@@ -52,6 +69,7 @@ import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.jsfr.json.TestUtils.readClasspathResource;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -85,6 +103,27 @@ public abstract class JsonSurferTest<O extends P, A extends P, P> {
         return readClasspathResource(resourceName, surfer.getParserCharset());
     }
 
+    /**
+     * Surfs binary values of a binary format, both when they are matched and when they are skipped
+     *
+     * @param mapper object mapper writing the format
+     */
+    protected void assertBinaryValues(ObjectMapper mapper) throws Exception {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("skipped", Collections.singletonMap("blob", new byte[] {9, 9}));
+        document.put("blob", new byte[] {1, 2, 3});
+        document.put("n", 1);
+        byte[] data = mapper.writeValueAsBytes(document);
+
+        JsonSurfer javaSurfer = new JsonSurfer(new JacksonParser(mapper.getFactory()), JavaCollectionProvider.INSTANCE);
+        assertArrayEquals(new byte[] {1, 2, 3},
+            (byte[]) javaSurfer.collectOne(new ByteArrayInputStream(data), JsonPathCompiler.compile("$.blob")));
+        assertArrayEquals(new byte[] {1, 2, 3},
+            surfer.collectOne(new ByteArrayInputStream(data), byte[].class, JsonPathCompiler.compile("$.blob")));
+        assertEquals(1, surfer.collectOne(new ByteArrayInputStream(data), Integer.class, JsonPathCompiler.compile("$.n"))
+            .intValue());
+    }
+
     @Test
     public void testTypeCasting() throws Exception {
         surfer.configBuilder()
@@ -1641,6 +1680,417 @@ public abstract class JsonSurferTest<O extends P, A extends P, P> {
         assertEquals(6, valuesTypeCaseSensitive.get().size());
     }
 
+    @Test
+    public void testManyBoundPaths() throws Exception {
+        // given
+        Collector collector = surfer.collector(read("sample.json"));
+        List<ValueBox<Collection<Object>>> authors = new ArrayList<>();
+        List<ValueBox<Collection<Object>>> prices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            authors.add(collector.collectAll("$.store.book[" + i + "].author"));
+            prices.add(collector.collectAll("$..book[" + i + "].price"));
+        }
+
+        // when
+        collector.exec();
+
+        // then
+        assertEquals(singletonList("Nigel Rees"), authors.get(0).get());
+        assertEquals(singletonList("J. R. R. Tolkien"), authors.get(3).get());
+        assertEquals(singletonList(8.95d), prices.get(0).get());
+        for (int i = 4; i < 500; i++) {
+            assertTrue(authors.get(i).get().isEmpty());
+            assertTrue(prices.get(i).get().isEmpty());
+        }
+    }
+
+    @Test
+    public void testDeepScanWithRepeatedKey() throws Exception {
+        // given
+        Collector collector = surfer.collector(read("nested_keys.json"));
+
+        // when
+        ValueBox<Collection<Object>> values = collector.collectAll("$.a..a");
+        collector.exec();
+
+        // then
+        assertEquals(2, values.get().size());
+    }
+
+    @Test
+    public void testSkipUnwatchedSubtrees() throws Exception {
+        // given
+        Collector collector = surfer.collector(read("sample.json"));
+
+        // when
+        ValueBox<Collection<Object>> titles = collector.collectAll("$.store.book[2].title");
+        ValueBox<Object> color = collector.collectOne("$.store.bicycle.color");
+        ValueBox<Object> expensive = collector.collectOne("$.expensive");
+        ValueBox<Collection<Object>> cheapBooks = collector.collectAll("$.store.book[*]?(@.price<9).author");
+        collector.exec();
+
+        // then
+        assertEquals(singletonList("Moby Dick"), titles.get());
+        assertEquals("red", color.get());
+        assertEquals(10L, ((Number) expensive.get()).longValue());
+        assertEquals(asList("Nigel Rees", "Herman Melville"), cheapBooks.get());
+    }
+
+    @Test
+    public void testObjectAfterNestedArrayElement() throws Exception {
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        surfer.configBuilder().bind("$[1].t", mockListener).buildAndSurf(read("nested_array.json"));
+        verify(mockListener).onValue(eq(provider.primitive(1L)), any(ParsingContext.class));
+    }
+
+    @Test
+    public void testDefinitePathsSharingPrefix() throws Exception {
+        // given
+        Collector collector = surfer.collector(read("sample.json"));
+
+        // when
+        ValueBox<Collection<Object>> second = collector.collectAll("$.store.book[1].title");
+        ValueBox<Collection<Object>> all = collector.collectAll("$.store.book[*].title");
+        ValueBox<Collection<Object>> some = collector.collectAll("$.store.book[1,3][\"author\", \"title\"]");
+        ValueBox<Collection<Object>> any = collector.collectAll("$.store.*.color");
+        ValueBox<Collection<Object>> last = collector.collectAll("$.store.book[3].title");
+        collector.exec();
+
+        // then
+        assertEquals(singletonList("Sword of Honour"), second.get());
+        assertEquals(4, all.get().size());
+        assertEquals(asList("Evelyn Waugh", "Sword of Honour", "J. R. R. Tolkien", "The Lord of the Rings"),
+            some.get());
+        assertEquals(singletonList("red"), any.get());
+        assertEquals(singletonList("The Lord of the Rings"), last.get());
+    }
+
+    @Test
+    public void testCollectedValuesAreIndependent() throws Exception {
+        // given
+        Collector collector = surfer.collector(read("sample.json"));
+
+        // when
+        ValueBox<Collection<Map>> books = collector.collectAll("$.store.book[*]", Map.class);
+        ValueBox<Map> first = collector.collectOne("$.store.book[0]", Map.class);
+        ValueBox<Map> store = collector.collectOne("$.store", Map.class);
+        collector.exec();
+
+        // then
+        List<Object> authors = new ArrayList<>();
+        for (Map book : books.get()) {
+            authors.add(book.get("author"));
+        }
+        assertEquals(asList("Nigel Rees", "Evelyn Waugh", "Herman Melville", "J. R. R. Tolkien"), authors);
+        assertEquals("Sayings of the Century", first.get().get("title"));
+        assertEquals(3, store.get().size());
+    }
+
+    @Test
+    public void testSurfMappedFile() throws Exception {
+        byte[] prefix = "garbage".getBytes(StandardCharsets.UTF_8);
+        byte[] json = read("sample.json").readAllBytes();
+        Path file = Files.createTempFile("jsurfer", ".json");
+        try {
+            Files.write(file, json);
+            JsonPathListener mockListener = mock(JsonPathListener.class);
+            surfer.surf(file, surfer.configBuilder().bind("$.store.book[*].author", mockListener).build());
+            verify(mockListener, times(4)).onValue(any(), any(ParsingContext.class));
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            content.write(prefix);
+            content.write(json);
+            Files.write(file, content.toByteArray());
+            JsonPathListener channelListener = mock(JsonPathListener.class);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(prefix.length);
+                surfer.surf(channel, surfer.configBuilder().bind("$.expensive", channelListener).build());
+                assertTrue(channel.isOpen());
+                assertEquals(content.size(), channel.position());
+            }
+            verify(channelListener).onValue(eq(provider.primitive(10L)), any(ParsingContext.class));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSurfLines() throws Exception {
+        String lines = "{\"id\": 1, \"tags\": [\"a\"]}\n\n{\"id\": 2}\r\n   \n{\"nested\": {\"id\": 0}, \"id\": 3}";
+        List<Object> ids = new ArrayList<>();
+        List<Long> records = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        surfer.lines(surfer.configBuilder()
+            .bind("$.id", (value, context) -> {
+                ids.add(value);
+                records.add(context.getRecordNumber());
+                offsets.add(context.getRecordOffset());
+            }).build()).surf(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(asList(provider.primitive(1L), provider.primitive(2L), provider.primitive(3L)), ids);
+        assertEquals(asList(0L, 2L, 4L), records);
+        assertEquals(asList(0L, (long) lines.indexOf("{\"id\": 2}"), (long) lines.indexOf("{\"nested")), offsets);
+
+        List<Object> stopped = new ArrayList<>();
+        surfer.lines(surfer.configBuilder()
+            .bind("$.id", (value, context) -> {
+                stopped.add(value);
+                context.stop();
+            }).build()).surf(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(singletonList(provider.primitive(1L)), stopped);
+    }
+
+    @Test
+    public void testSurfLinesInParallel() throws Exception {
+        int count = 20000;
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.append("{\"id\": ").append(i).append(", \"name\": \"record ").append(i).append("\"}\n");
+        }
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        Path file = Files.createTempFile("jsurfer", ".jsonl");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Files.write(file, bytes);
+            Map<Long, Object> ids = new ConcurrentHashMap<>();
+            JsonLinesSurfer linesSurfer = surfer.lines(surfer.configBuilder()
+                .bind("$.id", (value, context) -> ids.put(context.getRecordNumber(), value)).build());
+            linesSurfer.surf(new ByteArrayInputStream(bytes), executor, 4);
+            assertEquals(count, ids.size());
+            for (long i = 0; i < count; i++) {
+                assertEquals(provider.primitive(i), ids.get(i));
+            }
+
+            ids.clear();
+            linesSurfer.surf(file, executor, 4);
+            assertEquals(count, ids.size());
+
+            byte[] malformed = (lines + "{\"id\": \"unterminated}\n").getBytes(StandardCharsets.UTF_8);
+            assertThrows(RuntimeException.class,
+                () -> linesSurfer.surf(new ByteArrayInputStream(malformed), executor, 4));
+        } finally {
+            executor.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPooledSurfer() throws Exception {
+        byte[] bytes;
+        try (InputStream input = read("sample.json")) {
+            bytes = input.readAllBytes();
+        }
+        AtomicInteger authors = new AtomicInteger();
+        PooledSurfer pooled = surfer.pooled(surfer.configBuilder()
+            .bind("$.store.book[*].author", (value, context) -> authors.incrementAndGet()).build());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        pooled.surf(bytes);
+                        pooled.surf(new ByteArrayInputStream(bytes));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4 * 50 * 2 * 4, authors.get());
+
+        // a document stopped halfway does not leave its state to the next one
+        List<Object> collected = new ArrayList<>();
+        AtomicBoolean stop = new AtomicBoolean(true);
+        PooledSurfer stopping = surfer.pooled(surfer.configBuilder()
+            .bind("$.store.book[*].author", (value, context) -> {
+                collected.add(value);
+                if (stop.getAndSet(false)) {
+                    context.stop();
+                }
+            }).build());
+        stopping.surf(bytes);
+        assertEquals(1, collected.size());
+        stopping.surf(bytes);
+        stopping.surf(new ByteArrayInputStream(bytes));
+        assertEquals(9, collected.size());
+        assertEquals(collected.get(1), collected.get(5));
+    }
+
+    @Test
+    public void testPooledSurferReleasesLastDocument() throws Exception {
+        PooledSurfer pooled = surfer.pooled(surfer.configBuilder()
+            .bind("$.store.book[*].author", (value, context) -> { }).build());
+        List<WeakReference<Object>> documents = surfPooled(pooled);
+        for (int i = 0; i < 100 && documents.stream().anyMatch(document -> document.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        for (WeakReference<Object> document : documents) {
+            assertNull(document.get());
+        }
+        // the slot is still reachable and reusable
+        surfPooled(pooled);
+    }
+
+    private List<WeakReference<Object>> surfPooled(PooledSurfer pooled) throws IOException {
+        byte[] bytes;
+        try (InputStream input = read("sample.json")) {
+            bytes = input.readAllBytes();
+        }
+        InputStream stream = new ByteArrayInputStream(bytes.clone());
+        pooled.surf(bytes);
+        pooled.surf(stream);
+        return asList(new WeakReference<>(bytes), new WeakReference<>(stream));
+    }
+
+    @Test
+    public void testNonBlockingParserFedInChunks() throws Exception {
+        byte[] bytes;
+        try (InputStream input = read("sample.json")) {
+            bytes = input.readAllBytes();
+        }
+        List<Object> expected = new ArrayList<>();
+        surfer.configBuilder()
+            .bind("$.store.book[*].author", (value, context) -> expected.add(value))
+            .bind("$..price", (value, context) -> expected.add(value))
+            .bind("$.store.bicycle", (value, context) -> expected.add(value))
+            .buildAndSurf(new ByteArrayInputStream(bytes));
+        for (int chunk : new int[] {1, 7, 64, bytes.length}) {
+            List<Object> values = new ArrayList<>();
+            NonBlockingParser parser = surfer.createNonBlockingParser(surfer.configBuilder()
+                .bind("$.store.book[*].author", (value, context) -> values.add(value))
+                .bind("$..price", (value, context) -> values.add(value))
+                .bind("$.store.bicycle", (value, context) -> values.add(value))
+                .build());
+            for (int i = 0; i < bytes.length; i += chunk) {
+                assertTrue(parser.feed(bytes, i, Math.min(i + chunk, bytes.length)));
+            }
+            parser.endOfInput();
+            assertEquals(expected, values);
+        }
+    }
+
+    @Test
+    public void testNonBlockingParserWithBigIntegerBeforeFloat() throws Exception {
+        byte[] bytes = ("{\"a\": [123456789012345678901234567890, 64.379, 2.5],"
+            + " \"x\": 123456789012345678901234567890, \"b\": 64.379}").getBytes(StandardCharsets.UTF_8);
+        List<Object> expected = new ArrayList<>();
+        surfer.configBuilder()
+            .bind("$.a[*]", (value, context) -> expected.add(value))
+            .buildAndSurf(new ByteArrayInputStream(bytes));
+        assertEquals(3, expected.size());
+        for (int chunk : new int[] {1, 1000}) {
+            List<Object> values = new ArrayList<>();
+            List<Double> floats = new ArrayList<>();
+            NonBlockingParser parser = surfer.createNonBlockingParser(surfer.configBuilder()
+                .bind("$.a[*]", (value, context) -> values.add(value))
+                .bind("$.b", (value, context) -> floats.add(context.cast(value, Double.class)))
+                .build());
+            for (int i = 0; i < bytes.length; i += chunk) {
+                assertTrue(parser.feed(bytes, i, Math.min(i + chunk, bytes.length)));
+            }
+            parser.endOfInput();
+            assertEquals(expected, values);
+            assertEquals(singletonList(64.379), floats);
+        }
+    }
+
+    @Test
+    public void testNumericFilterComparesLargeIntegersExactly() throws Exception {
+        List<Object> above = new ArrayList<>();
+        List<Object> equal = new ArrayList<>();
+        surfer.configBuilder()
+            .bind("$.items[*]?(@.v > 9007199254740992).id", (value, context) -> above.add(context.cast(value, String.class)))
+            .bind("$.items[*]?(@.v == 12).id", (value, context) -> equal.add(context.cast(value, String.class)))
+            .buildAndSurf(read("sample_large_integers.json"));
+        assertEquals(singletonList("b"), above);
+        assertEquals(singletonList("d"), equal);
+    }
+
+    @Test
+    public void testPrimitiveListeners() throws Exception {
+        List<Double> prices = new ArrayList<>();
+        List<Double> fictionPrices = new ArrayList<>();
+        List<String> authors = new ArrayList<>();
+        long[] expensive = new long[1];
+        surfer.configBuilder()
+            .bindDouble("$..price", (value, context) -> prices.add(value))
+            .bindDouble("$.store.book[*]?(@.category == \"fiction\").price", (value, context) -> fictionPrices.add(value))
+            .bindCharSequence("$.store.book[*].author", (value, context) -> authors.add(value.toString()))
+            .bindLong("$.expensive", (value, context) -> expensive[0] = value)
+            .buildAndSurf(read("sample.json"));
+        assertEquals(asList(8.95, 12.99, 8.99, 22.99, 19.95), prices);
+        assertEquals(asList(12.99, 8.99, 22.99), fictionPrices);
+        assertEquals(asList("Nigel Rees", "Evelyn Waugh", "Herman Melville", "J. R. R. Tolkien"), authors);
+        assertEquals(10L, expensive[0]);
+
+        List<Object> received = new ArrayList<>();
+        surfer.configBuilder()
+            .bindBoolean("$[2]", (value, context) -> received.add(value))
+            .bindLong("$[3]", (value, context) -> received.add(value))
+            .bindDouble("$[5][*]", (value, context) -> received.add(value))
+            .buildAndSurf(read("array.json"));
+        assertEquals(asList(true, 0.0, 1.0, 2.0), received);
+    }
+
+    @Test
+    public void testAggregates() throws Exception {
+        Collector collector = surfer.collector(read("sample.json"));
+        ValueBox<Long> books = collector.count("$.store.book[*]");
+        ValueBox<Long> isbns = collector.count("$..isbn");
+        ValueBox<Double> total = collector.sum("$..price");
+        ValueBox<Double> fiction = collector.sum("$.store.book[*]?(@.category == \"fiction\").price");
+        ValueBox<Double> average = collector.avg("$..price");
+        ValueBox<Double> cheapest = collector.min("$..price");
+        ValueBox<Double> dearest = collector.max("$..price");
+        ValueBox<Double> none = collector.max("$..weight");
+        ValueBox<Long> categories = collector.approxDistinct("$.store.book[*].category");
+        Aggregate<Long> expensive = Aggregate.count();
+        collector.exec();
+        assertEquals(4L, books.get().longValue());
+        assertEquals(2L, isbns.get().longValue());
+        assertEquals(73.87, total.get(), 1e-9);
+        assertEquals(44.97, fiction.get(), 1e-9);
+        assertEquals(14.774, average.get(), 1e-9);
+        assertEquals(8.95, cheapest.get(), 0);
+        assertEquals(22.99, dearest.get(), 0);
+        assertNull(none.get());
+        assertEquals(2L, categories.get().longValue());
+
+        surfer.configBuilder().aggregate("$.store.book[*]?(@.price > 10)", expensive).buildAndSurf(read("sample.json"));
+        assertEquals(2L, expensive.get().longValue());
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        ByteArrayOutputStream authors = new ByteArrayOutputStream();
+        surfer.project(read("sample.json"), authors, JsonProjection.builder().include("$.store.book[*].author").build());
+        assertEquals("{\"store\":{\"book\":[{\"author\":\"Nigel Rees\"},{\"author\":\"Evelyn Waugh\"},"
+            + "{\"author\":\"Herman Melville\"},{\"author\":\"J. R. R. Tolkien\"}]}}",
+            authors.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream pruned = new ByteArrayOutputStream();
+        surfer.project(read("sample.json"), pruned, JsonProjection.builder()
+            .include("$.store.book[2]")
+            .include("$.store.car")
+            .exclude("$..price")
+            .exclude("$..isbn")
+            .transform("$..title", value -> value.toString().toUpperCase())
+            .build());
+        assertEquals("{\"store\":{\"book\":[{\"category\":\"fiction\",\"author\":\"Herman Melville\","
+            + "\"title\":\"MOBY DICK\"}],\"car\":[\"ferrari\",\"lamborghini\"]}}", pruned.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream rest = new ByteArrayOutputStream();
+        surfer.project(read("sample.json"), rest, JsonProjection.builder().exclude("$.store").build());
+        assertEquals("{\"expensive\":10}", rest.toString(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonProjection.builder().include("$.store.book[*]?(@.price > 10)"));
+    }
+
     private Object json(String key, String value) {
         O object = this.provider.createObject();
         this.provider.put(object, key, this.provider.primitive(value));
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MappedInputStreamTest {
+
+    @Test
+    public void testReadAcrossRegions() throws Exception {
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.createTempFile("jsurfer", ".bin");
+        try {
+            Files.write(file, content);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(10);
+                MappedInputStream input = new MappedInputStream(channel, false, 64);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(10, input.read());
+                assertEquals(100, input.skip(100));
+                byte[] chunk = new byte[50];
+                int read;
+                while ((read = input.read(chunk, 0, chunk.length)) > 0) {
+                    out.write(chunk, 0, read);
+                }
+                assertEquals(-1, input.read());
+                byte[] expected = new byte[content.length - 111];
+                System.arraycopy(content, 111, expected, 0, expected.length);
+                assertArrayEquals(expected, out.toByteArray());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testNativeParserSkipsInRegions() throws Exception {
+        StringBuilder json = new StringBuilder("{\"skipped\": [");
+        for (int i = 0; i < 2000; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"s\": \"]}\\\\\\\"[{\", \"n\": [").append(i).append("]}");
+        }
+        json.append("], \"after\": {\"id\": 42}, \"tail\": \"end\"}");
+        Path file = Files.createTempFile("jsurfer", ".json");
+        try {
+            Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+            List<String> values = new ArrayList<>();
+            SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                    .bindRaw("$.after", (bytes, context) -> values.add(StandardCharsets.UTF_8.decode(bytes).toString()))
+                    .bind("$.tail", (value, context) -> values.add((String) value))
+                    .withJsonProvider(JavaCollectionProvider.INSTANCE)
+                    .withErrorStrategy(new DefaultErrorHandlingStrategy())
+                    .build();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                NativeParser.INSTANCE.parse(new MappedInputStream(channel, false, 100), new SurfingContext(config));
+            }
+            assertEquals(Arrays.asList("{\"id\": 42}", "end"), values);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.exception.JsonSurfingException;
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class NativeParserTest extends JsonSurferTest<Map<String, Object>, List<Object>, Object> {
+
+    @Before
+    public void setUp() {
+        provider = JavaCollectionProvider.INSTANCE;
+        surfer = JsonSurferNative.INSTANCE;
+    }
+
+    @Ignore
+    @Override
+    public void testTypeCasting() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingOne() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingOneWithFilter() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingCollection() {
+        // ignore
+    }
+
+    @Test
+    public void testNonBlockingParser() {
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        SurfingConfiguration config = surfer.configBuilder()
+                .bind("$[\"foo\",\"bar\"]", mockListener)
+                .build();
+        byte[] part1 = "{\"foo\": 12".getBytes(StandardCharsets.UTF_8);
+        byte[] part2 = "34, \"bar\": \"ab".getBytes(StandardCharsets.UTF_8);
+        byte[] part3 = "cd\"}".getBytes(StandardCharsets.UTF_8);
+
+        NonBlockingParser nonBlockingParser = surfer.createNonBlockingParser(config);
+        assertTrue(nonBlockingParser.feed(part1, 0, part1.length));
+        assertTrue(nonBlockingParser.feed(part2, 0, part2.length));
+        assertTrue(nonBlockingParser.feed(part3, 0, part3.length));
+        nonBlockingParser.endOfInput();
+        assertFalse(nonBlockingParser.feed(part1, 0, part1.length));
+        verify(mockListener).onValue(eq(1234L), any(ParsingContext.class));
+        verify(mockListener).onValue(eq("abcd"), any(ParsingContext.class));
+    }
+
+    @Test
+    public void testNonBlockingParserFedByteByByte() throws Exception {
+        byte[] json = readAsString("sample.json").getBytes(StandardCharsets.UTF_8);
+        Collector collector = surfer.collector(new ByteArrayInputStream(json));
+        ValueBox<Collection<Object>> expected = collector.collectAll("$..author");
+        collector.exec();
+
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        NonBlockingParser nonBlockingParser = surfer.createNonBlockingParser(surfer.configBuilder()
+                .bind("$..author", mockListener).build());
+        for (int i = 0; i < json.length; i++) {
+            assertTrue(nonBlockingParser.feed(json, i, i + 1));
+        }
+        nonBlockingParser.endOfInput();
+        for (Object author : expected.get()) {
+            verify(mockListener).onValue(eq(author), any(ParsingContext.class));
+        }
+    }
+
+    @Test
+    public void testInputStreamReadByteByByte() throws Exception {
+        InputStream trickle = new FilterInputStream(read("sample.json")) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        Collector collector = surfer.collector(trickle);
+        ValueBox<Collection<Object>> prices = collector.collectAll("$..price");
+        collector.exec();
+        assertEquals(Arrays.asList(8.95, 12.99, 8.99, 22.99, 19.95), prices.get());
+    }
+
+    @Test
+    public void testDecodeStringsAndNumbers() {
+        String json = "{\"s\": \"a\\\"b\\\\c\\/\\n\\u00e9\\ud83d\\ude00中\", \"esc\\u0061ped\": 1,"
+                + " \"numbers\": [0, -7, 9223372036854775807, -9223372036854775808, 123456789012345678901234567890,"
+                + " 1.5, -2e3, 0.25E-1]}";
+        Collector collector = surfer.collector(json);
+        ValueBox<Object> string = collector.collectOne("$.s");
+        ValueBox<Object> escapedName = collector.collectOne("$.escaped");
+        ValueBox<Collection<Object>> numbers = collector.collectAll("$.numbers[*]");
+        collector.exec();
+        assertEquals("a\"b\\c/\né😀中", string.get());
+        assertEquals(1L, escapedName.get());
+        assertEquals(Arrays.asList(0L, -7L, Long.MAX_VALUE, Long.MIN_VALUE,
+                new BigInteger("123456789012345678901234567890"), 1.5, -2000.0, 0.025), numbers.get());
+    }
+
+    @Test
+    public void testReaderAndByteOrderMark() {
+        String json = "﻿{\"name\": \"été\", \"list\": [true, false, null]}";
+        Collector collector = surfer.collector(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        ValueBox<Object> name = collector.collectOne("$.name");
+        ValueBox<Collection<Object>> list = collector.collectAll("$.list[*]");
+        collector.exec();
+        assertEquals("été", name.get());
+        assertEquals(Arrays.asList(true, false, null), list.get());
+
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        surfer.configBuilder().bind("$.name", mockListener).buildAndSurf(new StringReader(json.substring(1)));
+        verify(mockListener).onValue(eq("été"), any(ParsingContext.class));
+    }
+
+    @Test
+    public void testFieldNamesMatchedByBytes() {
+        String json = "{\"wide\": {\"a\": 1, \"caf\\u00e9\": 2, \"<undecoded>\": 3, \"b\": {\"c\": 4}, \"été\": 5,"
+                + " \"d\": [{\"c\": 6}]}}";
+        Collector collector = surfer.collector(json);
+        ValueBox<Object> escaped = collector.collectOne("$.wide.café");
+        ValueBox<Object> unicode = collector.collectOne("$.wide.été");
+        ValueBox<Object> sentinel = collector.collectOne("$.wide[\"<undecoded>\"]");
+        collector.exec();
+        assertEquals(2L, escaped.get());
+        assertEquals(5L, unicode.get());
+        assertEquals(3L, sentinel.get());
+
+        List<String> paths = new ArrayList<>();
+        surfer.configBuilder()
+                .bind("$.wide.*.c", (value, context) -> paths.add(context.getJsonPath()))
+                .bind("$.wide.d[*].c", (value, context) -> paths.add(context.getCurrentFieldName() + "=" + value))
+                .buildAndSurf(json);
+        assertEquals(Arrays.asList("$.wide.b.c", "$.wide.d[0].c", "c=6"), paths);
+    }
+
+    @Test
+    public void testUndecodedEntriesHoldingArrays() {
+        // "x" is left undecoded, its array is none of the anonymous arrays $.k[*][*] is looking for
+        byte[] json = "{\"k\": [{\"x\": [1, [2]], \"y\": 0}, [3, 4]], \"m\": {\"x\": [5]}}"
+                .getBytes(StandardCharsets.UTF_8);
+        List<Object> values = new ArrayList<>();
+        surfer.configBuilder()
+                .bind("$.k[*][*]", (value, context) -> values.add(value))
+                .bind("$.m.x[0]", (value, context) -> values.add(value))
+                .buildAndSurf(new ByteArrayInputStream(json));
+        assertEquals(Arrays.asList(3L, 4L, 5L), values);
+
+        // nothing is skipped while fed, so the parser steps into the undecoded entries
+        values.clear();
+        NonBlockingParser parser = surfer.createNonBlockingParser(surfer.configBuilder()
+                .bind("$.k[*][*]", (value, context) -> values.add(value))
+                .bind("$.m.x[0]", (value, context) -> values.add(value))
+                .build());
+        for (byte b : json) {
+            assertTrue(parser.feed(new byte[] {b}, 0, 1));
+        }
+        parser.endOfInput();
+        assertEquals(Arrays.asList(3L, 4L, 5L), values);
+    }
+
+    @Test
+    public void testProjectionSkipsWhatItLeavesOut() {
+        // the lexer only tokenizes what it does not skip, so the invalid literals are never read
+        String json = "{\"a\": {\"x\": tru}, \"b\": [1, {\"c\": 2, \"d\": [nul]}], \"e\": {\"f\": fals}}";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        surfer.project(json, output, JsonProjection.builder().include("$.b").exclude("$.a").exclude("$.b[1].d").build());
+        assertEquals("{\"b\":[1,{\"c\":2}]}", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSkippedSubtreeWithBracketsInStrings() {
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        surfer.configBuilder().bind("$.b", mockListener)
+                .buildAndSurf("{\"a\": {\"x\": \"}]\\\"{\", \"y\": [[{}]]}, \"b\": 1}");
+        verify(mockListener).onValue(eq(1L), any(ParsingContext.class));
+    }
+
+    @Test
+    public void testSkippedSubtreeIsOnlyCheckedForBracketBalance() {
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        surfer.configBuilder().bind("$.b", mockListener).buildAndSurf("{\"a\": [1 2 @], \"b\": 1}");
+        verify(mockListener).onValue(eq(1L), any(ParsingContext.class));
+
+        assertThrows(JsonSurfingException.class,
+            () -> surfer.configBuilder().bind("$.b", mockListener).buildAndSurf("{\"a\": [1 2}, \"b\": 1}"));
+    }
+
+    @Test
+    public void testMalformedInput() {
+        for (String json : Arrays.asList("{\"a\": 1,}", "{\"a\" 1}", "[1 2]", "[01]", "[1.]", "{\"a\": tru}", "[1]]",
+                "{\"a\": [1}", "[\"abc", "{\"a\": 1} x", "[-]")) {
+            JsonPathListener mockListener = mock(JsonPathListener.class);
+            assertThrows(json, JsonSurfingException.class,
+                () -> surfer.configBuilder().bind("$..*", mockListener).buildAndSurf(json));
+        }
+    }
+
+    @Test
+    public void testRawBinding() throws Exception {
+        String json = " {\"events\": [{\"a\": 1, \"b\": [1, {}]}, \"str\\\"ing\", 12.5e3, [], {\"n\": {\"x\": null}}],"
+                + " \"other\": {\"k\": \"v\"}} ";
+        List<String> events = new ArrayList<>();
+        List<String> others = new ArrayList<>();
+        List<String> documents = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        SurfingConfiguration config = surfer.configBuilder()
+                .bindRaw("$.events[*]", (bytes, context) -> events.add(StandardCharsets.UTF_8.decode(bytes).toString()))
+                .bindRaw("$.other.k", (bytes, context) -> others.add(StandardCharsets.UTF_8.decode(bytes).toString()))
+                .bindRaw("$", (bytes, context) -> documents.add(StandardCharsets.UTF_8.decode(bytes).toString()))
+                .bind("$.events[*].a", (value, context) -> values.add(value))
+                .build();
+        List<String> expected = Arrays.asList("{\"a\": 1, \"b\": [1, {}]}", "\"str\\\"ing\"", "12.5e3", "[]",
+                "{\"n\": {\"x\": null}}");
+
+        surfer.surf(json, config);
+        assertEquals(expected, events);
+        assertEquals(Collections.singletonList("\"v\""), others);
+        assertEquals(Collections.singletonList(json.trim()), documents);
+        assertEquals(Collections.singletonList(1L), values);
+
+        events.clear();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        NonBlockingParser nonBlockingParser = surfer.createNonBlockingParser(config);
+        for (int i = 0; i < bytes.length; i++) {
+            nonBlockingParser.feed(bytes, i, i + 1);
+        }
+        nonBlockingParser.endOfInput();
+        assertEquals(expected, events);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> surfer.configBuilder().bindRaw("$.events[*]?(@.a==1)", (b, context) -> { }));
+        assertThrows(UnsupportedOperationException.class, () -> JsonSurferJackson.INSTANCE.surf(json, config));
+    }
+
+    @Test
+    public void testRawBindingKeepsBytesAcrossBufferRefills() throws Exception {
+        StringBuilder sb = new StringBuilder("{\"events\": [");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            StringBuilder event = new StringBuilder("{\"id\": ").append(i).append(", \"payload\": \"");
+            for (int j = 0; j < i * 100; j++) {
+                event.append((char) ('a' + j % 26));
+            }
+            event.append("\", \"list\": [").append(i).append(", {\"deep\": [\"]\"]}]}");
+            expected.add(event.toString());
+            sb.append(i > 0 ? ", " : "").append(event);
+        }
+        String json = sb.append("]}").toString();
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        List<String> events = new ArrayList<>();
+        surfer.configBuilder()
+                .bindRaw("$.events[*]", (bytes, context) -> events.add(StandardCharsets.UTF_8.decode(bytes).toString()))
+                .buildAndSurf(trickle);
+        assertEquals(expected, events);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.exception.JsonSurfingException;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelArraySurferTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final int ITEMS = 1000;
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    private static byte[] document() {
+        StringBuilder sb = new StringBuilder("{\"meta\": {\"name\": \"items\", \"items\": [\"not\", \"this\"]}, \"items\": [");
+        for (int i = 0; i < ITEMS; i++) {
+            if (i > 0) {
+                sb.append(",\n");
+            }
+            sb.append("{\"id\": ").append(i).append(", \"text\": \"a, b] {c\\\" ").append(i)
+              .append("\", \"tags\": [").append(i % 3).append(", {\"x\": [1, 2]}]}");
+        }
+        return sb.append("], \"tail\": true}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testOrderedDelivery() {
+        List<Object> events = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$.meta.name", (value, context) -> events.add(value))
+                .bind("$.items[*].id", (value, context) -> events.add(value))
+                .bind("$.items[*]", (value, context) -> indexes.add(context.getCurrentArrayIndex()))
+                .bind("$.items[500].text", (value, context) -> events.add(value))
+                .bind("$.tail", (value, context) -> events.add(value))
+                .build();
+        new ParallelArraySurfer("$.items", POOL, ParallelArraySurfer.Delivery.ORDERED, 256).surf(document(), config);
+
+        List<Object> expected = new ArrayList<>();
+        expected.add("items");
+        for (long i = 0; i < ITEMS; i++) {
+            expected.add(i);
+            if (i == 500) {
+                expected.add("a, b] {c\" 500");
+            }
+        }
+        expected.add(true);
+        assertEquals(expected, events);
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals(i, (int) indexes.get(i));
+        }
+    }
+
+    @Test
+    public void testUnorderedDelivery() {
+        ConcurrentLinkedQueue<Object> ids = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Object> filtered = new ConcurrentLinkedQueue<>();
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$..id", (value, context) -> ids.add(value))
+                .bind("$.items[*]?(@.id>995)", (value, context) -> filtered.add(((Map) value).get("id")))
+                .build();
+        new ParallelArraySurfer("$.items", POOL, ParallelArraySurfer.Delivery.UNORDERED, 256).surf(document(), config);
+
+        List<Object> sortedIds = new ArrayList<>(ids);
+        sortedIds.sort(null);
+        assertEquals(ITEMS, sortedIds.size());
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals((long) i, sortedIds.get(i));
+        }
+        List<Object> sortedFiltered = new ArrayList<>(filtered);
+        sortedFiltered.sort(null);
+        assertEquals(List.of(996L, 997L, 998L, 999L), sortedFiltered);
+    }
+
+    @Test
+    public void testTopLevelArray() {
+        List<Object> values = new ArrayList<>();
+        byte[] json = "[1, \"two\", [3], {\"four\": 4}, null, [], {}]".getBytes(StandardCharsets.UTF_8);
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$[*]", (value, context) -> values.add(value))
+                .build();
+        new ParallelArraySurfer("$", POOL, ParallelArraySurfer.Delivery.ORDERED, 1).surf(json, config);
+        assertEquals(Arrays.asList(1L, "two", List.of(3L), Map.of("four", 4L), null, Collections.emptyList(),
+                Collections.emptyMap()), values);
+    }
+
+    @Test
+    public void testStop() {
+        List<Object> ids = new ArrayList<>();
+        List<Object> tail = new ArrayList<>();
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$.items[*].id", (value, context) -> {
+                    ids.add(value);
+                    if (ids.size() == 10) {
+                        context.stop();
+                    }
+                })
+                .bind("$.tail", (value, context) -> tail.add(value))
+                .build();
+        new ParallelArraySurfer("$.items", POOL, ParallelArraySurfer.Delivery.ORDERED, 256).surf(document(), config);
+        assertEquals(10, ids.size());
+        assertTrue(tail.isEmpty());
+    }
+
+    @Test
+    public void testEmptyAndMissingArray() {
+        List<Object> values = new ArrayList<>();
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$.other", (value, context) -> values.add(value))
+                .build();
+        ParallelArraySurfer surfer = new ParallelArraySurfer("$.items", POOL, ParallelArraySurfer.Delivery.ORDERED);
+        surfer.surf("{\"items\": [ ], \"other\": 1}".getBytes(StandardCharsets.UTF_8), config);
+        surfer.surf("{\"other\": 2}".getBytes(StandardCharsets.UTF_8), config);
+        assertEquals(List.of(1L, 2L), values);
+    }
+
+    @Test
+    public void testMalformedElement() {
+        SurfingConfiguration config = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$.items[*]", (value, context) -> { })
+                .build();
+        ParallelArraySurfer surfer = new ParallelArraySurfer("$.items", POOL, ParallelArraySurfer.Delivery.UNORDERED, 1);
+        assertThrows(JsonSurfingException.class,
+            () -> surfer.surf("{\"items\": [1, 2,, 3]}".getBytes(StandardCharsets.UTF_8), config));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParallelArraySurfer("$.items[*]", POOL, ParallelArraySurfer.Delivery.ORDERED));
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class StructuralIndexTest {
+
+    private static final String[] STRING_PARTS = {"a", "\\\\", "\\\"", "{", "}", "[", "]", "\\n", "\\u005c", ",", ":",
+        "é", "\\\\\\\\\\\\", "\\\\\\\""};
+
+    @Test
+    public void testClassifiersAgreeWithNaiveMatching() {
+        Random random = new Random(42);
+        for (int n = 0; n < 500; n++) {
+            StringBuilder json = new StringBuilder();
+            appendValue(json, random, 0);
+            byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+            int start = random.nextInt(3);
+            byte[] shifted = new byte[start + bytes.length + random.nextInt(3)];
+            Arrays.fill(shifted, (byte) '{');
+            System.arraycopy(bytes, 0, shifted, start, bytes.length);
+            int end = start + bytes.length;
+            int[] expected = naiveClosingBrackets(shifted, start, end);
+            assertMatches(expected, StructuralIndex.build(shifted, start, end, new BlockClassifier.ScalarBlockClassifier()),
+                    shifted, start, end);
+            if (BlockClassifier.isVectorized()) {
+                assertMatches(expected, StructuralIndex.build(shifted, start, end, new VectorBlockClassifier()),
+                        shifted, start, end);
+            }
+        }
+    }
+
+    @Test
+    public void testUnclosedBrackets() {
+        byte[] json = "[{\"a\": [1, 2], \"b\": {\"c\": \"]}\"".getBytes(StandardCharsets.UTF_8);
+        StructuralIndex index = StructuralIndex.build(json, 0, json.length);
+        assertEquals(-1, index.closingBracket(0));
+        assertEquals(-1, index.closingBracket(1));
+        assertEquals(12, index.closingBracket(7));
+        assertEquals(-1, index.closingBracket(20));
+        assertEquals(-1, index.closingBracket(2));
+    }
+
+    private static void assertMatches(int[] expected, StructuralIndex index, byte[] json, int start, int end) {
+        int opens = 0;
+        for (int i = start; i < end; i++) {
+            if (expected[i] != Integer.MIN_VALUE) {
+                assertEquals(new String(json, start, end - start, StandardCharsets.UTF_8) + " at " + i,
+                        expected[i], index.closingBracket(i));
+                opens++;
+            }
+        }
+        assertEquals(opens, index.size());
+    }
+
+    /**
+     * @return for each position of an opening bracket outside strings that of its closing bracket or -1, for any
+     * other position Integer.MIN_VALUE
+     */
+    private static int[] naiveClosingBrackets(byte[] json, int start, int end) {
+        int[] closing = new int[end];
+        Arrays.fill(closing, Integer.MIN_VALUE);
+        Deque<Integer> stack = new ArrayDeque<>();
+        boolean inString = false;
+        for (int i = start; i < end; i++) {
+            byte b = json[i];
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                closing[i] = -1;
+                stack.push(i);
+            } else if ((b == '}' || b == ']') && !stack.isEmpty()) {
+                closing[stack.pop()] = i;
+            }
+        }
+        return closing;
+    }
+
+    private static void appendValue(StringBuilder json, Random random, int depth) {
+        int kind = random.nextInt(depth > 4 ? 2 : 4);
+        switch (kind) {
+            case 0:
+                json.append(random.nextInt(1000));
+                break;
+            case 1:
+                json.append('"');
+                for (int i = random.nextInt(40); i > 0; i--) {
+                    json.append(STRING_PARTS[random.nextInt(STRING_PARTS.length)]);
+                }
+                json.append('"');
+                break;
+            case 2:
+                json.append('[');
+                for (int i = random.nextInt(6); i > 0; i--) {
+                    appendValue(json, random, depth + 1);
+                    json.append(i > 1 ? ", " : "");
+                }
+                json.append(']');
+                break;
+            default:
+                json.append('{');
+                for (int i = random.nextInt(6); i > 0; i--) {
+                    json.append("\"k").append(i).append("\": ");
+                    appendValue(json, random, depth + 1);
+                    json.append(i > 1 ? ", " : "");
+                }
+                json.append('}');
+                break;
+        }
+        if (kind >= 2 && random.nextInt(8) == 0) {
+            json.setLength(json.length() - 1);
+        }
+    }
+
+}
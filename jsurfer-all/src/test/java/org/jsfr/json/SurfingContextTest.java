@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class SurfingContextTest {
+
+    private SurfingContext context(String... paths) {
+        SurfingConfiguration.Builder builder = SurfingConfiguration.builder()
+            .withJsonProvider(JavaCollectionProvider.INSTANCE);
+        for (String path : paths) {
+            builder.bind(path, mock(JsonPathListener.class));
+        }
+        SurfingContext context = new SurfingContext(builder.build());
+        context.startJSON();
+        return context;
+    }
+
+    @Test
+    public void testSkipObjectOutsideOfBoundPaths() {
+        SurfingContext context = context("$.a.b");
+        context.startObject();
+        assertFalse(context.shouldSkipChildren());
+        context.startObjectEntry("x");
+        context.startObject();
+        assertTrue(context.shouldSkipChildren());
+        context.endObject();
+        context.startObjectEntry("a");
+        context.startObject();
+        assertFalse(context.shouldSkipChildren());
+    }
+
+    @Test
+    public void testSkipArrayOutsideOfBoundPaths() {
+        SurfingContext context = context("$.a[1].b");
+        context.startObject();
+        context.startObjectEntry("x");
+        context.startArray();
+        assertTrue(context.shouldSkipChildren());
+        context.endArray();
+        context.startObjectEntry("a");
+        context.startArray();
+        assertFalse(context.shouldSkipChildren());
+        context.startObject();
+        assertTrue(context.shouldSkipChildren());
+        context.endObject();
+        context.startObject();
+        assertFalse(context.shouldSkipChildren());
+    }
+
+    @Test
+    public void testNeverSkipUnderDeepScan() {
+        SurfingContext context = context("$..b");
+        context.startObject();
+        context.startObjectEntry("x");
+        context.startObject();
+        assertFalse(context.shouldSkipChildren());
+    }
+
+    @Test
+    public void testNeverSkipWhileCollecting() {
+        SurfingContext context = context("$.a");
+        context.startObject();
+        context.startObjectEntry("a");
+        context.startObject();
+        context.startObjectEntry("x");
+        context.startObject();
+        assertFalse(context.shouldSkipChildren());
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.exception.JsonSurfingException;
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assume.assumeNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class VectorParserTest extends JsonSurferTest<Map<String, Object>, List<Object>, Object> {
+
+    @Before
+    public void setUp() {
+        provider = JavaCollectionProvider.INSTANCE;
+        surfer = JsonSurferVector.INSTANCE;
+    }
+
+    @Ignore
+    @Override
+    public void testTypeCasting() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingOne() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingOneWithFilter() {
+        // ignore
+    }
+
+    @Ignore
+    @Override
+    public void testTypeBindingCollection() {
+        // ignore
+    }
+
+    @Test
+    public void testClassifierOfThisJvm() {
+        // set by each surefire execution, with and without the incubator module
+        String expected = System.getProperty("jsurfer.vectorized");
+        assumeNotNull(expected);
+        assertEquals(Boolean.parseBoolean(expected), VectorParser.isVectorized());
+    }
+
+    @Test
+    public void testSkippedSubtreesWithBracketsInStrings() {
+        String json = "{\"a\": {\"x\": \"}]\\\"{\", \"y\": [[{}]], \"z\": \"\\\\\"}, \"b\": 1,"
+                + " \"c\": [\"[\\\\\\\"]\", {\"d\": 2}], \"e\": {\"d\": 3}}";
+        List<Object> values = new ArrayList<>();
+        surfer.configBuilder()
+                .bind("$.b", (value, context) -> values.add(value))
+                .bind("$.e.d", (value, context) -> values.add(value))
+                .buildAndSurf(json);
+        assertEquals(Arrays.asList(1L, 3L), values);
+    }
+
+    @Test
+    public void testSkippedSubtreesOfStream() throws Exception {
+        byte[] json = readAsString("sample.json").getBytes(StandardCharsets.UTF_8);
+        Collector collector = surfer.collector(new ByteArrayInputStream(json));
+        ValueBox<Collection<Object>> prices = collector.collectAll("$.store.book[*].price");
+        ValueBox<Object> bicycle = collector.collectOne("$.store.bicycle.color");
+        collector.exec();
+        assertEquals(Arrays.asList(8.95, 12.99, 8.99, 22.99), prices.get());
+        assertEquals("red", bicycle.get());
+    }
+
+    @Test
+    public void testMalformedSkippedSubtrees() {
+        for (String json : Arrays.asList("{\"a\": [1}, \"b\": 1}", "{\"a\": {\"x\": 1], \"b\": 1}", "{\"a\": [[1]",
+                "{\"a\": {\"x\": \"}\"", "{\"a\": [1]]], \"b\": 1}")) {
+            JsonPathListener mockListener = mock(JsonPathListener.class);
+            assertThrows(json, JsonSurfingException.class,
+                () -> surfer.configBuilder().bind("$.b", mockListener).buildAndSurf(json));
+        }
+    }
+
+    @Test
+    public void testSkippedSubtreesAcrossBlocks() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"skip\": [\"").append("\\\\".repeat(i % 5)).append("]\\\"")
+                    .append("x".repeat(i % 67)).append("\", {\"n\": ").append(i).append("}], \"keep\": ").append(i)
+                    .append('}');
+        }
+        json.append(']');
+        JsonPathListener mockListener = mock(JsonPathListener.class);
+        surfer.configBuilder().bind("$[*].keep", mockListener).buildAndSurf(json.toString());
+        for (long i = 0; i < 200; i++) {
+            verify(mockListener).onValue(eq(i), any(ParsingContext.class));
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.jsfr.json.compiler;
+
+import org.jsfr.json.exception.JsonPathCompilerException;
+import org.jsfr.json.path.JsonPath;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class JsonPathCacheTest {
+
+    @Test
+    public void test_sharesCompiledPaths() {
+        JsonPathCache cache = new JsonPathCache(16);
+        JsonPath path = cache.get("$.store.book[*]?(@.price < 10).title");
+        assertSame(path, cache.get("$.store.book[*]?(@.price < 10).title"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void test_evictsLeastRecentlyUsed() {
+        JsonPathCache cache = new JsonPathCache(2);
+        JsonPath first = cache.get("$.a");
+        cache.get("$.b");
+        cache.get("$.a");
+        cache.get("$.c");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(first, cache.get("$.a"));
+        cache.get("$.b");
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void test_zeroSizeCompilesEveryTime() {
+        JsonPathCache cache = new JsonPathCache(0);
+        assertNotSame(cache.get("$.a"), cache.get("$.a"));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void test_invalidPathsAreNotCached() {
+        JsonPathCache cache = new JsonPathCache(16);
+        assertThrows(JsonPathCompilerException.class, () -> cache.get("$.a[?"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_defaultCacheBacksStringApis() {
+        JsonPathCache previous = JsonPathCache.getDefault();
+        JsonPathCache cache = new JsonPathCache(JsonPathCache.DEFAULT_MAXIMUM_SIZE);
+        JsonPathCache.setDefault(cache);
+        try {
+            assertSame(JsonPathCache.compile("$..author"), JsonPathCache.compile("$..author"));
+            assertEquals(1, cache.getHitCount());
+        } finally {
+            JsonPathCache.setDefault(previous);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package org.jsfr.json.compiler;
 
 import org.jsfr.json.exception.JsonSurfingException;
+import org.jsfr.json.filter.CloneableJsonPathFilter;
+import org.jsfr.json.path.FilterableChildNode;
+import org.jsfr.json.path.JsonPath;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.jsfr.json.compiler.JsonPathCompiler.compile;
 import static org.jsfr.json.compiler.JsonPathCompiler.unescapeString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class JsonPathCompilerTest {
 
@@ -46,4 +56,28 @@ public class JsonPathCompilerTest {
         e = assertThrows(AssertionError.class, () -> unescapeString("\"\"\""));
         assertEquals("unexpected end quote", e.getMessage());
     }
+
+    @Test
+    public void test_filterStatelessness() {
+        assertTrue(filterOf(compile("$.book[*]?(@.price < 10 || @.category==\"fiction\")")).isStateless());
+        assertTrue(filterOf(compile("$.book[*]?(!(@.price < 10))")).isStateless());
+        assertFalse(filterOf(compile("$.book[*]?(@.price < 10 && exists (@.isbn))")).isStateless());
+        assertFalse(filterOf(compile("$.book[*]?(@.price < 10 || exists (@.a) && exists (@.b))")).isStateless());
+    }
+
+    @Test
+    public void test_compileWithoutAntlr() throws Exception {
+        String path = "$.store.book[*]?(@.price < 10 && exists(@.isbn)).author";
+        URL core = JsonPathCompiler.class.getProtectionDomain().getCodeSource().getLocation();
+        // jsurfer-core alone, without the ANTLR runtime of the class path
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{core}, ClassLoader.getPlatformClassLoader())) {
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass("org.antlr.v4.runtime.Parser"));
+            Method compile = loader.loadClass(JsonPathCompiler.class.getName()).getMethod("compile", String.class);
+            assertEquals(compile(path).toString(), compile.invoke(null, path).toString());
+        }
+    }
+
+    private static CloneableJsonPathFilter filterOf(JsonPath path) {
+        return (CloneableJsonPathFilter) ((FilterableChildNode) path.get(path.pathDepth() - 1)).getJsonPathFilter();
+    }
 }
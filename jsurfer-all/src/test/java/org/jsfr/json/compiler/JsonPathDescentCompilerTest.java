@@ -0,0 +1,176 @@
+package org.jsfr.json.compiler;
+
+import org.jsfr.json.exception.JsonPathCompilerException;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the hand-written compiler with the ANTLR one, on the paths used across the tests and on random paths
+ */
+public class JsonPathDescentCompilerTest {
+
+    private static final String[] PATHS = {
+        "$", "$.a", "$.a.b.c", "$..a", "$..a..b", "$.*", "$*", "$.a.*.b", "$[*]", "$.a[*]", "$.a[0]", "$.a.0", "$[1]",
+        "$.a[1,3]", "$.a[0 to 2, 5]", "$.a[1 to 1]", "$[3 to 1]", "$.a[1.5]", "$.a[-1]", "$.a[1e3]",
+        "$[\"a\",\"b\"]", "$..book[1,3]['author','title']", "$.\"a.b\".c", "$..\"x\"[*]", "$ . a [ 0 ]", "lax $.a",
+        "strict $.a", "lax$.a", "$.to", "$.true", "$.null", "$.exists", "$.lax", "$.tox", "$.01", "$.a\\\"b",
+        "$.a\\u0041", "$.a\\x", "$.\"\\u0041\\n\"", "$.\"\\q\"", "$.\"\\u12\"", "$.a.type()", "$a", "$.", "$..", "$[",
+        "$.a[?(@.b)]", "$.store.book[*]?(@.price < 10)", "$.store.book[*]?(@.price <= 10.5)",
+        "$.store.book[*]?(@.price > -1e-3)", "$.store.book[*]?(@.price >= 0)", "$..book[*]?(@.category==\"fiction\")",
+        "$..book[*]?(@.category!=\"fiction\")", "$..book[*]?(@.category<>\"fiction\")", "$.a[*]?(@.b == true)",
+        "$.a[*]?(@.b != false)", "$.a[*]?(@.b == null)", "$.a[*]?(@.b <> null)", "$.a[*]?(@ == 1)",
+        "$.a[*]?(@.b like_regex \"^a.*\")", "$.a[*]?(@.b like_regex \"[\")", "$.a[*]?(exists(@.isbn))",
+        "$.a[*]?(exists (@.b.c[0]))", "$.a[*]?(@.type() == \"string\")", "$.a[*]?(@.b.type() != \"number\")",
+        "$.a[*]?(@.type() == \"unknown\")", "$.a[*]?(@.size() == \"x\")", "$.a[*]?(@.foo() == \"x\")",
+        "$.a[*]?(@.x == 1 && @.y == 2)", "$.a[*]?(@.x == 1 || @.y == 2)", "$.a[*]?(@.x == 1 && @.y == 2 || @.z)",
+        "$.a[*]?(@.x == 1 && @.y == 2 || @.z == 3)", "$.a[*]?(@.x == 1 || @.y == 2 && @.z == 3 || @.w == 4)",
+        "$.a[*]?(!(@.z == 1))", "$.a[*]?(!(@.z == 1 && @.y == 2) || !(!(@.x == 3)))",
+        "$.a[*]?(@.x == 1 && @.y == 2 && @.z == 3)", "$.a[0]?(@.b == 1).c[1,2]?(@.d > 2)",
+        "$..a[*]?(@.b == 1)", "$.a[*]?(@.b[*]?(@.c == 1) == 2)", "$.a[*]?(@..b == 1)", "$.a[*]?(@.b.* == 1)",
+        "$.a[*]?(@[\"b\"] == 1)", "$.a[*]?(@[0] == 1)", "$.a[*]?(@.b == 01)", "$.a[*]?(@.b = 1)",
+        "$.a[*]?(@.b == \"x\\u+041\")", "$.a[*] ?(@.b == 1)", "$.a[*]? (@.b == 1)", "$.a[*]?()", "$.a[*]?(@.b ==)",
+        "$.a[*]?(@.b", "$.a[*]?(@.b == 1", "$.a[*]?(exists())", "$.a\n.b", "$.a[\n*]", "$.a[2147483648]",
+        "$.a[*]?(@.b == 12345678901234567890.5e-7)", "$[\"a\"][0][*]", "$.a[0][1][2]", "$.*.*", "$.a**",
+    };
+
+    private static final String[] FRAGMENTS = {
+        "$", "lax ", "strict ", ".", "..", ".*", "*", "[", "]", "[*]", "?(", ")", "(", "()", "@", "exists", "==", "!=",
+        "<>", ">", ">=", "<", "<=", "&&", "||", "!", " like_regex ", " to ", ",", ":", "a", "book", "type", "true",
+        "false", "null", "0", "1", "12", "-3", "1.5", "2e3", "01", "\"x\"", "\"a\\\"b\"", "\"\\u0041\"", "\"string\"",
+        " ", "\n", "-", "=", "?", "'", "\\", "\\n", "_", "é",
+    };
+
+    @Test
+    public void test_samePathsAsAntlr() {
+        for (String path : PATHS) {
+            assertSameResult(path);
+        }
+    }
+
+    @Test
+    public void test_sameRandomPathsAsAntlr() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder path = new StringBuilder();
+            if (random.nextInt(10) > 0) {
+                path.append('$');
+            }
+            int fragments = random.nextInt(12);
+            for (int j = 0; j < fragments; j++) {
+                path.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            assertSameResult(path.toString());
+        }
+    }
+
+    @Test
+    public void test_sameMutatedPathsAsAntlr() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder path = new StringBuilder(PATHS[random.nextInt(PATHS.length)]);
+            int mutations = 1 + random.nextInt(3);
+            for (int j = 0; j < mutations; j++) {
+                int at = random.nextInt(path.length() + 1);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        path.insert(at, FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                        break;
+                    case 1:
+                        if (at < path.length()) {
+                            path.deleteCharAt(at);
+                        }
+                        break;
+                    default:
+                        String other = PATHS[random.nextInt(PATHS.length)];
+                        path.insert(at, other.substring(1 + random.nextInt(Math.max(1, other.length() - 1))));
+                }
+            }
+            assertSameResult(path.toString());
+        }
+    }
+
+    @Test
+    public void test_errorMessagesOfAntlr() {
+        for (String path : PATHS) {
+            assertEquals(path, message(path, true), message(path, false));
+        }
+    }
+
+    private static String message(String path, boolean antlr) {
+        try {
+            return String.valueOf(antlr ? JsonPathCompiler.compileWithAntlr(path) : JsonPathCompiler.compile(path));
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static void assertSameResult(String path) {
+        assertEquals(path, outcome(path, true), outcome(path, false));
+    }
+
+    private static String outcome(String path, boolean antlr) {
+        try {
+            return describe(antlr ? JsonPathCompiler.compileWithAntlr(path) : JsonPathDescentCompiler.compile(path),
+                new IdentityHashMap<>());
+        } catch (JsonPathCompilerException e) {
+            return e.getClass().getName();
+        } catch (RuntimeException | AssertionError e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static String describe(Object value, Map<Object, Boolean> seen) {
+        if (value == null || value instanceof Number || value instanceof CharSequence || value instanceof Boolean
+            || value instanceof Enum) {
+            return String.valueOf(value);
+        }
+        if (value instanceof Pattern) {
+            return "Pattern(" + ((Pattern) value).pattern() + ")";
+        }
+        if (value.getClass().isArray()) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < Array.getLength(value); i++) {
+                sb.append(describe(Array.get(value, i), seen)).append(',');
+            }
+            return sb.append(']').toString();
+        }
+        if (value instanceof Collection) {
+            return describe(((Collection<?>) value).toArray(), seen);
+        }
+        if (value instanceof Map) {
+            return describe(((Map<?, ?>) value).entrySet().toArray(), seen);
+        }
+        if (value instanceof Map.Entry) {
+            return describe(((Map.Entry<?, ?>) value).getKey(), seen) + "="
+                + describe(((Map.Entry<?, ?>) value).getValue(), seen);
+        }
+        if (seen.put(value, Boolean.TRUE) != null) {
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+        StringBuilder sb = new StringBuilder(value.getClass().getSimpleName()).append('{');
+        for (Class<?> type = value.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                try {
+                    sb.append(field.getName()).append('=').append(describe(field.get(value), seen)).append(';');
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json.filter;
+
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.jsfr.json.provider.JsonProvider;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NumberLiteralTest {
+
+    private final JsonProvider provider = JavaCollectionProvider.INSTANCE;
+
+    private Integer compare(Object candidate, String literal) {
+        return new NumberLiteral(new BigDecimal(literal)).compareFrom(candidate, provider);
+    }
+
+    @Test
+    public void testLongCandidates() {
+        assertEquals(Integer.valueOf(1), compare(101L, "100"));
+        assertEquals(Integer.valueOf(0), compare(100L, "100.0"));
+        assertEquals(Integer.valueOf(-1), compare(100L, "100.5"));
+        assertEquals(Integer.valueOf(1), compare(101L, "100.5"));
+        assertEquals(Integer.valueOf(-1), compare(-101L, "-100.5"));
+        assertEquals(Integer.valueOf(1), compare(-100L, "-100.5"));
+        assertEquals(Integer.valueOf(-1), compare(Long.MAX_VALUE, "9223372036854775808"));
+        assertEquals(Integer.valueOf(0), compare(7, "7"));
+    }
+
+    @Test
+    public void testDoubleCandidates() {
+        assertEquals(Integer.valueOf(0), compare(8.95d, "8.95"));
+        assertEquals(Integer.valueOf(1), compare(8.96d, "8.95"));
+        assertEquals(Integer.valueOf(-1), compare(0.1d, "0.10000000000000000001"));
+        assertEquals(Integer.valueOf(0), compare(-0.0d, "0"));
+        assertNull(compare(Double.NaN, "1"));
+    }
+
+    @Test
+    public void testOtherCandidates() {
+        assertEquals(Integer.valueOf(1), compare(new BigInteger("100000000000000000000"), "1"));
+        assertEquals(Integer.valueOf(0), compare("10", "10"));
+        assertNull(compare("ten", "10"));
+        assertNull(compare(null, "10"));
+    }
+
+}
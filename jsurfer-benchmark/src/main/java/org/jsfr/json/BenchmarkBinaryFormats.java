@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.ion.IonFactory;
+import com.fasterxml.jackson.dataformat.ion.IonObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surfs the authors of sample.json encoded as json text, Smile, CBOR and binary Ion
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkBinaryFormats {
+
+    private static final String PATH = "$.store.book[*].author";
+
+    private byte[] json;
+    private byte[] smile;
+    private byte[] cbor;
+    private byte[] ion;
+    private SurfingConfiguration jacksonConfig;
+    private SurfingConfiguration nativeConfig;
+    private SurfingConfiguration smileConfig;
+    private SurfingConfiguration cborConfig;
+    private SurfingConfiguration ionConfig;
+
+    @Setup
+    public void setup(final Blackhole blackhole) throws Exception {
+        json = Resources.toByteArray(Resources.getResource("sample.json"));
+        JsonNode document = new ObjectMapper().readTree(json);
+        smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(document);
+        cbor = new ObjectMapper(new CBORFactory()).writeValueAsBytes(document);
+        ion = new IonObjectMapper(IonFactory.forBinaryWriters()).writeValueAsBytes(document);
+        JsonPathListener listener = (value, context) -> blackhole.consume(value);
+        jacksonConfig = JsonSurferJackson.INSTANCE.configBuilder().bind(PATH, listener).build();
+        nativeConfig = JsonSurferNative.INSTANCE.configBuilder().bind(PATH, listener).build();
+        smileConfig = JsonSurferSmile.INSTANCE.configBuilder().bind(PATH, listener).build();
+        cborConfig = JsonSurferCbor.INSTANCE.configBuilder().bind(PATH, listener).build();
+        ionConfig = JsonSurferIon.INSTANCE.configBuilder().bind(PATH, listener).build();
+    }
+
+    @Benchmark
+    public void benchmarkJacksonText() {
+        JsonSurferJackson.INSTANCE.surf(new ByteArrayInputStream(json), jacksonConfig);
+    }
+
+    @Benchmark
+    public void benchmarkNativeText() {
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), nativeConfig);
+    }
+
+    @Benchmark
+    public void benchmarkSmile() {
+        JsonSurferSmile.INSTANCE.surf(new ByteArrayInputStream(smile), smileConfig);
+    }
+
+    @Benchmark
+    public void benchmarkCbor() {
+        JsonSurferCbor.INSTANCE.surf(new ByteArrayInputStream(cbor), cborConfig);
+    }
+
+    @Benchmark
+    public void benchmarkIon() {
+        JsonSurferIon.INSTANCE.surf(new ByteArrayInputStream(ion), ionConfig);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkBinaryFormats.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -34,6 +34,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -43,6 +44,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Collects objects matched by a wildcard. The many-elements benchmark matches thousands of small objects per document,
+ * main runs with the gc profiler so gc.alloc.rate.norm shows the garbage made per surf.
+ */
 @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
 @Threads(1)
@@ -56,7 +61,9 @@ public class BenchmarkCollectObject {
     private JsonSurfer simpleSurfer;
     private JsonSurfer fastjsonSurfer;
     private SurfingConfiguration surfingConfiguration;
+    private SurfingConfiguration manyElementsConfiguration;
     private String json;
+    private String manyElementsJson;
 
     @Setup
     public void setup(final Blackhole blackhole) throws Exception {
@@ -71,6 +78,14 @@ public class BenchmarkCollectObject {
                                                    .withCharset(StandardCharsets.UTF_8)
                                                    .build();
         json = Resources.toString(Resources.getResource("sample.json"), StandardCharsets.UTF_8);
+        manyElementsConfiguration = SurfingConfiguration.builder()
+                                                        .bind("$.items[*]", (value, context) -> blackhole.consume(value))
+                                                        .build();
+        StringBuilder items = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 10000; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        manyElementsJson = items.append("]}").toString();
     }
 
     @Benchmark
@@ -85,6 +100,12 @@ public class BenchmarkCollectObject {
         return true;
     }
 
+    @Benchmark
+    public boolean benchmarkJacksonManyElements() {
+        jacksonSurfer.surf(manyElementsJson, manyElementsConfiguration);
+        return true;
+    }
+
     @Benchmark
     public boolean benchmarkJacksonJrWithJsonSurfer() {
         jacksonJrSurfer.surf(json, surfingConfiguration);
@@ -107,6 +128,7 @@ public class BenchmarkCollectObject {
         Options opt = new OptionsBuilder()
                 .include(BenchmarkCollectObject.class.getSimpleName())
 //                .addProfiler(FlightRecordingProfiler.class)
+                .addProfiler(GCProfiler.class)
                 .build();
         new Runner(opt).run();
     }
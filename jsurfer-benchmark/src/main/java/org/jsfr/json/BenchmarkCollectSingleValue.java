@@ -68,6 +68,7 @@ public class BenchmarkCollectSingleValue {
     private JsonSurfer jacksonJrSurfer;
     private JsonSurfer simpleSurfer;
     private JsonSurfer fastjsonSurfer;
+    private JsonSurfer nativeSurfer;
     private SurfingConfiguration surfingConfiguration;
     private CollectOneListener collectOneListener;
     private String json;
@@ -81,6 +82,7 @@ public class BenchmarkCollectSingleValue {
         jacksonJrSurfer = JsonSurferJacksonJr.INSTANCE;
         simpleSurfer = JsonSurferJsonSimple.INSTANCE;
         fastjsonSurfer = JsonSurferFastJson.INSTANCE;
+        nativeSurfer = JsonSurferNative.INSTANCE;
         collectOneListener = new CollectOneListener(true);
         surfingConfiguration = SurfingConfiguration.builder()
                                                    .bind("$.store.book[0].author", collectOneListener)
@@ -137,6 +139,14 @@ public class BenchmarkCollectSingleValue {
         return value;
     }
 
+    @Benchmark
+    public Object benchmarkNativeWithJsonSurfer() {
+        nativeSurfer.surf(json, surfingConfiguration);
+        Object value = collectOneListener.getValue();
+        LOGGER.trace("The author of the first book: {}", value);
+        return value;
+    }
+
     @Benchmark
     public Object benchmarkGson() {
         JsonObject jsonObject = gson.fromJson(json, JsonObject.class);
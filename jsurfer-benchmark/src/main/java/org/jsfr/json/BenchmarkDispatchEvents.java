@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches SAX events to receivers that never match, which is what most events of a document go through.
+ * Run with the gc profiler, as main does, gc.alloc.rate.norm is the number of bytes allocated per event.
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDispatchEvents {
+
+    private static final int EVENTS = 10;
+
+    private static final class NoMatchReceiver implements JsonSaxHandler {
+
+        @Override
+        public boolean startJSON() {
+            return true;
+        }
+
+        @Override
+        public boolean endJSON() {
+            return true;
+        }
+
+        @Override
+        public boolean startObject() {
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            return true;
+        }
+
+        @Override
+        public boolean primitive(PrimitiveHolder primitiveHolder) {
+            return true;
+        }
+    }
+
+    @Param({"1", "4"})
+    private int receiverCount;
+
+    private ContentDispatcher dispatcher;
+    private PrimitiveHolder primitive;
+
+    @Setup
+    public void setup() {
+        dispatcher = new ContentDispatcher();
+        for (int i = 0; i < receiverCount; i++) {
+            dispatcher.addReceiver(new NoMatchReceiver());
+        }
+        primitive = new StaticPrimitiveHolder().withValue("value");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public Object benchmarkNoMatchEvents() {
+        dispatcher.startObject();
+        dispatcher.startObjectEntry("key");
+        dispatcher.primitive(primitive);
+        dispatcher.startObjectEntry("array");
+        dispatcher.startArray();
+        dispatcher.primitive(primitive);
+        dispatcher.startObject();
+        dispatcher.endObject();
+        dispatcher.endArray();
+        dispatcher.endObject();
+        return dispatcher;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkDispatchEvents.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how surfing throughput scales with the number of JsonPaths bound in one configuration.
+ * One path matches the document, all the others are decoys of both definite and deep-scan kind.
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkManyBoundPaths {
+
+    @Param({"1", "10", "100", "1000"})
+    private int pathCount;
+
+    private JsonSurfer gsonSurfer;
+    private JsonSurfer jacksonSurfer;
+    private SurfingConfiguration surfingConfiguration;
+    private String json;
+
+    @Setup
+    public void setup(final Blackhole blackhole) throws IOException {
+        gsonSurfer = JsonSurferGson.INSTANCE;
+        jacksonSurfer = JsonSurferJackson.INSTANCE;
+        JsonPathListener blackHoleListener = (value, context) -> blackhole.consume(value);
+        SurfingConfiguration.Builder builder = SurfingConfiguration.builder()
+                                                                   .bind("$.store.book[*].author", blackHoleListener)
+                                                                   .withCharset(StandardCharsets.UTF_8);
+        for (int i = 1; i < pathCount; i++) {
+            if (i % 2 == 0) {
+                builder.bind("$.store.book[*].field" + i, blackHoleListener);
+            } else {
+                builder.bind("$..field" + i, blackHoleListener);
+            }
+        }
+        surfingConfiguration = builder.build();
+        json = Resources.toString(Resources.getResource("sample.json"), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object benchmarkGsonWithJsonSurfer() {
+        gsonSurfer.surf(json, surfingConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonWithJsonSurfer() {
+        jacksonSurfer.surf(json, surfingConfiguration);
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkManyBoundPaths.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
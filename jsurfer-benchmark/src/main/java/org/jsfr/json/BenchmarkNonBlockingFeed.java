@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes a document in chunks through the non-blocking parser of every adapter, as an event loop would
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkNonBlockingFeed {
+
+    private static final int RECORDS = 20000;
+
+    @Param({"512", "8192"})
+    private int chunkSize;
+
+    private SurfingConfiguration surfingConfiguration;
+    private byte[] json;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        surfingConfiguration = SurfingConfiguration.builder()
+                                                   .bind("$.records[*].id", (value, context) -> blackhole.consume(value))
+                                                   .build();
+        StringBuilder sb = new StringBuilder("{\"records\": [");
+        for (int i = 0; i < RECORDS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\": ").append(i)
+              .append(", \"name\": \"record-").append(i).append('"')
+              .append(", \"score\": ").append(i * 0.25)
+              .append(", \"tags\": [\"alpha\", \"beta\", \"gamma\"]}");
+        }
+        json = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Object push(JsonSurfer surfer) {
+        NonBlockingParser parser = surfer.createNonBlockingParser(surfingConfiguration);
+        for (int i = 0; i < json.length; i += chunkSize) {
+            parser.feed(json, i, Math.min(i + chunkSize, json.length));
+        }
+        parser.endOfInput();
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNative() {
+        return push(JsonSurferNative.INSTANCE);
+    }
+
+    @Benchmark
+    public Object benchmarkJackson() {
+        return push(JsonSurferJackson.INSTANCE);
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonJr() {
+        return push(JsonSurferJacksonJr.INSTANCE);
+    }
+
+    @Benchmark
+    public Object benchmarkGson() {
+        return push(JsonSurferGson.INSTANCE);
+    }
+
+    @Benchmark
+    public Object benchmarkFastjson() {
+        return push(JsonSurferFastJson.INSTANCE);
+    }
+
+    @Benchmark
+    public Object benchmarkJsonSimple() {
+        return push(JsonSurferJsonSimple.INSTANCE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkNonBlockingFeed.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Surfs one large array sequentially and split into chunks surfed by a pool
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkParallelArray {
+
+    private static final int RECORDS = 200000;
+
+    @Param({"$.records[*].id", "$.records[*]"})
+    private String jsonPath;
+
+    private final LongAdder sum = new LongAdder();
+    private ForkJoinPool pool;
+    private ParallelArraySurfer orderedSurfer;
+    private ParallelArraySurfer unorderedSurfer;
+    private SurfingConfiguration surfingConfiguration;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool();
+        orderedSurfer = new ParallelArraySurfer("$.records", pool, ParallelArraySurfer.Delivery.ORDERED);
+        unorderedSurfer = new ParallelArraySurfer("$.records", pool, ParallelArraySurfer.Delivery.UNORDERED);
+        surfingConfiguration = JsonSurferNative.INSTANCE.configBuilder()
+                                                        .bind(jsonPath, (value, context) -> sum.add(value.hashCode()))
+                                                        .build();
+        StringBuilder sb = new StringBuilder("{\"records\": [");
+        for (int i = 0; i < RECORDS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\": ").append(i)
+              .append(", \"name\": \"record-").append(i).append('"')
+              .append(", \"score\": ").append(i * 0.25)
+              .append(", \"tags\": [\"alpha\", \"beta\", \"gamma\"]")
+              .append(", \"address\": {\"street\": \"Main Street ").append(i).append("\", \"zip\": \"12345\"}}");
+        }
+        json = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long benchmarkSequential() {
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), surfingConfiguration);
+        return sum.sumThenReset();
+    }
+
+    @Benchmark
+    public long benchmarkParallelOrdered() {
+        orderedSurfer.surf(json, surfingConfiguration);
+        return sum.sumThenReset();
+    }
+
+    @Benchmark
+    public long benchmarkParallelUnordered() {
+        unorderedSurfer.surf(json, surfingConfiguration);
+        return sum.sumThenReset();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkParallelArray.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -63,6 +63,8 @@ public class BenchmarkParseLargeJson {
     private JsonSurfer jacksonSurfer;
     private JsonSurfer jacksonJrSurfer;
     private JsonSurfer fastjsonSurfer;
+    private JsonSurfer nativeSurfer;
+    private JsonSurfer vectorSurfer;
     private SurfingConfiguration surfingConfiguration;
     private String json;
 
@@ -73,6 +75,8 @@ public class BenchmarkParseLargeJson {
         jacksonJrSurfer = JsonSurferJacksonJr.INSTANCE;
         simpleSurfer = JsonSurferJsonSimple.INSTANCE;
         fastjsonSurfer = JsonSurferFastJson.INSTANCE;
+        nativeSurfer = JsonSurferNative.INSTANCE;
+        vectorSurfer = JsonSurferVector.INSTANCE;
         JsonPathListener blackHoleListener = (value, context) -> {
             LOGGER.trace("Properties: {}", value);
             blackhole.consume(value);
@@ -115,6 +119,19 @@ public class BenchmarkParseLargeJson {
         return null;
     }
 
+    @Benchmark
+    public Object benchmarkNativeWithJsonSurfer() {
+        nativeSurfer.surf(json, surfingConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public Object benchmarkVectorWithJsonSurfer() {
+        vectorSurfer.surf(json, surfingConfiguration);
+        return null;
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(BenchmarkParseLargeJson.class.getSimpleName())
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums the samples of a metrics document through boxing listeners and through double listeners
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPrimitiveListeners {
+
+    private static final int SAMPLES = 100000;
+
+    private final double[] sum = new double[1];
+    private byte[] json;
+    private SurfingConfiguration nativeBoxed;
+    private SurfingConfiguration nativePrimitive;
+    private SurfingConfiguration jacksonBoxed;
+    private SurfingConfiguration jacksonPrimitive;
+    private SurfingConfiguration gsonBoxed;
+    private SurfingConfiguration gsonPrimitive;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\"samples\": [");
+        for (int i = 0; i < SAMPLES; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"timestamp\": ").append(1600000000000L + i).append(", \"value\": ").append(i * 0.37).append('}');
+        }
+        json = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        nativeBoxed = boxed(JsonSurferNative.INSTANCE);
+        nativePrimitive = primitive(JsonSurferNative.INSTANCE);
+        jacksonBoxed = boxed(JsonSurferJackson.INSTANCE);
+        jacksonPrimitive = primitive(JsonSurferJackson.INSTANCE);
+        gsonBoxed = boxed(JsonSurferGson.INSTANCE);
+        gsonPrimitive = primitive(JsonSurferGson.INSTANCE);
+    }
+
+    private SurfingConfiguration boxed(JsonSurfer surfer) {
+        return surfer.configBuilder()
+                     .bind("$.samples[*].value", (value, context) -> sum[0] += context.cast(value, Double.class))
+                     .build();
+    }
+
+    private SurfingConfiguration primitive(JsonSurfer surfer) {
+        return surfer.configBuilder()
+                     .bindDouble("$.samples[*].value", (value, context) -> sum[0] += value)
+                     .build();
+    }
+
+    private double surf(JsonSurfer surfer, SurfingConfiguration configuration) {
+        sum[0] = 0;
+        surfer.surf(new String(json, StandardCharsets.UTF_8), configuration);
+        return sum[0];
+    }
+
+    @Benchmark
+    public double benchmarkNativeBoxed() {
+        return surf(JsonSurferNative.INSTANCE, nativeBoxed);
+    }
+
+    @Benchmark
+    public double benchmarkNativePrimitive() {
+        return surf(JsonSurferNative.INSTANCE, nativePrimitive);
+    }
+
+    @Benchmark
+    public double benchmarkJacksonBoxed() {
+        return surf(JsonSurferJackson.INSTANCE, jacksonBoxed);
+    }
+
+    @Benchmark
+    public double benchmarkJacksonPrimitive() {
+        return surf(JsonSurferJackson.INSTANCE, jacksonPrimitive);
+    }
+
+    @Benchmark
+    public double benchmarkGsonBoxed() {
+        return surf(JsonSurferGson.INSTANCE, gsonBoxed);
+    }
+
+    @Benchmark
+    public double benchmarkGsonPrimitive() {
+        return surf(JsonSurferGson.INSTANCE, gsonPrimitive);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkPrimitiveListeners.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards every element of an array as bytes, once by collecting and serializing it again and once as raw bytes
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkRawCapture {
+
+    private static final int RECORDS = 20000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SurfingConfiguration collectingConfiguration;
+    private SurfingConfiguration rawConfiguration;
+    private byte[] json;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        collectingConfiguration = SurfingConfiguration.builder()
+                .bind("$.events[*]", (value, context) -> {
+                    try {
+                        blackhole.consume(objectMapper.writeValueAsBytes(value));
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .build();
+        rawConfiguration = SurfingConfiguration.builder()
+                .bindRaw("$.events[*]", (bytes, context) -> blackhole.consume(bytes.remaining()))
+                .build();
+        StringBuilder sb = new StringBuilder("{\"events\": [");
+        for (int i = 0; i < RECORDS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\": ").append(i)
+              .append(", \"type\": \"click\", \"user\": {\"name\": \"user-").append(i % 100).append("\", \"age\": 30}")
+              .append(", \"tags\": [\"alpha\", \"beta\"], \"score\": ").append(i * 0.5).append('}');
+        }
+        json = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object benchmarkNativeCollectAndSerialize() {
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), collectingConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonCollectAndSerialize() {
+        JsonSurferJackson.INSTANCE.surf(new ByteArrayInputStream(json), collectingConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNativeRaw() {
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), rawConfiguration);
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkRawCapture.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
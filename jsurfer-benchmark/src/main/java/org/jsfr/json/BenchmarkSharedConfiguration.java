@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surfs small payloads with one configuration shared by several threads, once allocating the parsing state per
+ * document and once reusing it per thread
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSharedConfiguration {
+
+    private SurfingConfiguration nativeConfiguration;
+    private SurfingConfiguration jacksonConfiguration;
+    private PooledSurfer nativePooled;
+    private PooledSurfer jacksonPooled;
+    private byte[] json;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        nativeConfiguration = JsonSurferNative.INSTANCE.configBuilder()
+                .bind("$.user.name", (value, context) -> blackhole.consume(value))
+                .bind("$.items[*].price", (value, context) -> blackhole.consume(value))
+                .build();
+        jacksonConfiguration = JsonSurferJackson.INSTANCE.configBuilder()
+                .bind("$.user.name", (value, context) -> blackhole.consume(value))
+                .bind("$.items[*].price", (value, context) -> blackhole.consume(value))
+                .build();
+        nativePooled = JsonSurferNative.INSTANCE.pooled(nativeConfiguration);
+        jacksonPooled = JsonSurferJackson.INSTANCE.pooled(jacksonConfiguration);
+        StringBuilder sb = new StringBuilder("{\"id\": 42, \"user\": {\"name\": \"user-42\", \"email\": \"user@example.com\"}");
+        sb.append(", \"items\": [");
+        for (int i = 0; i < 10; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"sku\": \"item-").append(i).append("\", \"quantity\": ").append(i + 1)
+              .append(", \"price\": ").append(i * 2.5).append('}');
+        }
+        json = sb.append("], \"status\": \"paid\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object benchmarkNativePerDocument() {
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), nativeConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNativePooledBytes() {
+        nativePooled.surf(json);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNativePooledStream() {
+        nativePooled.surf(new ByteArrayInputStream(json));
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonPerDocument() {
+        JsonSurferJackson.INSTANCE.surf(new ByteArrayInputStream(json), jacksonConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonPooled() {
+        jacksonPooled.surf(json);
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSharedConfiguration.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
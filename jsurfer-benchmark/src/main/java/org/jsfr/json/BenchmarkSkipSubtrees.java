@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surfs the paths of BenchmarkParseLargeJson in a generated document of the same shape, a map of build configurations
+ * whose bulky build steps are skipped. The vector benchmark runs with the jdk.incubator.vector module, the scalar one
+ * with the same parser falling back to classifying bytes one at a time.
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSkipSubtrees {
+
+    private static final int BUILDERS = 2000;
+    private static final int STEPS = 20;
+
+    @Param({"$.builders.*.properties.branch", "$.builders..properties.branch"})
+    private String jsonPath;
+
+    private SurfingConfiguration vectorConfig;
+    private SurfingConfiguration nativeConfig;
+    private SurfingConfiguration jacksonConfig;
+    private String json;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        StringBuilder sb = new StringBuilder("{\"builders\": {");
+        for (int i = 0; i < BUILDERS; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("\"builder-").append(i).append("\": {\"basedir\": \"build/").append(i)
+                    .append("\", \"category\": \"release\", \"slavenames\": [\"slave-1\", \"slave-2\", \"slave-3\"],")
+                    .append(" \"factory\": {\"classname\": \"BuildFactory\", \"steps\": [");
+            for (int j = 0; j < STEPS; j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append("[\"ShellCommand\", {\"command\": [\"bash\", \"-c\", \"echo \\\"step ").append(j)
+                        .append("\\\" && make -C src/{a,b}[0-9] check\"], \"env\": {\"PATH\": \"/usr/bin:/bin\"},")
+                        .append(" \"haltOnFailure\": true, \"timeout\": ").append(j * 60).append("}]");
+            }
+            sb.append("]}, \"properties\": {\"branch\": \"release-").append(i % 7)
+                    .append("\", \"platform\": \"linux64\", \"stage_platform\": \"linux64\"}}");
+        }
+        json = sb.append("}}").toString();
+        JsonPathListener listener = (value, context) -> blackhole.consume(value);
+        vectorConfig = JsonSurferVector.INSTANCE.configBuilder().bind(jsonPath, listener).skipOverlappedPath().build();
+        nativeConfig = JsonSurferNative.INSTANCE.configBuilder().bind(jsonPath, listener).skipOverlappedPath().build();
+        jacksonConfig = JsonSurferJackson.INSTANCE.configBuilder().bind(jsonPath, listener).skipOverlappedPath().build();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public Object benchmarkVector() {
+        JsonSurferVector.INSTANCE.surf(json, vectorConfig);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkScalar() {
+        JsonSurferVector.INSTANCE.surf(json, vectorConfig);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNative() {
+        JsonSurferNative.INSTANCE.surf(json, nativeConfig);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJackson() {
+        JsonSurferJackson.INSTANCE.surf(json, jacksonConfig);
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSkipSubtrees.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
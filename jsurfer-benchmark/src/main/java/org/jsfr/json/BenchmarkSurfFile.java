@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surfs a file through an InputStream and through memory-mapped regions
+ */
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSurfFile {
+
+    private static final int RECORDS = 200000;
+
+    private Path file;
+    private SurfingConfiguration surfingConfiguration;
+
+    @Setup
+    public void setup(final Blackhole blackhole) throws IOException {
+        file = Files.createTempFile("jsurfer-benchmark", ".json");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"records\": [");
+            for (int i = 0; i < RECORDS; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write("{\"id\": " + i + ", \"name\": \"record-" + i + "\", \"tags\": [\"alpha\", \"beta\"],"
+                        + " \"address\": {\"street\": \"Main Street " + i + "\", \"zip\": \"12345\"}}");
+            }
+            writer.write("]}");
+        }
+        surfingConfiguration = SurfingConfiguration.builder()
+                                                   .bind("$.records[*].id", (value, context) -> blackhole.consume(value))
+                                                   .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public Object benchmarkNativeInputStream() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            JsonSurferNative.INSTANCE.surf(inputStream, surfingConfiguration);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkNativeMapped() {
+        JsonSurferNative.INSTANCE.surf(file, surfingConfiguration);
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonInputStream() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            JsonSurferJackson.INSTANCE.surf(inputStream, surfingConfiguration);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object benchmarkJacksonMapped() {
+        JsonSurferJackson.INSTANCE.surf(file, surfingConfiguration);
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSurfFile.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
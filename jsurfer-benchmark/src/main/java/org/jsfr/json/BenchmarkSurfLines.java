@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Surfs newline-delimited json line by line with a fresh parser each, and as json lines
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSurfLines {
+
+    private static final int RECORDS = 100000;
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    @Param({"native", "jackson"})
+    private String adapter;
+
+    private final LongAdder sum = new LongAdder();
+    private JsonSurfer surfer;
+    private ExecutorService executor;
+    private SurfingConfiguration surfingConfiguration;
+    private JsonLinesSurfer linesSurfer;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        surfer = "native".equals(adapter) ? JsonSurferNative.INSTANCE : JsonSurferJackson.INSTANCE;
+        executor = Executors.newFixedThreadPool(WORKERS);
+        surfingConfiguration = surfer.configBuilder()
+                                     .bind("$.level", (value, context) -> sum.add(value.hashCode()))
+                                     .build();
+        linesSurfer = surfer.lines(surfingConfiguration);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            sb.append("{\"timestamp\": ").append(1700000000000L + i)
+              .append(", \"level\": \"").append(i % 10 == 0 ? "WARN" : "INFO").append('"')
+              .append(", \"logger\": \"org.example.Service\"")
+              .append(", \"message\": \"request ").append(i).append(" served\"")
+              .append(", \"context\": {\"user\": ").append(i % 1000).append(", \"tags\": [\"web\", \"api\"]}}\n");
+        }
+        json = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long benchmarkLineByLine() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(json),
+            StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            surfer.surf(line, surfingConfiguration);
+        }
+        return sum.sumThenReset();
+    }
+
+    @Benchmark
+    public long benchmarkSurfLines() {
+        linesSurfer.surf(new ByteArrayInputStream(json));
+        return sum.sumThenReset();
+    }
+
+    @Benchmark
+    public long benchmarkSurfLinesInParallel() {
+        linesSurfer.surf(new ByteArrayInputStream(json), executor, WORKERS);
+        return sum.sumThenReset();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSurfLines.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums one field of records made of hundreds of fields with names unique to each record, which are rejected by their
+ * bytes instead of being decoded
+ */
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkWideObjects {
+
+    private static final int RECORDS = 1000;
+    private static final int FIELDS = 300;
+
+    private SurfingConfiguration nativeConfig;
+    private SurfingConfiguration jacksonConfig;
+    private final long[] sum = new long[1];
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < RECORDS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('{');
+            for (int j = 0; j < FIELDS; j++) {
+                sb.append("\"field-").append(i).append('-').append(j).append("\": ").append(j).append(", ");
+                if (j == FIELDS / 2) {
+                    sb.append("\"id\": ").append(i).append(", ");
+                }
+            }
+            sb.append("\"last\": true}");
+        }
+        json = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        nativeConfig = JsonSurferNative.INSTANCE.configBuilder()
+                .bindLong("$[*].id", (value, context) -> sum[0] += value).build();
+        jacksonConfig = JsonSurferJackson.INSTANCE.configBuilder()
+                .bindLong("$[*].id", (value, context) -> sum[0] += value).build();
+    }
+
+    @Benchmark
+    public long benchmarkNative() {
+        sum[0] = 0;
+        JsonSurferNative.INSTANCE.surf(new ByteArrayInputStream(json), nativeConfig);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long benchmarkJackson() {
+        sum[0] = 0;
+        JsonSurferJackson.INSTANCE.surf(new ByteArrayInputStream(json), jacksonConfig);
+        return sum[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkWideObjects.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -32,6 +32,7 @@ import java.io.IOException;
 public abstract class AbstractPrimitiveHolder implements PrimitiveHolder {
 
     private boolean executed;
+    private boolean overridden;
     private Object value;
     private final SurfingConfiguration surfingConfiguration;
 
@@ -41,6 +42,7 @@ public abstract class AbstractPrimitiveHolder implements PrimitiveHolder {
 
     public void init() {
         this.executed = false;
+        this.overridden = false;
         this.value = null;
     }
 
@@ -62,9 +64,91 @@ public abstract class AbstractPrimitiveHolder implements PrimitiveHolder {
     @Override
     public void setValue(Object value) {
         this.executed = true;
+        this.overridden = true;
         this.value = value;
     }
 
+    @Override
+    public String getRawText() {
+        if (overridden) {
+            return null;
+        }
+        try {
+            return doGetRawText();
+        } catch (Exception e) {
+            surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isLong() {
+        try {
+            if (overridden) {
+                return isLong(providedNumber());
+            }
+            return doIsLong();
+        } catch (Exception e) {
+            surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isDouble() {
+        try {
+            if (overridden) {
+                return isDouble(providedNumber());
+            }
+            return doIsDouble();
+        } catch (Exception e) {
+            surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+            return false;
+        }
+    }
+
+    @Override
+    public long getLong() {
+        try {
+            if (overridden) {
+                return asNumber(providedNumber()).longValue();
+            }
+            return doGetLong();
+        } catch (Exception e) {
+            surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+            return 0;
+        }
+    }
+
+    @Override
+    public double getDouble() {
+        try {
+            if (overridden) {
+                return asNumber(providedNumber()).doubleValue();
+            }
+            return doGetDouble();
+        } catch (Exception e) {
+            surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+            return 0;
+        }
+    }
+
+    @Override
+    public CharSequence getCharSequence() {
+        if (!overridden) {
+            try {
+                CharSequence text = doGetCharSequence();
+                if (text != null) {
+                    return text;
+                }
+            } catch (Exception e) {
+                surfingConfiguration.getErrorHandlingStrategy().handleParsingException(e);
+                return null;
+            }
+        }
+        return PrimitiveHolder.super.getCharSequence();
+    }
+
     public void skipValue() {
         if (!executed) {
             this.executed = true;
@@ -81,4 +165,52 @@ public abstract class AbstractPrimitiveHolder implements PrimitiveHolder {
 
     protected abstract Object doGetValue() throws IOException;
 
+    /*
+     * Holders of numbers override the hooks below to decode straight from the parser, the defaults go through the
+     * value of the json provider
+     */
+
+    protected CharSequence doGetCharSequence() throws IOException {
+        return null;
+    }
+
+    protected String doGetRawText() throws IOException {
+        return null;
+    }
+
+    protected boolean doIsLong() throws IOException {
+        return isLong(providedNumber());
+    }
+
+    protected boolean doIsDouble() throws IOException {
+        return isDouble(providedNumber());
+    }
+
+    protected long doGetLong() throws IOException {
+        return asNumber(providedNumber()).longValue();
+    }
+
+    protected double doGetDouble() throws IOException {
+        return asNumber(providedNumber()).doubleValue();
+    }
+
+    private Number providedNumber() {
+        return surfingConfiguration.getJsonProvider().numberValue(getValue());
+    }
+
+    private static boolean isLong(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isDouble(Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+
+    private static Number asNumber(Number number) {
+        if (number == null) {
+            throw new NumberFormatException("Not a number");
+        }
+        return number;
+    }
+
 }
@@ -0,0 +1,373 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JsonProvider;
+
+/**
+ * Aggregate of the values matched by a path, kept in primitive accumulators while surfing. Bind it with
+ * {@link SurfingConfiguration.Builder#aggregate(String, Aggregate[])} or take it from a {@link Collector}, then read the
+ * result from the box once surfing has finished. Numbers are read from the primitive holders of the parser, so no
+ * value is boxed or built by the json provider where the holder can decode it.
+ *
+ * @param <T> type of the result
+ */
+public abstract class Aggregate<T> implements ValueBox<T> {
+
+    private static final int DEFAULT_PRECISION = 14;
+
+    Aggregate() {
+    }
+
+    /**
+     * @return aggregate counting every match, null values and containers included
+     */
+    public static Aggregate<Long> count() {
+        return new Count();
+    }
+
+    /**
+     * @return aggregate summing the matched numbers with compensated summation, other values are ignored
+     */
+    public static Aggregate<Double> sum() {
+        return new Sum(false);
+    }
+
+    /**
+     * @return aggregate averaging the matched numbers, null if there are none. Other values are ignored
+     */
+    public static Aggregate<Double> avg() {
+        return new Sum(true);
+    }
+
+    /**
+     * @return aggregate of the smallest matched number, null if there are none. Other values are ignored
+     */
+    public static Aggregate<Double> min() {
+        return new Extreme(-1);
+    }
+
+    /**
+     * @return aggregate of the largest matched number, null if there are none. Other values are ignored
+     */
+    public static Aggregate<Double> max() {
+        return new Extreme(1);
+    }
+
+    /**
+     * @return HyperLogLog estimate of the number of distinct matched values, with a standard error of about 0.8%
+     */
+    public static Aggregate<Long> approxDistinct() {
+        return new ApproxDistinct(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision base 2 logarithm of the number of registers, from 4 to 16. The standard error is about
+     *                  1.04 / sqrt(2^precision)
+     * @return HyperLogLog estimate of the number of distinct matched values
+     */
+    public static Aggregate<Long> approxDistinct(int precision) {
+        if (precision < ApproxDistinct.MIN_PRECISION || precision > ApproxDistinct.MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + ApproxDistinct.MIN_PRECISION + " and "
+                + ApproxDistinct.MAX_PRECISION + ": " + precision);
+        }
+        return new ApproxDistinct(precision);
+    }
+
+    /**
+     * @param primitiveHolder holder of a matched primitive
+     * @param provider        json provider
+     */
+    abstract void accept(PrimitiveHolder primitiveHolder, JsonProvider provider);
+
+    /**
+     * @param value    matched value built by the json provider
+     * @param provider json provider
+     */
+    abstract void accept(Object value, JsonProvider provider);
+
+    private abstract static class NumberAggregate<T> extends Aggregate<T> {
+
+        abstract void accept(long number);
+
+        abstract void accept(double number);
+
+        @Override
+        void accept(PrimitiveHolder primitiveHolder, JsonProvider provider) {
+            if (primitiveHolder.isLong()) {
+                accept(primitiveHolder.getLong());
+            } else if (primitiveHolder.isDouble()) {
+                accept(primitiveHolder.getDouble());
+            } else {
+                accept(primitiveHolder.getValue(), provider);
+            }
+        }
+
+        @Override
+        void accept(Object value, JsonProvider provider) {
+            Number number = provider.numberValue(value);
+            if (number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte) {
+                accept(number.longValue());
+            } else if (number != null) {
+                accept(number.doubleValue());
+            }
+        }
+    }
+
+    private static final class Count extends Aggregate<Long> {
+
+        private long count;
+
+        @Override
+        void accept(PrimitiveHolder primitiveHolder, JsonProvider provider) {
+            count++;
+        }
+
+        @Override
+        void accept(Object value, JsonProvider provider) {
+            count++;
+        }
+
+        @Override
+        public Long get() {
+            return count;
+        }
+    }
+
+    /**
+     * Integral numbers are summed exactly in a long until the sum overflows, then they join the compensated sum of
+     * the other numbers
+     */
+    private static final class Sum extends NumberAggregate<Double> {
+
+        private final boolean average;
+        private long count;
+        private boolean exact = true;
+        private long integralSum;
+        private double sum;
+        private double compensation;
+
+        Sum(boolean average) {
+            this.average = average;
+        }
+
+        @Override
+        void accept(long number) {
+            count++;
+            if (exact) {
+                try {
+                    integralSum = Math.addExact(integralSum, number);
+                    return;
+                } catch (ArithmeticException e) {
+                    exact = false;
+                    add(integralSum);
+                    integralSum = 0;
+                }
+            }
+            add(number);
+        }
+
+        @Override
+        void accept(double number) {
+            count++;
+            add(number);
+        }
+
+        private void add(double number) {
+            // Neumaier's variant of Kahan summation
+            double t = sum + number;
+            if (Math.abs(sum) >= Math.abs(number)) {
+                compensation += (sum - t) + number;
+            } else {
+                compensation += (number - t) + sum;
+            }
+            sum = t;
+        }
+
+        private double total() {
+            double integral = integralSum;
+            double t = sum + integral;
+            double c = compensation;
+            if (Math.abs(sum) >= Math.abs(integral)) {
+                c += (sum - t) + integral;
+            } else {
+                c += (integral - t) + sum;
+            }
+            return t + c;
+        }
+
+        @Override
+        public Double get() {
+            if (!average) {
+                return total();
+            }
+            return count == 0 ? null : total() / count;
+        }
+    }
+
+    /**
+     * Integral numbers are compared as longs, the other numbers as doubles, and the two extremes once at the end
+     */
+    private static final class Extreme extends NumberAggregate<Double> {
+
+        private final int sign;
+        private boolean integralFound;
+        private long integralExtreme;
+        private boolean found;
+        private double extreme;
+
+        Extreme(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        void accept(long number) {
+            if (!integralFound || Long.compare(number, integralExtreme) == sign) {
+                integralExtreme = number;
+                integralFound = true;
+            }
+        }
+
+        @Override
+        void accept(double number) {
+            if (!found || Double.compare(number, extreme) == sign) {
+                extreme = number;
+                found = true;
+            }
+        }
+
+        @Override
+        public Double get() {
+            if (!integralFound) {
+                return found ? extreme : null;
+            }
+            double integral = integralExtreme;
+            return found && Double.compare(extreme, integral) == sign ? extreme : integral;
+        }
+    }
+
+    /**
+     * HyperLogLog over 64 bit hashes. Numbers hash by value, so 1 and 1.0 are the same value, strings by their chars.
+     */
+    private static final class ApproxDistinct extends Aggregate<Long> {
+
+        static final int MIN_PRECISION = 4;
+        static final int MAX_PRECISION = 16;
+
+        private static final long TEXT_SEED = 0xcbf29ce484222325L;
+        private static final long TEXT_PRIME = 0x100000001b3L;
+        private static final long NUMBER_SEED = 0x9e3779b97f4a7c15L;
+        private static final double LINEAR_COUNTING_THRESHOLD = 2.5;
+
+        private final int precision;
+        private final byte[] registers;
+
+        ApproxDistinct(int precision) {
+            this.precision = precision;
+            this.registers = new byte[1 << precision];
+        }
+
+        @Override
+        void accept(PrimitiveHolder primitiveHolder, JsonProvider provider) {
+            if (primitiveHolder.isLong()) {
+                add(mix(primitiveHolder.getLong() ^ NUMBER_SEED));
+            } else if (primitiveHolder.isDouble()) {
+                addNumber(primitiveHolder.getDouble());
+            } else {
+                CharSequence text = primitiveHolder.getCharSequence();
+                if (text != null) {
+                    addText(text);
+                } else {
+                    accept(primitiveHolder.getValue(), provider);
+                }
+            }
+        }
+
+        @Override
+        void accept(Object value, JsonProvider provider) {
+            Number number = provider.numberValue(value);
+            if (number != null) {
+                addNumber(number.doubleValue());
+            } else if (provider.isPrimitiveString(value)) {
+                addText((String) provider.cast(value, String.class));
+            } else {
+                addText(String.valueOf(value));
+            }
+        }
+
+        private void addNumber(double number) {
+            long integral = (long) number;
+            add(mix((integral == number ? integral : Double.doubleToLongBits(number)) ^ NUMBER_SEED));
+        }
+
+        private void addText(CharSequence text) {
+            long hash = TEXT_SEED;
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                hash = (hash ^ text.charAt(i)) * TEXT_PRIME;
+            }
+            add(mix(hash));
+        }
+
+        private void add(long hash) {
+            int index = (int) (hash >>> (Long.SIZE - precision));
+            long rest = (hash << precision) | (1L << (precision - 1));
+            byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+            if (rank > registers[index]) {
+                registers[index] = rank;
+            }
+        }
+
+        /**
+         * Finalizer of SplitMix64, spreads the bits of the key over the whole hash
+         */
+        private static long mix(long key) {
+            long z = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public Long get() {
+            int m = registers.length;
+            double sum = 0;
+            int zeros = 0;
+            for (byte register : registers) {
+                sum += Math.scalb(1.0, -register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+            double alpha = 0.7213 / (1 + 1.079 / m);
+            double estimate = alpha * m * m / sum;
+            if (estimate <= LINEAR_COUNTING_THRESHOLD * m && zeros > 0) {
+                estimate = m * Math.log((double) m / zeros);
+            }
+            return Math.round(estimate);
+        }
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.InputStream;
+
+/**
+ * Non-blocking front end for adapters built on a blocking pull parser. Fed chunks are buffered and scanned for complete
+ * tokens, and the pull parser is resumed over them only as far as it can go without reading beyond the bytes fed so far:
+ * it breaks off once it has reported the events of the tokens known to be complete, keeping one token and one byte of
+ * lookahead for parsers that peek ahead. Children are not skipped meanwhile, so that every token is reported. The input
+ * has to be UTF-8.
+ */
+public final class BufferingNonBlockingParser implements NonBlockingParser {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final SurfingContext context;
+    private final JsonParserAdapter jsonParserAdapter;
+    private final FedInputStream input = new FedInputStream();
+    private final TokenScanner scanner = new TokenScanner();
+    private ResumableParser parser;
+    private long eventLimit;
+    private boolean awaitingInput;
+
+    /**
+     * @param context           context of the document
+     * @param jsonParserAdapter adapter creating the underlying resumable parser over an InputStream
+     */
+    public BufferingNonBlockingParser(SurfingContext context, JsonParserAdapter jsonParserAdapter) {
+        this.context = context;
+        this.jsonParserAdapter = jsonParserAdapter;
+    }
+
+    /**
+     * Starts parsing as soon as a complete token has been fed, which the first feed does anyway
+     */
+    @Override
+    public void parse() {
+        proceed();
+    }
+
+    @Override
+    public boolean resume() {
+        if (parser == null || awaitingInput || !context.isPaused()) {
+            return false;
+        }
+        if (context.isEventLimitReached()) {
+            // paused by a listener right at the end of the complete tokens
+            awaitingInput = true;
+        } else {
+            parser.resume();
+            breakOff();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean feed(byte[] bytes, int start, int end) {
+        if (context.isStopped() || input.ended) {
+            return false;
+        }
+        input.append(bytes, start, end);
+        scanner.scan(bytes, start, end);
+        proceed();
+        return true;
+    }
+
+    @Override
+    public void endOfInput() {
+        if (!input.ended) {
+            input.ended = true;
+            proceed();
+        }
+    }
+
+    private void proceed() {
+        long limit = input.ended ? -1 : scanner.completeEvents();
+        if (parser == null) {
+            if (limit == 0) {
+                return;
+            }
+            eventLimit = limit;
+            context.limitEvents(limit);
+            parser = jsonParserAdapter.createResumableParser(input, context);
+            parser.parse();
+            breakOff();
+        } else if (awaitingInput && (limit < 0 || limit > eventLimit)) {
+            eventLimit = limit;
+            context.limitEvents(limit);
+            awaitingInput = false;
+            parser.resume();
+            breakOff();
+        }
+    }
+
+    private void breakOff() {
+        // a parser that broke off at the event limit is paused, so that it can be resumed once more input arrives
+        if (!context.isStopped() && !context.isPaused()) {
+            context.pause();
+            awaitingInput = true;
+        }
+    }
+
+    /**
+     * Bytes fed so far, failing a read beyond them unless the input ended
+     */
+    private static final class FedInputStream extends InputStream {
+
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        private boolean ended;
+
+        void append(byte[] bytes, int start, int end) {
+            int length = end - start;
+            if (buffer.length - limit < length) {
+                int remaining = limit - pos;
+                if (buffer.length < remaining + length) {
+                    byte[] grown = new byte[Math.max(buffer.length * 2, remaining + length)];
+                    System.arraycopy(buffer, pos, grown, 0, remaining);
+                    buffer = grown;
+                } else {
+                    System.arraycopy(buffer, pos, buffer, 0, remaining);
+                }
+                pos = 0;
+                limit = remaining;
+            }
+            System.arraycopy(bytes, start, buffer, limit, length);
+            limit += length;
+        }
+
+        @Override
+        public int read() {
+            if (pos < limit) {
+                return buffer[pos++] & 0xFF;
+            }
+            return endOfFedBytes();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos == limit) {
+                return endOfFedBytes();
+            }
+            int count = Math.min(len, limit - pos);
+            System.arraycopy(buffer, pos, b, off, count);
+            pos += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return limit - pos;
+        }
+
+        private int endOfFedBytes() {
+            if (ended) {
+                return -1;
+            }
+            throw new IllegalStateException("Parser read beyond the complete tokens fed so far");
+        }
+
+    }
+
+    /**
+     * Counts the events of the tokens fed so far. A string, a bracket or a scalar followed by a delimiter is one event,
+     * a colon or a comma is a token without event. The tokens are not validated, that is up to the parser.
+     */
+    private static final class TokenScanner {
+
+        private static final int BETWEEN = 0;
+        private static final int STRING = 1;
+        private static final int ESCAPE = 2;
+        private static final int SCALAR = 3;
+
+        private int state = BETWEEN;
+        private long offset;
+        private long lastTokenEnd = -1;
+        private long events;
+        private long eventsBeforeLast;
+        private long eventsBeforeSecondLast;
+
+        void scan(byte[] bytes, int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = bytes[i];
+                switch (state) {
+                    case STRING:
+                        if (b == '\\') {
+                            state = ESCAPE;
+                        } else if (b == '"') {
+                            state = BETWEEN;
+                            token(true, offset);
+                        }
+                        break;
+                    case ESCAPE:
+                        state = STRING;
+                        break;
+                    case SCALAR:
+                        if (isDelimiter(b)) {
+                            token(true, offset - 1);
+                            between(b);
+                        }
+                        break;
+                    default:
+                        between(b);
+                        break;
+                }
+                offset++;
+            }
+        }
+
+        private void between(byte b) {
+            switch (b) {
+                case '{':
+                case '}':
+                case '[':
+                case ']':
+                    state = BETWEEN;
+                    token(true, offset);
+                    break;
+                case ':':
+                case ',':
+                    state = BETWEEN;
+                    token(false, offset);
+                    break;
+                case '"':
+                    state = STRING;
+                    break;
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    state = BETWEEN;
+                    break;
+                default:
+                    state = SCALAR;
+                    break;
+            }
+        }
+
+        private static boolean isDelimiter(byte b) {
+            switch (b) {
+                case '{':
+                case '}':
+                case '[':
+                case ']':
+                case ':':
+                case ',':
+                case '"':
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private void token(boolean event, long end) {
+            eventsBeforeSecondLast = eventsBeforeLast;
+            eventsBeforeLast = events;
+            if (event) {
+                events++;
+            }
+            lastTokenEnd = end;
+        }
+
+        /**
+         * @return events of the tokens followed by another complete token and a byte after that
+         */
+        long completeEvents() {
+            return offset > lastTokenEnd + 1 ? eventsBeforeLast : eventsBeforeSecondLast;
+        }
+
+    }
+
+}
@@ -24,7 +24,7 @@
 
 package org.jsfr.json;
 
-import org.jsfr.json.compiler.JsonPathCompiler;
+import org.jsfr.json.compiler.JsonPathCache;
 import org.jsfr.json.path.JsonPath;
 import org.jsfr.json.provider.JsonProvider;
 
@@ -75,7 +75,7 @@ public class Collector {
      * @return value box
      */
     public <T> ValueBox<T> collectOne(String jsonPath, final Class<T> tClass) {
-        return this.collectOne(JsonPathCompiler.compile(jsonPath), tClass);
+        return this.collectOne(JsonPathCache.compile(jsonPath), tClass);
     }
 
     /**
@@ -114,7 +114,7 @@ public class Collector {
      * @return value box
      */
     public <T> ValueBox<Collection<T>> collectAll(String jsonPath, final Class<T> tClass) {
-        return this.collectAll(JsonPathCompiler.compile(jsonPath), tClass);
+        return this.collectAll(JsonPathCache.compile(jsonPath), tClass);
     }
 
     /**
@@ -127,6 +127,131 @@ public class Collector {
         return this.collectAll(jsonPath, Object.class);
     }
 
+    /**
+     * Count the matched values, null values and containers included
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Long> count(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.count());
+    }
+
+    /**
+     * Count the matched values, null values and containers included
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Long> count(String jsonPath) {
+        return this.count(JsonPathCache.compile(jsonPath));
+    }
+
+    /**
+     * Sum the matched numbers
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Double> sum(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.sum());
+    }
+
+    /**
+     * Sum the matched numbers
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Double> sum(String jsonPath) {
+        return this.sum(JsonPathCache.compile(jsonPath));
+    }
+
+    /**
+     * Average the matched numbers
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> avg(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.avg());
+    }
+
+    /**
+     * Average the matched numbers
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> avg(String jsonPath) {
+        return this.avg(JsonPathCache.compile(jsonPath));
+    }
+
+    /**
+     * Find the smallest matched number
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> min(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.min());
+    }
+
+    /**
+     * Find the smallest matched number
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> min(String jsonPath) {
+        return this.min(JsonPathCache.compile(jsonPath));
+    }
+
+    /**
+     * Find the largest matched number
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> max(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.max());
+    }
+
+    /**
+     * Find the largest matched number
+     *
+     * @param jsonPath JsonPath
+     * @return value box, holding null if no number matches
+     */
+    public ValueBox<Double> max(String jsonPath) {
+        return this.max(JsonPathCache.compile(jsonPath));
+    }
+
+    /**
+     * Estimate the number of distinct matched values with HyperLogLog
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Long> approxDistinct(JsonPath jsonPath) {
+        return aggregate(jsonPath, Aggregate.approxDistinct());
+    }
+
+    /**
+     * Estimate the number of distinct matched values with HyperLogLog
+     *
+     * @param jsonPath JsonPath
+     * @return value box
+     */
+    public ValueBox<Long> approxDistinct(String jsonPath) {
+        return this.approxDistinct(JsonPathCache.compile(jsonPath));
+    }
+
+    private <T> ValueBox<T> aggregate(JsonPath jsonPath, Aggregate<T> aggregate) {
+        this.builder.aggregate(jsonPath, aggregate);
+        return aggregate;
+    }
+
     /**
      * Collector can only be executed once
      */
@@ -24,135 +24,135 @@
 
 package org.jsfr.json;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Arrays;
 
+/**
+ * Forwards events to its receivers, the latest added first. A receiver returning false is dropped by compacting the
+ * array in place, so dispatching an event allocates nothing.
+ */
 class ContentDispatcher implements JsonSaxHandler {
 
-    private final LinkedList<JsonSaxHandler> receiver = new LinkedList<JsonSaxHandler>();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private JsonSaxHandler[] receivers = new JsonSaxHandler[INITIAL_CAPACITY];
+    private int size;
 
     public boolean isEmpty() {
-        return this.receiver.isEmpty();
+        return size == 0;
     }
 
     public int size() {
-        return this.receiver.size();
+        return size;
     }
 
     @Override
     public boolean startJSON() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        for (JsonSaxHandler observer : receiver) {
-            observer.startJSON();
+        for (int i = 0; i < size; i++) {
+            receivers[i].startJSON();
         }
         return true;
     }
 
     @Override
     public boolean endJSON() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        for (JsonSaxHandler observer : receiver) {
-            observer.endJSON();
+        for (int i = 0; i < size; i++) {
+            receivers[i].endJSON();
         }
         return true;
     }
 
     @Override
     public boolean startObject() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.startObject()) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.startObject()) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     @Override
     public boolean endObject() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.endObject()) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.endObject()) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     @Override
     public boolean startObjectEntry(String key) {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.startObjectEntry(key)) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.startObjectEntry(key)) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     @Override
     public boolean startArray() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.startArray()) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.startArray()) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     @Override
     public boolean endArray() {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.endArray()) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.endArray()) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     @Override
     public boolean primitive(PrimitiveHolder primitiveHolder) {
-        if (receiver.isEmpty()) {
-            return true;
-        }
-        Iterator<JsonSaxHandler> itr = receiver.iterator();
-        while (itr.hasNext()) {
-            JsonSaxHandler observer = itr.next();
-            if (!observer.primitive(primitiveHolder)) {
-                itr.remove();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            JsonSaxHandler observer = receivers[i];
+            if (observer.primitive(primitiveHolder)) {
+                receivers[kept++] = observer;
             }
         }
+        truncate(kept);
         return true;
     }
 
     public void addReceiver(JsonSaxHandler contentHandler) {
-        receiver.addFirst(contentHandler);
+        if (size == receivers.length) {
+            receivers = Arrays.copyOf(receivers, size * 2);
+        }
+        System.arraycopy(receivers, 0, receivers, 1, size);
+        receivers[0] = contentHandler;
+        size++;
+    }
+
+    private void truncate(int kept) {
+        if (kept < size) {
+            Arrays.fill(receivers, kept, size, null);
+            size = kept;
+        }
     }
 
 }
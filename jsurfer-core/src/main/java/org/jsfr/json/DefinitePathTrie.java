@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.path.ArrayIndex;
+import org.jsfr.json.path.ArrayWildcard;
+import org.jsfr.json.path.ChildNode;
+import org.jsfr.json.path.JsonPath;
+import org.jsfr.json.path.PathOperator;
+import org.jsfr.json.path.Root;
+import org.jsfr.json.path.Wildcard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie of definite JsonPaths. Children reached through a field name or an array index are found by hash lookup,
+ * so stepping a node costs the same however many paths share it. Operators that cannot be keyed, like a children
+ * list or an index range, are kept in a list and matched one by one.
+ */
+final class DefinitePathTrie {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Node root = newNode();
+
+    /**
+     * @return Node before the root of the document is reached
+     */
+    Node root() {
+        return root;
+    }
+
+    Node node(int id) {
+        return nodes.get(id);
+    }
+
+    void insert(JsonPath path, int binding) {
+        Node node = root;
+        for (PathOperator operator : path) {
+            node = node.child(operator);
+        }
+        node.bindings.add(binding);
+    }
+
+    private Node newNode() {
+        Node node = new Node(nodes.size());
+        nodes.add(node);
+        return node;
+    }
+
+    final class Node {
+
+        private final int id;
+        private final List<Integer> bindings = new ArrayList<>();
+        private Node rootChild;
+        private Node wildcardChild;
+        private final Map<String, Node> childNodes = new HashMap<>();
+        private final Map<String, Node> arrayWildcards = new HashMap<>();
+        private final Map<String, Map<Integer, Node>> arrayIndexes = new HashMap<>();
+        private final List<PathOperator> otherOperators = new ArrayList<>();
+        private final List<Node> otherNodes = new ArrayList<>();
+
+        private Node(int id) {
+            this.id = id;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        /**
+         * @return Indexes of the bindings whose path ends at this node
+         */
+        List<Integer> getBindings() {
+            return bindings;
+        }
+
+        /**
+         * @return Operators that are matched one by one
+         */
+        List<PathOperator> getOtherOperators() {
+            return otherOperators;
+        }
+
+        /**
+         * @return Field names mentioned by the children of this node, with or without an array index
+         */
+        Iterable<String> getKeys() {
+            List<String> keys = new ArrayList<>(childNodes.keySet());
+            keys.addAll(arrayWildcards.keySet());
+            keys.addAll(arrayIndexes.keySet());
+            return keys;
+        }
+
+        /**
+         * @param key Field name of an array
+         * @return Exact indexes of that array leading to a child
+         */
+        Iterable<Integer> getIndexes(String key) {
+            Map<Integer, Node> indexes = arrayIndexes.get(key);
+            return indexes == null ? Collections.emptySet() : indexes.keySet();
+        }
+
+        boolean hasArrayIndexes() {
+            return !arrayIndexes.isEmpty();
+        }
+
+        /**
+         * Adds the children matching the given json position to the result
+         */
+        void match(PathOperator position, List<Node> result) {
+            if (wildcardChild != null) {
+                result.add(wildcardChild);
+            }
+            if (position.getType() == PathOperator.Type.ROOT) {
+                addIfPresent(rootChild, result);
+            } else if (position instanceof ChildNode) {
+                String key = ((ChildNode) position).getKey();
+                addIfPresent(childNodes.get(key), result);
+                if (position instanceof ArrayIndex) {
+                    addIfPresent(arrayWildcards.get(key), result);
+                    Map<Integer, Node> indexes = arrayIndexes.get(key);
+                    if (indexes != null) {
+                        addIfPresent(indexes.get(((ArrayIndex) position).getArrayIndex()), result);
+                    }
+                }
+            }
+            for (int i = 0; i < otherOperators.size(); i++) {
+                if (PathAutomaton.matches(otherOperators.get(i), position)) {
+                    result.add(otherNodes.get(i));
+                }
+            }
+        }
+
+        private void addIfPresent(Node node, List<Node> result) {
+            if (node != null) {
+                result.add(node);
+            }
+        }
+
+        private Node child(PathOperator operator) {
+            Class<?> type = operator.getClass();
+            if (type == Root.class) {
+                if (rootChild == null) {
+                    rootChild = newNode();
+                }
+                return rootChild;
+            } else if (operator instanceof Wildcard) {
+                if (wildcardChild == null) {
+                    wildcardChild = newNode();
+                }
+                return wildcardChild;
+            } else if (type == ChildNode.class) {
+                return childNodes.computeIfAbsent(((ChildNode) operator).getKey(), k -> newNode());
+            } else if (type == ArrayWildcard.class) {
+                return arrayWildcards.computeIfAbsent(((ChildNode) operator).getKey(), k -> newNode());
+            } else if (type == ArrayIndex.class) {
+                return arrayIndexes.computeIfAbsent(((ChildNode) operator).getKey(), k -> new HashMap<>())
+                    .computeIfAbsent(((ArrayIndex) operator).getArrayIndex(), k -> newNode());
+            }
+            Node node = newNode();
+            otherOperators.add(operator);
+            otherNodes.add(node);
+            return node;
+        }
+
+    }
+
+}
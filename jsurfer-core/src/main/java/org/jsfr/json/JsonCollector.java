@@ -24,28 +24,37 @@
 
 package org.jsfr.json;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 
+/**
+ * Builds the value of a matched container and dispatches it to the listeners. Once done the collector resets itself
+ * and goes back to the pool of its surfing context, so the next match reuses it together with its stack.
+ */
 class JsonCollector extends JsonDomBuilder {
 
-    private Collection<JsonPathListener> jsonPathListeners;
-    private ParsingContext context;
-    private SurfingConfiguration config;
+    private final ArrayList<JsonPathListener> jsonPathListeners = new ArrayList<>();
+    private final ParsingContext context;
+    private final SurfingConfiguration config;
+    private final Deque<JsonCollector> pool;
 
-    JsonCollector(Collection<JsonPathListener> jsonPathListeners, ParsingContext context, SurfingConfiguration config) {
+    JsonCollector(ParsingContext context, SurfingConfiguration config, Deque<JsonCollector> pool) {
         super(config.getJsonProvider());
-        this.jsonPathListeners = jsonPathListeners;
         this.context = context;
         this.config = config;
+        this.pool = pool;
+    }
+
+    void collectFor(Collection<JsonPathListener> listeners) {
+        this.jsonPathListeners.addAll(listeners);
     }
 
     @Override
     public boolean endObject() {
         super.endObject();
         if (isInRoot()) {
-            Object result = rootValue();
-            DispatchUtil.dispatchValueToListeners(result, jsonPathListeners, context, config.getErrorHandlingStrategy());
-            this.clear();
+            dispatchAndRecycle();
             return false;
         }
         return true;
@@ -55,21 +64,18 @@ class JsonCollector extends JsonDomBuilder {
     public boolean endArray() {
         super.endArray();
         if (isInRoot()) {
-            Object result = rootValue();
-            DispatchUtil.dispatchValueToListeners(result, jsonPathListeners, context, config.getErrorHandlingStrategy());
-            this.clear();
+            dispatchAndRecycle();
             return false;
         }
         return true;
     }
 
-    @Override
-    public void clear() {
-        super.clear();
-        this.context = null;
-        this.jsonPathListeners = null;
-        this.config = null;
+    private void dispatchAndRecycle() {
+        Object result = rootValue();
+        DispatchUtil.dispatchValueToListeners(result, jsonPathListeners, context, config.getErrorHandlingStrategy());
+        jsonPathListeners.clear();
+        reset();
+        pool.push(this);
     }
 
-
 }
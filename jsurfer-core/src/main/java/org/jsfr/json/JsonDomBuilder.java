@@ -203,6 +203,18 @@ public class JsonDomBuilder implements JsonSaxHandler {
     }
 
 
+    /**
+     * Makes the builder ready to build a new value, keeping its stack
+     */
+    void reset() {
+        for (int i = 0; i < stack.length && stack[i] != null; i++) {
+            stack[i].value = null;
+        }
+        stackSize = 0;
+        propertyName = null;
+        push(ROOT, null);
+    }
+
     public void clear() {
         propertyName = null;
         provider = null;
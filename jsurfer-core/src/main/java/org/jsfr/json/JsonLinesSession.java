@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One run of a {@link JsonLinesSurfer} over an input. The input is read in blocks cut after a line feed, and every thread
+ * surfing records keeps one SurfingContext, and with the built-in tokenizer one parser, for all its records. Blank lines
+ * are skipped but still counted by {@link ParsingContext#getRecordNumber()}.
+ */
+final class JsonLinesSession {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final Block END = new Block(new byte[0], 0, 0, 0);
+
+    private final JsonParserAdapter jsonParserAdapter;
+    private final SurfingConfiguration configuration;
+    private final AtomicBoolean halted = new AtomicBoolean();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    JsonLinesSession(JsonParserAdapter jsonParserAdapter, SurfingConfiguration configuration) {
+        this.jsonParserAdapter = jsonParserAdapter;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Surfs all records on the calling thread
+     */
+    void surf(InputStream input) {
+        BlockReader reader = new BlockReader(input, true);
+        RecordParser parser = new RecordParser();
+        try {
+            Block block = reader.next();
+            while (block != null && parser.parseBlock(block)) {
+                block = reader.next();
+            }
+        } catch (IOException e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+    }
+
+    /**
+     * Reads blocks on the calling thread and surfs their records on workers submitted to the executor
+     */
+    void surf(InputStream input, ExecutorService executor, int workers) {
+        BlockingQueue<Block> queue = new ArrayBlockingQueue<>(workers * 2);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> work(queue)));
+        }
+        BlockReader reader = new BlockReader(input, false);
+        try {
+            Block block = reader.next();
+            while (block != null && enqueue(queue, block)) {
+                block = reader.next();
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            halted.set(true);
+        }
+        finish(queue, futures);
+        Throwable cause = failure.get();
+        if (cause instanceof IOException) {
+            configuration.getErrorHandlingStrategy().handleParsingException((IOException) cause);
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+    }
+
+    private boolean enqueue(BlockingQueue<Block> queue, Block block) throws InterruptedException {
+        while (!halted.get()) {
+            if (queue.offer(block, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finish(BlockingQueue<Block> queue, List<Future<?>> futures) {
+        try {
+            // every worker exits on the end marker it takes, or on its own once surfing halted
+            int markers = 0;
+            while (markers < futures.size() && enqueue(queue, END)) {
+                markers++;
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    fail(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            halted.set(true);
+        }
+    }
+
+    private void work(BlockingQueue<Block> queue) {
+        RecordParser parser = new RecordParser();
+        try {
+            while (!halted.get()) {
+                Block block = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (block == END) {
+                    return;
+                } else if (block != null) {
+                    parser.parseBlock(block);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            halted.set(true);
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        failure.compareAndSet(null, cause);
+        halted.set(true);
+    }
+
+    /**
+     * Complete lines read from the input, the last block of the input may end without a line feed
+     */
+    private static final class Block {
+
+        private final byte[] bytes;
+        private final int length;
+        private final long offset;
+        private final long firstLine;
+
+        Block(byte[] bytes, int length, long offset, long firstLine) {
+            this.bytes = bytes;
+            this.length = length;
+            this.offset = offset;
+            this.firstLine = firstLine;
+        }
+
+    }
+
+    private static final class BlockReader {
+
+        private final InputStream input;
+        private final boolean reuse;
+        private byte[] buffer = new byte[BLOCK_SIZE];
+        private int carriedStart;
+        private int carried;
+        private long offset;
+        private long line;
+
+        /**
+         * @param reuse whether every block is read into the same buffer, which is only safe if a block is surfed
+         *              before the next one is read
+         */
+        BlockReader(InputStream input, boolean reuse) {
+            this.input = input;
+            this.reuse = reuse;
+        }
+
+        /**
+         * @return lines up to the last line feed read so far, or null at the end of the input
+         */
+        Block next() throws IOException {
+            byte[] target = reuse ? buffer : new byte[Math.max(BLOCK_SIZE, carried * 2)];
+            System.arraycopy(buffer, carriedStart, target, 0, carried);
+            int limit = carried;
+            int length = 0;
+            while (length == 0) {
+                if (limit == target.length) {
+                    target = Arrays.copyOf(target, target.length * 2);
+                }
+                int read = input.read(target, limit, target.length - limit);
+                if (read < 0) {
+                    if (limit == 0) {
+                        return null;
+                    }
+                    length = limit;
+                    break;
+                }
+                length = lastLineFeed(target, limit, limit + read) + 1;
+                limit += read;
+            }
+            buffer = target;
+            carriedStart = length;
+            carried = limit - length;
+            Block block = new Block(target, length, offset, line);
+            offset += length;
+            line += countLineFeeds(target, length);
+            return block;
+        }
+
+        private static int lastLineFeed(byte[] bytes, int start, int end) {
+            for (int i = end - 1; i >= start; i--) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int countLineFeeds(byte[] bytes, int end) {
+            int count = 0;
+            for (int i = 0; i < end; i++) {
+                if (bytes[i] == '\n') {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+    }
+
+    /**
+     * Surfs the records of blocks one after the other on a single thread
+     */
+    private final class RecordParser {
+
+        private final SurfingSlot<RecordContext> slot =
+            new SurfingSlot<>(jsonParserAdapter, configuration, config -> new RecordContext(config, halted));
+
+        /**
+         * @return false if a listener stopped surfing
+         */
+        boolean parseBlock(Block block) {
+            byte[] bytes = block.bytes;
+            long line = block.firstLine;
+            int start = 0;
+            while (start < block.length) {
+                int end = start;
+                boolean blank = true;
+                while (end < block.length && bytes[end] != '\n') {
+                    blank &= bytes[end] == ' ' || bytes[end] == '\t' || bytes[end] == '\r';
+                    end++;
+                }
+                if (!blank) {
+                    slot.next().startRecord(line, block.offset + start);
+                    slot.parse(bytes, start, end);
+                    if (halted.get()) {
+                        return false;
+                    }
+                }
+                start = end + 1;
+                line++;
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * Context of the records surfed by one thread. Stopping it stops surfing all records.
+     */
+    private static final class RecordContext extends SurfingContext {
+
+        private final AtomicBoolean halted;
+        private long recordNumber;
+        private long recordOffset;
+
+        RecordContext(SurfingConfiguration config, AtomicBoolean halted) {
+            super(config);
+            this.halted = halted;
+        }
+
+        void startRecord(long number, long offset) {
+            this.recordNumber = number;
+            this.recordOffset = offset;
+        }
+
+        @Override
+        public void stop() {
+            super.stop();
+            if (!isEnded()) {
+                halted.set(true);
+            }
+        }
+
+        @Override
+        public boolean shouldBreak() {
+            return super.shouldBreak() || halted.get();
+        }
+
+        @Override
+        public void pause() {
+            throw new UnsupportedOperationException("Surfing json lines cannot be paused");
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+
+        @Override
+        public long getRecordOffset() {
+            return recordOffset;
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Surfs newline-delimited json (NDJSON, JSON Lines) one record per line, reusing the parsing state from record to
+ * record. {@link ParsingContext#getRecordNumber()} and {@link ParsingContext#getRecordOffset()} locate the current
+ * record. Stopping the context stops surfing all records of the input. Pausing is not supported.
+ *
+ * @see JsonSurfer#lines(SurfingConfiguration)
+ */
+public final class JsonLinesSurfer {
+
+    private final JsonParserAdapter jsonParserAdapter;
+    private final SurfingConfiguration configuration;
+
+    JsonLinesSurfer(JsonParserAdapter jsonParserAdapter, SurfingConfiguration configuration) {
+        this.jsonParserAdapter = jsonParserAdapter;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @param json Json lines InputStream
+     */
+    public void surf(InputStream json) {
+        new JsonLinesSession(jsonParserAdapter, configuration).surf(json);
+    }
+
+    /**
+     * Surf the records on worker threads. Records are surfed in no particular order, so listeners must be thread-safe.
+     *
+     * @param json     Json lines InputStream, read on the calling thread
+     * @param executor executor running the workers
+     * @param workers  number of workers
+     */
+    public void surf(InputStream json, ExecutorService executor, int workers) {
+        new JsonLinesSession(jsonParserAdapter, configuration).surf(json, executor, workers);
+    }
+
+    /**
+     * Surf a file through memory-mapped regions
+     *
+     * @param path Json lines file
+     */
+    public void surf(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            surf(new MappedInputStream(channel, false));
+        } catch (IOException e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+    }
+
+    /**
+     * Surf the records of a file on worker threads
+     *
+     * @param path     Json lines file
+     * @param executor executor running the workers
+     * @param workers  number of workers
+     * @see #surf(InputStream, ExecutorService, int)
+     */
+    public void surf(Path path, ExecutorService executor, int workers) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            surf(new MappedInputStream(channel, false), executor, workers);
+        } catch (IOException e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+    }
+
+}
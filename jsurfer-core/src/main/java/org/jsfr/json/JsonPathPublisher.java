@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Surfs the json bytes published upstream with a {@link NonBlockingParser} and publishes the values matched by a JsonPath
+ * downstream, for a single subscriber. Downstream demand throttles the input: parsing pauses once a match is waiting for
+ * demand, and another buffer is only requested upstream, one at a time, while no match is waiting. So at most one match
+ * and one input buffer are held however slow the subscriber is, and completion is signalled as soon as the input is
+ * through rather than on further demand.
+ *
+ * Signals may arrive from any thread. Parsing runs on the thread delivering the signal that lets it go on, and never on
+ * two threads at once.
+ */
+public final class JsonPathPublisher implements Flow.Processor<ByteBuffer, Object> {
+
+    private final SurfingContext context;
+    private final NonBlockingParser parser;
+    private final AtomicReference<Flow.Subscriber<? super Object>> downstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<ByteBuffer> input = new AtomicReference<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean upstreamDone;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+
+    // only accessed while draining
+    private final ArrayDeque<Object> matches = new ArrayDeque<>();
+    private boolean inputRequested;
+    private boolean inputEnded;
+    private boolean pausedOnMatch;
+    private boolean done;
+    private byte[] scratch;
+
+    JsonPathPublisher(Function<JsonPathListener, SurfingContext> contextFactory, JsonParserAdapter jsonParserAdapter) {
+        this.context = contextFactory.apply(this::onMatch);
+        this.parser = jsonParserAdapter.createNonBlockingParser(context);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Object> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("JsonPathPublisher allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Demand());
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        input.set(item);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void onMatch(Object value, ParsingContext parsingContext) {
+        matches.add(value);
+        emitMatches();
+        if (!matches.isEmpty()) {
+            parsingContext.pause();
+            pausedOnMatch = true;
+        }
+    }
+
+    private void emitMatches() {
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted != demand && !matches.isEmpty() && !cancelled) {
+            downstream.get().onNext(matches.poll());
+            emitted++;
+        }
+        if (emitted > 0 && demand != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (downstream.get() != null && upstream.get() != null) {
+                boolean progress = true;
+                while (progress) {
+                    progress = step();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * @return false if nothing is left to do before another signal arrives
+     */
+    private boolean step() {
+        if (done) {
+            return false;
+        }
+        if (cancelled) {
+            finish();
+            upstream.get().cancel();
+            return false;
+        }
+        if (error != null) {
+            fail(error);
+            return false;
+        }
+        emitMatches();
+        if (!matches.isEmpty()) {
+            return false;
+        }
+        if (context.isStopped() || inputEnded && !pausedOnMatch) {
+            finish();
+            downstream.get().onComplete();
+            return false;
+        }
+        try {
+            return parse();
+        } catch (RuntimeException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    private boolean parse() {
+        if (pausedOnMatch) {
+            pausedOnMatch = false;
+            parser.resume();
+            return true;
+        }
+        ByteBuffer buffer = input.getAndSet(null);
+        if (buffer != null) {
+            inputRequested = false;
+            feed(buffer);
+            return true;
+        }
+        if (upstreamDone) {
+            // checked after the input so that the last buffer is not overtaken by the completion
+            inputEnded = true;
+            parser.endOfInput();
+            return true;
+        }
+        if (!inputRequested) {
+            inputRequested = true;
+            upstream.get().request(1);
+            return true;
+        }
+        return false;
+    }
+
+    private void feed(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            parser.feed(buffer.array(), start, start + length);
+        } else if (length > 0) {
+            if (scratch == null || scratch.length < length) {
+                scratch = new byte[length];
+            }
+            buffer.get(scratch, 0, length);
+            parser.feed(scratch, 0, length);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        finish();
+        if (!upstreamDone) {
+            upstream.get().cancel();
+        }
+        downstream.get().onError(cause);
+    }
+
+    private void finish() {
+        done = true;
+        matches.clear();
+        input.set(null);
+        context.stop();
+    }
+
+    private final class Demand implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request " + n);
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+    }
+
+}
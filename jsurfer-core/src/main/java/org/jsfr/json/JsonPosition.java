@@ -29,26 +29,69 @@ import org.jsfr.json.path.ChildNode;
 import org.jsfr.json.path.JsonPath;
 import org.jsfr.json.path.PathOperator;
 
+import java.util.Arrays;
+
 class JsonPosition extends JsonPath {
 
+    /**
+     * Whether the entry at each depth is an object entry, or an array in one, whose name has not been decoded
+     */
+    private boolean[] undecoded = new boolean[operators.length];
+
     static JsonPosition start() {
         return new JsonPosition();
     }
 
+    /**
+     * Moves back to the root of another document, keeping the operators stepped into so far for reuse
+     */
+    JsonPosition restart() {
+        size = 1;
+        return this;
+    }
+
     void stepIntoObject() {
         if (operators.length > size) {
             PathOperator next = operators[size];
-            if (next instanceof ChildNode) {
+            // an array index left over from a deeper array is a ChildNode too, but not an object entry
+            if (next instanceof ChildNode && next.getType() == PathOperator.Type.OBJECT) {
                 size++;
                 ((ChildNode) next).setKey(null);
+                markUndecoded(false);
                 return;
             }
         }
         push(new ChildNode(null));
+        markUndecoded(false);
     }
 
     void updateObjectEntry(String key) {
         ((ChildNode) peek()).setKey(key);
+        markUndecoded(false);
+    }
+
+    /**
+     * Starts an object entry whose name is left undecoded. It has no key, and the flag tells it from an entry or array
+     * without a name
+     */
+    void updateUndecodedObjectEntry() {
+        ((ChildNode) peek()).setKey(null);
+        markUndecoded(true);
+    }
+
+    /**
+     * @param depth depth of an operator of this position
+     * @return whether the operator at the depth is an undecoded object entry or an array in one
+     */
+    boolean isUndecoded(int depth) {
+        return undecoded[depth];
+    }
+
+    private void markUndecoded(boolean value) {
+        if (undecoded.length < size) {
+            undecoded = Arrays.copyOf(undecoded, operators.length);
+        }
+        undecoded[size - 1] = value;
     }
 
     void stepOutObject() {
@@ -68,7 +111,7 @@ class JsonPosition extends JsonPath {
         if (node instanceof ArrayIndex) {
             pop();
             ArrayIndex indexNode = (ArrayIndex) node;
-            if (indexNode.getKey()  != null) {
+            if (indexNode.getKey()  != null || undecoded[size]) {
                 push(new ChildNode(indexNode.getKey()));
             }
         }
@@ -76,6 +119,7 @@ class JsonPosition extends JsonPath {
 
     private void pushArray(PathOperator node) {
         if (node instanceof ChildNode && node.getType() == PathOperator.Type.OBJECT) {
+            // the array takes the place of the entry holding it, along with its flag
             pop();
             push(new ArrayIndex(((ChildNode) node).getKey()));
         } else {
@@ -84,10 +128,12 @@ class JsonPosition extends JsonPath {
                 if (next instanceof ArrayIndex) {
                     size++;
                     ((ArrayIndex) next).reset();
+                    markUndecoded(false);
                     return;
                 }
             }
             push(new ArrayIndex(null));
+            markUndecoded(false);
         }
     }
 }
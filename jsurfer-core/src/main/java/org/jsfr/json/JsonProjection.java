@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.SurfingConfiguration.Binding;
+import org.jsfr.json.compiler.JsonPathCache;
+import org.jsfr.json.path.JsonPath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Paths selecting what {@link JsonSurfer#project(java.io.InputStream, java.io.OutputStream, JsonProjection)} copies into
+ * a new document. Without includes the whole document is copied. With includes only the matched values are copied,
+ * together with the containers enclosing them and the keys leading to them. Values matched by an exclude are dropped,
+ * also below an included path, and primitive values matched by a transform are replaced by what it returns. Paths with
+ * filters are not supported, since the writer decides on every value as soon as it starts.
+ */
+public final class JsonProjection {
+
+    private final boolean hasIncludes;
+    private final ArrayList<UnaryOperator<Object>> transforms;
+    private final PathAutomaton automaton;
+
+    private JsonProjection(Builder builder) {
+        this.hasIncludes = !builder.includes.isEmpty();
+        this.transforms = new ArrayList<>(builder.transforms);
+        List<Binding> bindings = new ArrayList<>();
+        for (JsonPath path : builder.includes) {
+            bindings.add(new PathBinding(path, PathBinding.INCLUDE, 0));
+        }
+        for (JsonPath path : builder.excludes) {
+            bindings.add(new PathBinding(path, PathBinding.EXCLUDE, 0));
+        }
+        for (int i = 0; i < builder.transformPaths.size(); i++) {
+            bindings.add(new PathBinding(builder.transformPaths.get(i), PathBinding.TRANSFORM, i));
+        }
+        this.automaton = new PathAutomaton(bindings.toArray(new Binding[0]));
+    }
+
+    /**
+     * @return builder of a projection
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    boolean hasIncludes() {
+        return hasIncludes;
+    }
+
+    UnaryOperator<Object> getTransform(int index) {
+        return transforms.get(index);
+    }
+
+    /**
+     * @return automaton over the paths of the projection, whose matched bindings are {@link PathBinding}s
+     */
+    PathAutomaton getAutomaton() {
+        return automaton;
+    }
+
+    /**
+     * Binding of a path of the projection to what it does with the values it matches
+     */
+    static final class PathBinding extends Binding {
+
+        static final int INCLUDE = 0;
+        static final int EXCLUDE = 1;
+        static final int TRANSFORM = 2;
+
+        final int kind;
+        final int transform;
+
+        PathBinding(JsonPath path, int kind, int transform) {
+            super(path, null);
+            this.kind = kind;
+            this.transform = transform;
+        }
+    }
+
+    /**
+     * Builder of a {@link JsonProjection}
+     */
+    public static final class Builder {
+
+        private final ArrayList<JsonPath> includes = new ArrayList<>();
+        private final ArrayList<JsonPath> excludes = new ArrayList<>();
+        private final ArrayList<JsonPath> transformPaths = new ArrayList<>();
+        private final ArrayList<UnaryOperator<Object>> transforms = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param path JsonPath of the values to copy
+         * @return builder
+         */
+        public Builder include(String path) {
+            return include(JsonPathCache.compile(path));
+        }
+
+        /**
+         * @param path JsonPath of the values to copy
+         * @return builder
+         */
+        public Builder include(JsonPath path) {
+            includes.add(checkPath(path));
+            return this;
+        }
+
+        /**
+         * @param path JsonPath of the values to drop
+         * @return builder
+         */
+        public Builder exclude(String path) {
+            return exclude(JsonPathCache.compile(path));
+        }
+
+        /**
+         * @param path JsonPath of the values to drop
+         * @return builder
+         */
+        public Builder exclude(JsonPath path) {
+            excludes.add(checkPath(path));
+            return this;
+        }
+
+        /**
+         * Replaces the copied primitive values matched by the path. The transform receives a String, Boolean, Long,
+         * Double, BigInteger or null, and its result is written as a string unless it is null, a Boolean or a Number.
+         * Containers matched by the path are copied unchanged.
+         *
+         * @param path      JsonPath of the values to replace
+         * @param transform function computing the replacement
+         * @return builder
+         */
+        public Builder transform(String path, UnaryOperator<Object> transform) {
+            return transform(JsonPathCache.compile(path), transform);
+        }
+
+        /**
+         * @param path      JsonPath of the values to replace
+         * @param transform function computing the replacement
+         * @return builder
+         * @see #transform(String, UnaryOperator)
+         */
+        public Builder transform(JsonPath path, UnaryOperator<Object> transform) {
+            transformPaths.add(checkPath(path));
+            transforms.add(transform);
+            return this;
+        }
+
+        /**
+         * @return projection
+         */
+        public JsonProjection build() {
+            return new JsonProjection(this);
+        }
+
+        private static JsonPath checkPath(JsonPath path) {
+            if (!SurfingConfiguration.getFilterConfigs(path).isEmpty()) {
+                throw new IllegalArgumentException("Projections do not support filters: " + path);
+            }
+            return path;
+        }
+
+    }
+
+}
@@ -27,15 +27,21 @@ package org.jsfr.json;
 import org.jsfr.json.path.JsonPath;
 import org.jsfr.json.provider.JsonProvider;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
-import static org.jsfr.json.compiler.JsonPathCompiler.compile;
+import static org.jsfr.json.compiler.JsonPathCache.compile;
 
 
 /**
@@ -209,6 +215,64 @@ public class JsonSurfer {
         jsonParserAdapter.parse(json, new SurfingContext(configuration));
     }
 
+    /**
+     * Surf a file through memory-mapped regions rather than heap buffers filled by read calls. NativeParser skips
+     * unmatched objects and arrays within the mapped regions, other parsers read the regions as a stream.
+     *
+     * @param path          Json file
+     * @param configuration SurfingConfiguration that holds JsonPath binding
+     */
+    public void surf(Path path, SurfingConfiguration configuration) {
+        ensureSetting(configuration);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            jsonParserAdapter.parse(new MappedInputStream(channel, false), new SurfingContext(configuration));
+        } catch (IOException e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+    }
+
+    /**
+     * Surf a file channel from its current position through memory-mapped regions. The channel is left open, positioned
+     * after the last byte read by the parser.
+     *
+     * @param channel       Json file channel
+     * @param configuration SurfingConfiguration that holds JsonPath binding
+     * @see #surf(Path, SurfingConfiguration)
+     */
+    public void surf(FileChannel channel, SurfingConfiguration configuration) {
+        ensureSetting(configuration);
+        try {
+            MappedInputStream mapped = new MappedInputStream(channel, false);
+            jsonParserAdapter.parse(mapped, new SurfingContext(configuration));
+            channel.position(mapped.position());
+        } catch (IOException e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+    }
+
+    /**
+     * Create a surfer for the configuration that can be shared by concurrent threads, each of them reusing its parsing
+     * state from one document to the next
+     *
+     * @param configuration SurfingConfiguration that holds JsonPath binding
+     * @return PooledSurfer
+     */
+    public PooledSurfer pooled(SurfingConfiguration configuration) {
+        ensureSetting(configuration);
+        return new PooledSurfer(jsonParserAdapter, configuration);
+    }
+
+    /**
+     * Create a surfer of newline-delimited json (NDJSON, JSON Lines) for the configuration
+     *
+     * @param configuration SurfingConfiguration that holds JsonPath binding
+     * @return JsonLinesSurfer
+     */
+    public JsonLinesSurfer lines(SurfingConfiguration configuration) {
+        ensureSetting(configuration);
+        return new JsonLinesSurfer(jsonParserAdapter, configuration);
+    }
+
     /**
      * Create resumable parser
      *
@@ -258,6 +322,63 @@ public class JsonSurfer {
         return jsonParserAdapter.createNonBlockingParser(new SurfingContext(configuration));
     }
 
+    /**
+     * Create a publisher of the values matched by the JsonPath in json bytes received from upstream, requesting input
+     * only as fast as the values are demanded. The adapter has to support non-blocking parsing.
+     *
+     * @param jsonPath JsonPath
+     * @return publisher, for a single subscriber
+     */
+    public JsonPathPublisher publisher(JsonPath jsonPath) {
+        return new JsonPathPublisher(listener -> {
+            SurfingConfiguration configuration = configBuilder().bind(jsonPath, listener).build();
+            ensureSetting(configuration);
+            return new SurfingContext(configuration);
+        }, jsonParserAdapter);
+    }
+
+    /**
+     * @param jsonPath JsonPath
+     * @return publisher, for a single subscriber
+     * @see #publisher(JsonPath)
+     */
+    public JsonPathPublisher publisher(String jsonPath) {
+        return publisher(compile(jsonPath));
+    }
+
+    /**
+     * Stream a projection of the json to the output, see {@link JsonProjection}. The output is flushed but not closed.
+     *
+     * @param json       json
+     * @param output     output of the projected json
+     * @param projection paths to copy, drop and transform
+     */
+    public void project(String json, OutputStream output, JsonProjection projection) {
+        project(output, projection, context -> jsonParserAdapter.parse(json, context));
+    }
+
+    /**
+     * Stream a projection of the json to the output, see {@link JsonProjection}. The bytes of primitive values are copied
+     * as they are when the parser reads bytes itself, like NativeParser. The output is flushed but not closed.
+     *
+     * @param json       Json InputStream
+     * @param output     output of the projected json
+     * @param projection paths to copy, drop and transform
+     */
+    public void project(InputStream json, OutputStream output, JsonProjection projection) {
+        project(output, projection, context -> jsonParserAdapter.parse(json, context));
+    }
+
+    private void project(OutputStream output, JsonProjection projection, Consumer<SurfingContext> parse) {
+        SurfingConfiguration configuration = configBuilder().build();
+        ensureSetting(configuration);
+        SurfingContext context = new SurfingContext(configuration);
+        ProjectionWriter writer = new ProjectionWriter(context, projection, output);
+        context.setProjection(writer);
+        parse.accept(context);
+        writer.finish();
+    }
+
     /**
      * Create collector object
      *
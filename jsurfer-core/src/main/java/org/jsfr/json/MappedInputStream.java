@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file through memory-mapped regions. Files larger than a region, which cannot exceed 2 GB, are mapped one
+ * region after another. {@link Utf8Lexer} scans the regions themselves through {@link #region()}, any other parser reads
+ * them as a stream, the bytes being copied straight from the page cache into its buffer.
+ */
+final class MappedInputStream extends InputStream {
+
+    static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final boolean closeChannel;
+    private final long regionSize;
+    private final long end;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    MappedInputStream(FileChannel channel, boolean closeChannel) throws IOException {
+        this(channel, closeChannel, DEFAULT_REGION_SIZE);
+    }
+
+    MappedInputStream(FileChannel channel, boolean closeChannel, long regionSize) throws IOException {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.regionSize = regionSize;
+        this.regionStart = channel.position();
+        this.end = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureRegion()) {
+            return -1;
+        }
+        return region.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureRegion()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && ensureRegion()) {
+            int step = (int) Math.min(n - skipped, region.remaining());
+            region.position(region.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    /**
+     * @return the current region, positioned at the next unread byte and with bytes remaining, or null at the end of the
+     * file. Bytes consumed by advancing the position of the region are not read again.
+     */
+    ByteBuffer region() throws IOException {
+        return ensureRegion() ? region : null;
+    }
+
+    /**
+     * @return the position in the file of the next unread byte
+     */
+    long position() {
+        return region == null ? regionStart : regionStart + region.position();
+    }
+
+    @Override
+    public int available() {
+        return region == null ? 0 : region.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        regionStart = position();
+        region = null;
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return false at the end of the file
+     */
+    private boolean ensureRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        if (region != null) {
+            regionStart += region.capacity();
+            region = null;
+        }
+        if (regionStart >= end) {
+            return false;
+        }
+        region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(regionSize, end - regionStart));
+        return true;
+    }
+
+}
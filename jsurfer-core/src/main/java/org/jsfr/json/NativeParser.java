@@ -0,0 +1,410 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JsonProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JsonParserAdapter without third-party dependency. It tokenizes UTF-8 bytes itself and only decodes strings and
+ * numbers whose value is requested by a listener, a filter or a collector.
+ * <p>
+ * Objects and arrays skipped because no binding can match inside them are only checked for bracket balance, looking
+ * inside strings for their closing quote alone. A malformed value in a skipped subtree is not reported, unlike with the
+ * parsers that tokenize everything.
+ */
+public class NativeParser implements JsonParserAdapter {
+
+    private static class NativeNonBlockingParser extends NativeResumableParser implements NonBlockingParser {
+
+        private boolean started;
+
+        NativeNonBlockingParser(SurfingContext context) {
+            super(new Utf8Lexer(), context);
+        }
+
+        @Override
+        public void parse() {
+            started = true;
+            super.parse();
+        }
+
+        @Override
+        public boolean feed(byte[] bytes, int start, int end) {
+            if (context.isStopped() || !lexer.feed(bytes, start, end)) {
+                return false;
+            }
+            if (!started) {
+                parse();
+            } else if (awaitingInput) {
+                resume();
+            }
+            return true;
+        }
+
+        @Override
+        public void endOfInput() {
+            lexer.endOfInput();
+            if (started && awaitingInput) {
+                resume();
+            }
+        }
+
+    }
+
+    static class NativeResumableParser implements ResumableParser {
+
+        protected final SurfingContext context;
+        protected final Utf8Lexer lexer;
+        protected boolean awaitingInput;
+        final Utf8Lexer.RawBytes rawBytes;
+        private final AbstractPrimitiveHolder stringHolder;
+        private final AbstractPrimitiveHolder numberHolder;
+        private final StaticPrimitiveHolder staticHolder;
+
+        NativeResumableParser(final Utf8Lexer lexer, SurfingContext context) {
+            this.lexer = lexer;
+            this.context = context;
+            this.rawBytes = lexer.new RawBytes();
+            final Utf8Lexer.AsciiText text = lexer.new AsciiText();
+            final JsonProvider jsonProvider = context.getConfig().getJsonProvider();
+            this.stringHolder = new AbstractPrimitiveHolder(context.getConfig()) {
+                @Override
+                public Object doGetValue() {
+                    return jsonProvider.primitive(lexer.getString());
+                }
+
+                @Override
+                public void doSkipValue() {
+                }
+
+                @Override
+                protected CharSequence doGetCharSequence() {
+                    return text.wrapCurrent() ? text : lexer.getString();
+                }
+            };
+            this.numberHolder = new NumberHolder(lexer, context.getConfig());
+            this.staticHolder = new StaticPrimitiveHolder();
+        }
+
+        @Override
+        public boolean resume() {
+            try {
+                if (!context.isPaused()) {
+                    return false;
+                }
+                context.resume();
+                doParse();
+                return true;
+            } catch (Exception e) {
+                context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+                return false;
+            }
+        }
+
+        @Override
+        public void parse() {
+            context.setRawSource(rawBytes);
+            context.startJSON();
+            try {
+                doParse();
+            } catch (Exception e) {
+                context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+            }
+        }
+
+        void dispatch(Utf8Lexer.Token token, JsonProvider jsonProvider) {
+            switch (token) {
+                case NOT_AVAILABLE:
+                    awaitingInput = true;
+                    context.pause();
+                    break;
+                case START_OBJECT:
+                    context.startObject();
+                    if (context.shouldSkipChildren()) {
+                        skipChildren();
+                    }
+                    break;
+                case END_OBJECT:
+                    context.endObject();
+                    break;
+                case START_ARRAY:
+                    context.startArray();
+                    if (context.shouldSkipChildren()) {
+                        skipChildren();
+                    }
+                    break;
+                case END_ARRAY:
+                    context.endArray();
+                    break;
+                case FIELD_NAME:
+                    Utf8NameSet names = context.getDecodedNames();
+                    if (names == null || lexer.isNameIn(names)) {
+                        context.startObjectEntry(lexer.getName());
+                    } else {
+                        context.startUndecodedObjectEntry();
+                    }
+                    break;
+                case STRING:
+                    stringHolder.init();
+                    context.primitive(stringHolder);
+                    stringHolder.skipValue();
+                    break;
+                case NUMBER:
+                    numberHolder.init();
+                    context.primitive(numberHolder);
+                    numberHolder.skipValue();
+                    break;
+                case TRUE:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitive(true)));
+                    break;
+                case FALSE:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitive(false)));
+                    break;
+                case NULL:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitiveNull()));
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected token: " + token);
+            }
+        }
+
+        /**
+         * Skips the content of the object or array that has just started, none of it being watched
+         */
+        protected void skipChildren() {
+            lexer.skipChildren();
+        }
+
+        void doParse() throws IOException {
+            awaitingInput = false;
+            JsonProvider jsonProvider = context.getConfig().getJsonProvider();
+            while (!context.shouldBreak()) {
+                Utf8Lexer.Token token = lexer.next();
+                if (token == Utf8Lexer.Token.END) {
+                    context.endJSON();
+                    break;
+                }
+                dispatch(token, jsonProvider);
+                if (context.getConfig().isCloseParserOnStop() && context.isStopped()) {
+                    lexer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Holder of a number, decoded from the lexer only in the representation that is asked for
+     */
+    private static final class NumberHolder extends AbstractPrimitiveHolder {
+
+        private final Utf8Lexer lexer;
+        private final JsonProvider jsonProvider;
+
+        NumberHolder(Utf8Lexer lexer, SurfingConfiguration config) {
+            super(config);
+            this.lexer = lexer;
+            this.jsonProvider = config.getJsonProvider();
+        }
+
+        @Override
+        public Object doGetValue() {
+            return jsonProvider.primitiveNumber(this);
+        }
+
+        @Override
+        public void doSkipValue() {
+        }
+
+        @Override
+        protected String doGetRawText() {
+            return lexer.getNumberText();
+        }
+
+        @Override
+        protected boolean doIsLong() {
+            if (!lexer.isIntegral()) {
+                return false;
+            } else if (lexer.isLongSafe()) {
+                return true;
+            }
+            try {
+                Long.parseLong(lexer.getNumberText());
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean doIsDouble() {
+            return !lexer.isIntegral();
+        }
+
+        @Override
+        protected long doGetLong() {
+            if (!lexer.isIntegral()) {
+                return (long) Double.parseDouble(lexer.getNumberText());
+            } else if (lexer.isLongSafe()) {
+                return lexer.getLong();
+            }
+            String text = lexer.getNumberText();
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return new BigInteger(text).longValue();
+            }
+        }
+
+        @Override
+        protected double doGetDouble() {
+            if (lexer.isIntegral() && lexer.isLongSafe()) {
+                return lexer.getLong();
+            }
+            return Double.parseDouble(lexer.getNumberText());
+        }
+    }
+
+    /**
+     * Encodes the characters of a reader to UTF-8 for the lexer
+     */
+    private static final class EncodingInputStream extends InputStream {
+
+        private static final int CHUNK_SIZE = 4096;
+        private static final int MAX_BYTES_PER_CHAR = 3;
+
+        private final Reader reader;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE).flip();
+        private final ByteBuffer bytes = ByteBuffer.allocate(CHUNK_SIZE * MAX_BYTES_PER_CHAR).flip();
+        private boolean endOfChars;
+        private boolean flushed;
+
+        EncodingInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (!bytes.hasRemaining()) {
+                if (flushed) {
+                    return -1;
+                }
+                bytes.clear();
+                if (!endOfChars) {
+                    chars.compact();
+                    endOfChars = reader.read(chars) < 0;
+                    chars.flip();
+                }
+                encoder.encode(chars, bytes, endOfChars);
+                if (endOfChars) {
+                    encoder.flush(bytes);
+                    flushed = true;
+                }
+                bytes.flip();
+            }
+            int count = Math.min(len, bytes.remaining());
+            bytes.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+    }
+
+    /**
+     * Immutable shared instance
+     */
+    public static final NativeParser INSTANCE = new NativeParser();
+
+    @Override
+    public void parse(Reader reader, SurfingContext context) {
+        createResumableParser(reader, context).parse();
+    }
+
+    @Override
+    public void parse(String json, SurfingContext context) {
+        createResumableParser(json, context).parse();
+    }
+
+    @Override
+    public void parse(InputStream inputStream, SurfingContext context) {
+        createResumableParser(inputStream, context).parse();
+    }
+
+    @Override
+    public ResumableParser createResumableParser(Reader reader, SurfingContext context) {
+        return new NativeResumableParser(new Utf8Lexer(new EncodingInputStream(reader)), context);
+    }
+
+    @Override
+    public ResumableParser createResumableParser(String json, SurfingContext context) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new NativeResumableParser(new Utf8Lexer(bytes, 0, bytes.length), context);
+    }
+
+    @Override
+    public ResumableParser createResumableParser(InputStream json, SurfingContext context) {
+        Charset charset = context.getConfig().getParserCharset();
+        if (charset != null && !StandardCharsets.UTF_8.equals(charset)) {
+            return createResumableParser(new InputStreamReader(json, charset), context);
+        }
+        if (json instanceof MappedInputStream) {
+            return new NativeResumableParser(new Utf8Lexer((MappedInputStream) json), context);
+        }
+        return new NativeResumableParser(new Utf8Lexer(json), context);
+    }
+
+    @Override
+    public NonBlockingParser createNonBlockingParser(SurfingContext context) {
+        return new NativeNonBlockingParser(context);
+    }
+
+}
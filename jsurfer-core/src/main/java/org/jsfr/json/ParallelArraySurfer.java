@@ -0,0 +1,490 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.compiler.JsonPathCache;
+import org.jsfr.json.exception.JsonSurfingException;
+import org.jsfr.json.path.ChildNode;
+import org.jsfr.json.path.JsonPath;
+import org.jsfr.json.provider.JavaCollectionProvider;
+import org.jsfr.json.provider.JsonProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Surfs a document made mostly of one large array, such as a bare top-level array or {"items": [...]}, on the threads of
+ * a ForkJoinPool. A quote-aware scan of the array bytes cuts it into chunks on element boundaries, then the built-in
+ * tokenizer parses every chunk with a SurfingContext of its own. Array indexes stay global, so
+ * {@link ParsingContext#getCurrentArrayIndex()} and paths like $.items[5000] behave as in a sequential surf.
+ * <p>
+ * The rest of the document is surfed on the calling thread, where the array looks empty. Listeners bound to the array
+ * itself or to one of its ancestors therefore do not see its elements. Listeners may stop parsing but not pause it.
+ */
+public class ParallelArraySurfer {
+
+    /**
+     * How listeners are called for values found inside the array
+     */
+    public enum Delivery {
+        /**
+         * On the calling thread in document order. Values of a chunk are held until all chunks before it are delivered.
+         */
+        ORDERED,
+        /**
+         * Concurrently on the pool threads as soon as they are matched. Listeners must be thread-safe.
+         */
+        UNORDERED
+    }
+
+    /**
+     * Default size in bytes of the chunks parsed by one task
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final String[] arrayKeys;
+    private final ForkJoinPool pool;
+    private final Delivery delivery;
+    private final int chunkSize;
+
+    /**
+     * @param arrayPath path of the array made of object keys only, "$" for a top-level array
+     * @param pool      pool running the chunks
+     * @param delivery  delivery of the values found inside the array
+     */
+    public ParallelArraySurfer(String arrayPath, ForkJoinPool pool, Delivery delivery) {
+        this(arrayPath, pool, delivery, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param arrayPath path of the array made of object keys only, "$" for a top-level array
+     * @param pool      pool running the chunks
+     * @param delivery  delivery of the values found inside the array
+     * @param chunkSize minimum size in bytes of a chunk
+     */
+    public ParallelArraySurfer(String arrayPath, ForkJoinPool pool, Delivery delivery, int chunkSize) {
+        this.arrayKeys = keysOf(JsonPathCache.compile(arrayPath));
+        this.pool = pool;
+        this.delivery = delivery;
+        this.chunkSize = chunkSize;
+    }
+
+    private static String[] keysOf(JsonPath path) {
+        String[] keys = new String[path.pathDepth() - 1];
+        for (int i = 1; i < path.pathDepth(); i++) {
+            if (path.get(i).getClass() != ChildNode.class) {
+                throw new IllegalArgumentException("Array path must consist of object keys only: " + path);
+            }
+            keys[i - 1] = ((ChildNode) path.get(i)).getKey();
+        }
+        return keys;
+    }
+
+    /**
+     * @param json          UTF-8 encoded json
+     * @param configuration SurfingConfiguration that holds JsonPath binding
+     */
+    public void surf(byte[] json, SurfingConfiguration configuration) {
+        if (configuration.getJsonProvider() == null) {
+            configuration.setJsonProvider(JavaCollectionProvider.INSTANCE);
+        }
+        if (configuration.getErrorHandlingStrategy() == null) {
+            configuration.setErrorHandlingStrategy(new DefaultErrorHandlingStrategy());
+        }
+        SurfingContext context = new SurfingContext(configuration);
+        OutlineParser outline = new OutlineParser(new Utf8Lexer(json, 0, json.length), context, arrayKeys);
+        outline.parse();
+        if (outline.arrayStart < 0 || context.isStopped()) {
+            return;
+        }
+        try {
+            List<Chunk> chunks = new ArrayList<>();
+            int arrayEnd = split(json, outline.arrayStart, chunks);
+            surfChunks(json, chunks, configuration, context);
+            if (context.isStopped()) {
+                return;
+            }
+            outline.lexer.skipTo(arrayEnd);
+        } catch (Exception e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+            return;
+        }
+        outline.resume();
+    }
+
+    /**
+     * Cuts the elements of the array whose content starts at from into chunks of at least chunkSize bytes
+     *
+     * @return position of the closing bracket of the array
+     */
+    private int split(byte[] json, int from, List<Chunk> chunks) {
+        int depth = 0;
+        int index = 0;
+        int chunkStart = from;
+        int chunkFirstIndex = 0;
+        for (int p = from; p < json.length; p++) {
+            switch (json[p]) {
+                case '"':
+                    p = endOfString(json, p);
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth-- == 0) {
+                        if (index > 0 || !isBlank(json, chunkStart, p)) {
+                            chunks.add(new Chunk(chunkStart, p, chunkFirstIndex));
+                        }
+                        return p;
+                    }
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        index++;
+                        if (p - chunkStart >= chunkSize) {
+                            chunks.add(new Chunk(chunkStart, p, chunkFirstIndex));
+                            chunkStart = p + 1;
+                            chunkFirstIndex = index;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new JsonSurfingException("Unexpected end of input inside the array");
+    }
+
+    private static int endOfString(byte[] json, int start) {
+        for (int p = start + 1; p < json.length; p++) {
+            if (json[p] == '\\') {
+                p++;
+            } else if (json[p] == '"') {
+                return p;
+            }
+        }
+        throw new JsonSurfingException("Unexpected end of input in string");
+    }
+
+    private static boolean isBlank(byte[] json, int start, int end) {
+        for (int p = start; p < end; p++) {
+            if (json[p] != ' ' && json[p] != '\n' && json[p] != '\r' && json[p] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void surfChunks(byte[] json, List<Chunk> chunks, SurfingConfiguration configuration,
+        SurfingContext context) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        SurfingConfiguration chunkConfiguration = delivery == Delivery.ORDERED
+            ? configuration.withListeners(DeferringListener::new) : configuration;
+        List<ForkJoinTask<ChunkContext>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            tasks.add(pool.submit(() -> surfChunk(json, chunk, chunkConfiguration, stopped)));
+        }
+        try {
+            for (ForkJoinTask<ChunkContext> task : tasks) {
+                ChunkContext chunkContext = task.join();
+                if (delivery == Delivery.ORDERED) {
+                    chunkContext.deliver(context);
+                }
+                if (stopped.get()) {
+                    context.stop();
+                    break;
+                }
+            }
+        } finally {
+            if (stopped.get() || context.isStopped()) {
+                for (ForkJoinTask<ChunkContext> task : tasks) {
+                    task.cancel(false);
+                }
+            }
+        }
+    }
+
+    private ChunkContext surfChunk(byte[] json, Chunk chunk, SurfingConfiguration configuration, AtomicBoolean stopped) {
+        ChunkContext context = new ChunkContext(configuration, stopped);
+        context.startJSON();
+        for (String key : arrayKeys) {
+            context.startObject();
+            context.startObjectEntry(key);
+        }
+        context.startArray();
+        context.skipArrayElements(chunk.firstIndex);
+        ChunkParser parser = new ChunkParser(new Utf8Lexer(json, chunk.start, chunk.end, true), context);
+        try {
+            parser.doParse();
+        } catch (Exception e) {
+            configuration.getErrorHandlingStrategy().handleParsingException(e);
+        }
+        return context;
+    }
+
+    private static final class Chunk {
+
+        private final int start;
+        private final int end;
+        private final int firstIndex;
+
+        Chunk(int start, int end, int firstIndex) {
+            this.start = start;
+            this.end = end;
+            this.firstIndex = firstIndex;
+        }
+
+    }
+
+    /**
+     * Surfs everything but the content of the array and pauses right after its start
+     */
+    private static final class OutlineParser extends NativeParser.NativeResumableParser {
+
+        private final Utf8NameSet[] keys;
+        private int depth;
+        private int matchedKeys;
+        private int arrayStart = -1;
+
+        OutlineParser(Utf8Lexer lexer, SurfingContext context, String[] keys) {
+            super(lexer, context);
+            this.keys = new Utf8NameSet[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                this.keys[i] = new Utf8NameSet(Collections.singleton(keys[i]));
+            }
+        }
+
+        @Override
+        void dispatch(Utf8Lexer.Token token, JsonProvider jsonProvider) {
+            switch (token) {
+                case START_ARRAY:
+                    boolean target = arrayStart < 0 && depth == keys.length && matchedKeys == keys.length;
+                    super.dispatch(token, jsonProvider);
+                    depth++;
+                    if (target) {
+                        arrayStart = (int) rawBytes.position();
+                        context.pause();
+                    }
+                    return;
+                case START_OBJECT:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    matchedKeys = Math.min(matchedKeys, depth - 1);
+                    depth--;
+                    break;
+                case FIELD_NAME:
+                    if (depth <= keys.length && matchedKeys >= depth - 1) {
+                        matchedKeys = lexer.isNameIn(keys[depth - 1]) ? depth : depth - 1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            super.dispatch(token, jsonProvider);
+        }
+
+    }
+
+    /**
+     * Parses the elements of a chunk without closing the enclosing containers
+     */
+    private static final class ChunkParser extends NativeParser.NativeResumableParser {
+
+        ChunkParser(Utf8Lexer lexer, SurfingContext context) {
+            super(lexer, context);
+        }
+
+        @Override
+        void doParse() throws IOException {
+            JsonProvider jsonProvider = context.getConfig().getJsonProvider();
+            while (!context.shouldBreak()) {
+                Utf8Lexer.Token token = lexer.next();
+                if (token == Utf8Lexer.Token.END) {
+                    break;
+                }
+                dispatch(token, jsonProvider);
+            }
+        }
+
+    }
+
+    /**
+     * Holds a value for ordered delivery by the chunk context it was matched in
+     */
+    private static final class DeferringListener implements JsonPathListener {
+
+        private final JsonPathListener listener;
+
+        DeferringListener(JsonPathListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            ((ChunkContext) context).defer(listener, value);
+        }
+
+    }
+
+    /**
+     * Surfing context of a chunk, sharing the stop flag of the whole surf
+     */
+    private static final class ChunkContext extends SurfingContext {
+
+        private final AtomicBoolean stopped;
+        private final List<DeferredValue> deferred = new ArrayList<>();
+
+        ChunkContext(SurfingConfiguration config, AtomicBoolean stopped) {
+            super(config);
+            this.stopped = stopped;
+        }
+
+        void defer(JsonPathListener listener, Object value) {
+            deferred.add(new DeferredValue(listener, value, getJsonPath(), getCurrentFieldName(), getCurrentArrayIndex()));
+        }
+
+        void deliver(SurfingContext outline) {
+            ErrorHandlingStrategy errorHandlingStrategy = getConfig().getErrorHandlingStrategy();
+            for (DeferredValue value : deferred) {
+                if (stopped.get()) {
+                    break;
+                }
+                value.outline = outline;
+                value.stopped = stopped;
+                try {
+                    value.listener.onValue(value.value, value);
+                } catch (Exception e) {
+                    errorHandlingStrategy.handleExceptionFromListener(e, value);
+                }
+            }
+            deferred.clear();
+        }
+
+        @Override
+        public void stop() {
+            super.stop();
+            stopped.set(true);
+        }
+
+        @Override
+        public boolean shouldBreak() {
+            return super.shouldBreak() || stopped.get();
+        }
+
+        @Override
+        public void pause() {
+            throw new UnsupportedOperationException("Parallel surfing cannot be paused");
+        }
+
+    }
+
+    /**
+     * Value matched in a chunk together with the position it was matched at
+     */
+    private static final class DeferredValue implements ParsingContext {
+
+        private final JsonPathListener listener;
+        private final Object value;
+        private final String jsonPath;
+        private final String fieldName;
+        private final int arrayIndex;
+        private SurfingContext outline;
+        private AtomicBoolean stopped;
+
+        DeferredValue(JsonPathListener listener, Object value, String jsonPath, String fieldName, int arrayIndex) {
+            this.listener = listener;
+            this.value = value;
+            this.jsonPath = jsonPath;
+            this.fieldName = fieldName;
+            this.arrayIndex = arrayIndex;
+        }
+
+        @Override
+        public void stop() {
+            stopped.set(true);
+            outline.stop();
+        }
+
+        @Override
+        public boolean isStopped() {
+            return stopped.get();
+        }
+
+        @Override
+        public void pause() {
+            throw new UnsupportedOperationException("Parallel surfing cannot be paused");
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public boolean isPaused() {
+            return false;
+        }
+
+        @Override
+        public String getJsonPath() {
+            return jsonPath;
+        }
+
+        @Override
+        public String getCurrentFieldName() {
+            return fieldName;
+        }
+
+        @Override
+        public int getCurrentArrayIndex() {
+            return arrayIndex;
+        }
+
+        @Override
+        public void save(String key, Object object) {
+            outline.save(key, object);
+        }
+
+        @Override
+        public <T> T load(String key, Class<T> tClass) {
+            return outline.load(key, tClass);
+        }
+
+        @Override
+        public <T> T cast(Object object, Class<T> tClass) {
+            return outline.cast(object, tClass);
+        }
+
+    }
+
+}
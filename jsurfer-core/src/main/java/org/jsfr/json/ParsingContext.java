@@ -69,6 +69,20 @@ public interface ParsingContext {
      */
     int getCurrentArrayIndex();
 
+    /**
+     * @return The zero-based line number of the current record when surfing json lines. -1 otherwise
+     */
+    default long getRecordNumber() {
+        return -1;
+    }
+
+    /**
+     * @return The byte offset in the stream where the current record starts when surfing json lines. -1 otherwise
+     */
+    default long getRecordOffset() {
+        return -1;
+    }
+
     /**
      * Save a transient data during parsing
      *
@@ -0,0 +1,465 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.SurfingConfiguration.Binding;
+import org.jsfr.json.path.ArrayIndex;
+import org.jsfr.json.path.ArrayIndexes;
+import org.jsfr.json.path.ArrayWildcard;
+import org.jsfr.json.path.ChildNode;
+import org.jsfr.json.path.ChildrenNode;
+import org.jsfr.json.path.JsonPath;
+import org.jsfr.json.path.PathOperator;
+import org.jsfr.json.path.Root;
+import org.jsfr.json.path.Wildcard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Matching automaton compiled from all bindings of a {@link SurfingConfiguration}.
+ *
+ * Each state holds the set of bindings whose JsonPath matches a prefix of the current json position, so stepping into
+ * an object entry or array element costs a single cached transition no matter how many paths are bound. States and
+ * transitions are created lazily and cached, so the automaton can be shared by concurrent surfing contexts.
+ *
+ * Definite paths are merged into a {@link DefinitePathTrie} and tracked as trie nodes rather than one item per path.
+ */
+final class PathAutomaton {
+
+    private static final Binding[] NO_BINDING = new Binding[0];
+
+    /**
+     * Object entry without a name, which no operator mentions, standing for every name not mentioned at a state
+     */
+    private static final ChildNode OTHER_ENTRY = new ChildNode(null);
+    private static final Utf8NameSet EVERY_NAME = new Utf8NameSet(Collections.emptySet());
+
+    private final Binding[] bindings;
+    private final JsonPath[] paths;
+    private final DefinitePathTrie trie = new DefinitePathTrie();
+    private final int trieBinding;
+    private final ConcurrentHashMap<ItemSet, State> states = new ConcurrentHashMap<>();
+    private final State initialState;
+
+    PathAutomaton(Binding[] bindings) {
+        this.bindings = bindings;
+        this.paths = new JsonPath[bindings.length];
+        this.trieBinding = bindings.length;
+        long[] items = new long[bindings.length + 1];
+        int size = 0;
+        for (int i = 0; i < bindings.length; i++) {
+            paths[i] = bindings[i].jsonPath;
+            if (paths[i].isDefinite()) {
+                trie.insert(paths[i], i);
+            } else {
+                items[size++] = item(i, 0);
+            }
+        }
+        items[size++] = item(trieBinding, trie.root().getId());
+        this.initialState = intern(items, size);
+    }
+
+    /**
+     * @return State before the root of the document is reached
+     */
+    State initialState() {
+        return initialState;
+    }
+
+    int stateCount() {
+        return states.size();
+    }
+
+    private static long item(int binding, int operator) {
+        return ((long) binding << 32) | operator;
+    }
+
+    private static int bindingOf(long item) {
+        return (int) (item >>> 32);
+    }
+
+    private static int operatorOf(long item) {
+        return (int) item;
+    }
+
+    private boolean isTrieItem(long item) {
+        return bindingOf(item) == trieBinding;
+    }
+
+    private DefinitePathTrie.Node trieNodeAt(long item) {
+        return trie.node(operatorOf(item));
+    }
+
+    private PathOperator operatorAt(long item) {
+        JsonPath path = paths[bindingOf(item)];
+        int operator = operatorOf(item);
+        return operator < path.pathDepth() ? path.get(operator) : null;
+    }
+
+    static boolean matches(PathOperator operator, PathOperator position) {
+        if (operator instanceof ArrayIndexes && !(position instanceof ArrayIndex)) {
+            return false;
+        }
+        return operator.match(position);
+    }
+
+    private State transition(State from, PathOperator position) {
+        List<DefinitePathTrie.Node> trieNodes = new ArrayList<>();
+        long[] buffer = new long[from.items.length * 2];
+        int size = 0;
+        for (long item : from.items) {
+            if (isTrieItem(item)) {
+                trieNodeAt(item).match(position, trieNodes);
+                continue;
+            }
+            PathOperator operator = operatorAt(item);
+            if (operator == null) {
+                continue;
+            }
+            if (operator.getType() == PathOperator.Type.DEEP_SCAN) {
+                // deep scan swallows the current position and stays active
+                buffer[size++] = item;
+            } else if (matches(operator, position)) {
+                buffer[size++] = item + 1;
+            }
+        }
+        if (size + trieNodes.size() > buffer.length) {
+            buffer = Arrays.copyOf(buffer, size + trieNodes.size());
+        }
+        for (DefinitePathTrie.Node node : trieNodes) {
+            buffer[size++] = item(trieBinding, node.getId());
+        }
+        return intern(buffer, size);
+    }
+
+    private State intern(long[] buffer, int length) {
+        long[] items = closure(buffer, length);
+        ItemSet key = new ItemSet(items);
+        State state = states.get(key);
+        if (state == null) {
+            state = states.computeIfAbsent(key, k -> new State(this, k.items));
+        }
+        return state;
+    }
+
+    /**
+     * Deep scan also matches zero levels, so an item waiting on a deep scan is also waiting on the operator after it.
+     */
+    private long[] closure(long[] buffer, int length) {
+        long[] items = Arrays.copyOf(buffer, length * 2);
+        int size = length;
+        for (int i = 0; i < size; i++) {
+            PathOperator operator = isTrieItem(items[i]) ? null : operatorAt(items[i]);
+            if (operator != null && operator.getType() == PathOperator.Type.DEEP_SCAN) {
+                items[size++] = items[i] + 1;
+            }
+        }
+        Arrays.sort(items, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || items[distinct - 1] != items[i]) {
+                items[distinct++] = items[i];
+            }
+        }
+        return Arrays.copyOf(items, distinct);
+    }
+
+    private static final class ItemSet {
+
+        private final long[] items;
+        private final int hash;
+
+        ItemSet(long[] items) {
+            this.items = items;
+            this.hash = Arrays.hashCode(items);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ItemSet && Arrays.equals(items, ((ItemSet) o).items);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A set of partially matched bindings. Transitions only depend on the keys mentioned by the pending operators,
+     * any other key shares one cached transition so the cache stays bounded by the size of the bound paths.
+     */
+    static final class State {
+
+        private final PathAutomaton automaton;
+        private final long[] items;
+        private final Binding[] matchedBindings;
+        private final Set<String> keys = new HashSet<>();
+        private final ConcurrentHashMap<String, State> objectTransitions = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, State> arrayTransitions = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, AtomicReference<State>>> indexTransitions = new HashMap<>();
+        private boolean indexSensitive;
+        private boolean rangeSensitive;
+        private boolean opaque;
+        private volatile State otherObjectTransition;
+        private volatile State otherArrayTransition;
+        private volatile State anonymousArrayTransition;
+        private volatile State rootTransition;
+        private volatile Utf8NameSet decodedNames;
+
+        State(PathAutomaton automaton, long[] items) {
+            this.automaton = automaton;
+            this.items = items;
+            List<Integer> matched = new ArrayList<>();
+            for (long item : items) {
+                if (automaton.isTrieItem(item)) {
+                    DefinitePathTrie.Node node = automaton.trieNodeAt(item);
+                    matched.addAll(node.getBindings());
+                    inspect(node);
+                    continue;
+                }
+                PathOperator operator = automaton.operatorAt(item);
+                if (operator == null) {
+                    matched.add(bindingOf(item));
+                } else {
+                    inspect(operator);
+                }
+            }
+            this.matchedBindings = matched.isEmpty() ? NO_BINDING : sortedBindings(automaton, matched);
+        }
+
+        private static Binding[] sortedBindings(PathAutomaton automaton, List<Integer> matched) {
+            Collections.sort(matched);
+            Binding[] result = new Binding[matched.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = automaton.bindings[matched.get(i)];
+            }
+            return result;
+        }
+
+        private void inspect(DefinitePathTrie.Node node) {
+            for (String key : node.getKeys()) {
+                keys.add(key);
+                for (Integer index : node.getIndexes(key)) {
+                    watchIndex(key, index);
+                }
+            }
+            for (PathOperator operator : node.getOtherOperators()) {
+                inspect(operator);
+            }
+        }
+
+        private void watchIndex(String key, int index) {
+            indexTransitions.computeIfAbsent(key, k -> new HashMap<>()).putIfAbsent(index, new AtomicReference<>());
+            indexSensitive = true;
+        }
+
+        private void inspect(PathOperator operator) {
+            Class<?> type = operator.getClass();
+            if (type == ChildNode.class || type == ArrayWildcard.class) {
+                keys.add(((ChildNode) operator).getKey());
+            } else if (type == ArrayIndex.class) {
+                keys.add(((ChildNode) operator).getKey());
+                watchIndex(((ChildNode) operator).getKey(), ((ArrayIndex) operator).getArrayIndex());
+            } else if (type == ArrayIndexes.class) {
+                keys.add(((ChildNode) operator).getKey());
+                indexSensitive = true;
+                rangeSensitive = true;
+            } else if (type == ChildrenNode.class) {
+                keys.addAll(((ChildrenNode) operator).getChildren());
+            } else if (!(operator instanceof Wildcard || operator instanceof Root
+                || operator.getType() == PathOperator.Type.DEEP_SCAN)) {
+                opaque = true;
+            }
+        }
+
+        /**
+         * @return Bindings fully matched at this state, in binding order
+         */
+        Binding[] getMatchedBindings() {
+            return matchedBindings;
+        }
+
+        /**
+         * @return Whether no binding can match at this state or at any descendant of it
+         */
+        boolean isDead() {
+            return items.length == 0;
+        }
+
+        /**
+         * @param position Top of the json position of a container that has just been entered
+         * @return Whether nothing inside the container can be matched
+         */
+        boolean isDeadBelow(PathOperator position) {
+            if (isDead()) {
+                return true;
+            }
+            if (position.getType() != PathOperator.Type.ARRAY || opaque
+                || indexSensitive && keys.contains(((ChildNode) position).getKey())) {
+                return false;
+            }
+            return nextArrayElement(position).isDead();
+        }
+
+        /**
+         * An object entry whose name is not mentioned by a pending operator takes the transition shared by all such
+         * names. When it leads to a dead state, the names mentioned are the only ones worth decoding.
+         *
+         * @return UTF-8 forms of the names that can change the matching at this state, or null if any name can
+         */
+        Utf8NameSet getDecodedNames() {
+            Utf8NameSet names = decodedNames;
+            if (names == null) {
+                boolean undecodable = !isDead() && (opaque || !nextOtherEntry().isDead());
+                names = undecodable ? EVERY_NAME : new Utf8NameSet(keys);
+                decodedNames = names;
+            }
+            return names == EVERY_NAME ? null : names;
+        }
+
+        State next(PathOperator position) {
+            if (isDead()) {
+                return this;
+            }
+            if (opaque) {
+                return automaton.transition(this, position);
+            }
+            switch (position.getType()) {
+                case OBJECT:
+                    return nextObjectEntry(position);
+                case ARRAY:
+                    return nextArrayElement(position);
+                case ROOT:
+                    State next = rootTransition;
+                    if (next == null) {
+                        next = automaton.transition(this, position);
+                        rootTransition = next;
+                    }
+                    return next;
+                default:
+                    return automaton.transition(this, position);
+            }
+        }
+
+        private State nextObjectEntry(PathOperator position) {
+            String key = ((ChildNode) position).getKey();
+            if (key == null) {
+                return automaton.transition(this, position);
+            }
+            if (keys.contains(key)) {
+                State next = objectTransitions.get(key);
+                if (next == null) {
+                    next = automaton.transition(this, position);
+                    objectTransitions.putIfAbsent(key, next);
+                }
+                return next;
+            }
+            return nextOtherEntry();
+        }
+
+        /**
+         * Only wildcards and deep scans match a name that no pending operator mentions, so an object entry with such
+         * a name and an array in it lead to the same state
+         *
+         * @return State at an object entry, or at an array in it, whose name is not mentioned at this state
+         */
+        State nextOtherEntry() {
+            if (isDead()) {
+                return this;
+            }
+            State next = otherObjectTransition;
+            if (next == null) {
+                next = automaton.transition(this, OTHER_ENTRY);
+                otherObjectTransition = next;
+            }
+            return next;
+        }
+
+        private State nextArrayElement(PathOperator position) {
+            String key = ((ChildNode) position).getKey();
+            boolean relevant = keys.contains(key);
+            if (relevant && indexSensitive) {
+                State next = nextIndexedElement(key, position);
+                if (next != null) {
+                    return next;
+                }
+            }
+            State next;
+            if (key == null) {
+                next = relevant ? anonymousArrayTransition : otherArrayTransition;
+            } else if (relevant) {
+                next = arrayTransitions.get(key);
+            } else {
+                next = otherArrayTransition;
+            }
+            if (next == null) {
+                next = automaton.transition(this, position);
+                cacheArrayTransition(key, relevant, next);
+            }
+            return next;
+        }
+
+        /**
+         * Transitions on an index named by a pending operator are cached per index. Any other index behaves the same
+         * unless an index range is pending, so null is returned to let the caller use the transition shared by them.
+         */
+        private State nextIndexedElement(String key, PathOperator position) {
+            Map<Integer, AtomicReference<State>> transitions = indexTransitions.get(key);
+            AtomicReference<State> slot = transitions == null ? null
+                : transitions.get(((ArrayIndex) position).getArrayIndex());
+            if (slot == null) {
+                return rangeSensitive ? automaton.transition(this, position) : null;
+            }
+            State next = slot.get();
+            if (next == null) {
+                next = automaton.transition(this, position);
+                slot.set(next);
+            }
+            return next;
+        }
+
+        private void cacheArrayTransition(String key, boolean relevant, State next) {
+            if (!relevant) {
+                otherArrayTransition = next;
+            } else if (key == null) {
+                anonymousArrayTransition = next;
+            } else {
+                arrayTransitions.putIfAbsent(key, next);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.InputStream;
+
+/**
+ * Surfs documents with one SurfingConfiguration from any number of threads at once. Every thread keeps a SurfingContext
+ * of its own, and with the built-in tokenizer the parsers along with their buffers, primitive holders and interned field
+ * names, reusing them from one document to the next instead of allocating them per document. A context is only reused
+ * once its document ended, so a document that failed or was stopped leaves nothing behind for the next one.
+ *
+ * A PooledSurfer is safe for concurrent use, provided the bound listeners are. As the state is kept per thread, it pays
+ * off on long-lived threads such as those of a server pool; a thread surfing a single document, virtual threads
+ * included, gains nothing over {@link JsonSurfer#surf(String, SurfingConfiguration)}.
+ *
+ * @see JsonSurfer#pooled(SurfingConfiguration)
+ */
+public final class PooledSurfer {
+
+    private final ThreadLocal<SurfingSlot<SurfingContext>> slots;
+
+    PooledSurfer(final JsonParserAdapter jsonParserAdapter, final SurfingConfiguration configuration) {
+        this.slots = ThreadLocal.withInitial(() -> new SurfingSlot<>(jsonParserAdapter, configuration, SurfingContext::new));
+    }
+
+    /**
+     * @param json json
+     */
+    public void surf(String json) {
+        SurfingSlot<SurfingContext> slot = slots.get();
+        slot.next();
+        slot.parse(json);
+    }
+
+    /**
+     * @param json json bytes in the charset of the configuration
+     */
+    public void surf(byte[] json) {
+        surf(json, 0, json.length);
+    }
+
+    /**
+     * @param json  json bytes in the charset of the configuration
+     * @param start index of the first byte of the document
+     * @param end   index after the last byte of the document
+     */
+    public void surf(byte[] json, int start, int end) {
+        SurfingSlot<SurfingContext> slot = slots.get();
+        slot.next();
+        slot.parse(json, start, end);
+    }
+
+    /**
+     * @param json Json InputStream
+     */
+    public void surf(InputStream json) {
+        SurfingSlot<SurfingContext> slot = slots.get();
+        slot.next();
+        slot.parse(json);
+    }
+
+}
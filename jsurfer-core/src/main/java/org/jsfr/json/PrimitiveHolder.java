@@ -36,4 +36,64 @@ public interface PrimitiveHolder {
      */
     void setValue(Object value);
 
+    /**
+     * @return the number as it is written in the source, or null if the value is not a number or its text is unknown
+     */
+    default String getRawText() {
+        return null;
+    }
+
+    /**
+     * @return true if the value is an integral number within the range of long, so {@link #getLong()} is exact
+     */
+    default boolean isLong() {
+        Object value = getValue();
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * @return true if the value is a number with a fraction or an exponent
+     */
+    default boolean isDouble() {
+        Object value = getValue();
+        return value instanceof Double || value instanceof Float;
+    }
+
+    /**
+     * Decodes the value without boxing it. A number that is not {@link #isLong()} is narrowed like
+     * {@link Number#longValue()}
+     *
+     * @return the value as a long
+     * @throws NumberFormatException if the value is not a number
+     */
+    default long getLong() {
+        return asNumber(getValue()).longValue();
+    }
+
+    /**
+     * Decodes the value without boxing it
+     *
+     * @return the value as a double
+     * @throws NumberFormatException if the value is not a number
+     */
+    default double getDouble() {
+        return asNumber(getValue()).doubleValue();
+    }
+
+    /**
+     * @return the text of a string value, or null if the value is not a string. It may be a view of the source that
+     * is only valid until the parser moves on
+     */
+    default CharSequence getCharSequence() {
+        Object value = getValue();
+        return value instanceof CharSequence ? (CharSequence) value : null;
+    }
+
+    private static Number asNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        throw new NumberFormatException("Not a number: " + value);
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.provider.JsonProvider;
+
+/**
+ * Adapts the primitive specialized listeners and aggregates to JsonPathListener. SurfingContext hands them the holder
+ * of a matched primitive, so the value is decoded without the json provider whenever the holder can. Values that only
+ * arrive as objects of the json provider, like those of filtered paths, are converted through it instead.
+ */
+abstract class PrimitivePathListener implements JsonPathListener {
+
+    private final SurfingConfiguration config;
+
+    PrimitivePathListener(SurfingConfiguration config) {
+        this.config = config;
+    }
+
+    static JsonPathListener[] of(SurfingConfiguration config, LongPathListener[] listeners) {
+        JsonPathListener[] adapters = new JsonPathListener[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            adapters[i] = new OfLong(config, listeners[i]);
+        }
+        return adapters;
+    }
+
+    static JsonPathListener[] of(SurfingConfiguration config, DoublePathListener[] listeners) {
+        JsonPathListener[] adapters = new JsonPathListener[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            adapters[i] = new OfDouble(config, listeners[i]);
+        }
+        return adapters;
+    }
+
+    static JsonPathListener[] of(SurfingConfiguration config, BooleanPathListener[] listeners) {
+        JsonPathListener[] adapters = new JsonPathListener[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            adapters[i] = new OfBoolean(config, listeners[i]);
+        }
+        return adapters;
+    }
+
+    static JsonPathListener[] of(SurfingConfiguration config, CharSequencePathListener[] listeners) {
+        JsonPathListener[] adapters = new JsonPathListener[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            adapters[i] = new OfCharSequence(config, listeners[i]);
+        }
+        return adapters;
+    }
+
+    static JsonPathListener[] of(SurfingConfiguration config, Aggregate<?>[] aggregates) {
+        JsonPathListener[] adapters = new JsonPathListener[aggregates.length];
+        for (int i = 0; i < aggregates.length; i++) {
+            adapters[i] = new OfAggregate(config, aggregates[i]);
+        }
+        return adapters;
+    }
+
+    /**
+     * @param primitiveHolder holder of the matched primitive
+     * @param context         parsing context
+     */
+    abstract void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context);
+
+    JsonProvider provider() {
+        return config.getJsonProvider();
+    }
+
+    Number number(Object value) {
+        Number number = provider().numberValue(value);
+        if (number == null) {
+            throw new ClassCastException("Not a number: " + value);
+        }
+        return number;
+    }
+
+    private static final class OfLong extends PrimitivePathListener {
+
+        private final LongPathListener listener;
+
+        OfLong(SurfingConfiguration config, LongPathListener listener) {
+            super(config);
+            this.listener = listener;
+        }
+
+        @Override
+        void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context) {
+            if (primitiveHolder.isLong()) {
+                listener.onLong(primitiveHolder.getLong(), context);
+            } else {
+                onValue(primitiveHolder.getValue(), context);
+            }
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            if (!provider().isPrimitiveNull(value)) {
+                listener.onLong(number(value).longValue(), context);
+            }
+        }
+    }
+
+    private static final class OfDouble extends PrimitivePathListener {
+
+        private final DoublePathListener listener;
+
+        OfDouble(SurfingConfiguration config, DoublePathListener listener) {
+            super(config);
+            this.listener = listener;
+        }
+
+        @Override
+        void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context) {
+            if (primitiveHolder.isDouble() || primitiveHolder.isLong()) {
+                listener.onDouble(primitiveHolder.getDouble(), context);
+            } else {
+                onValue(primitiveHolder.getValue(), context);
+            }
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            if (!provider().isPrimitiveNull(value)) {
+                listener.onDouble(number(value).doubleValue(), context);
+            }
+        }
+    }
+
+    private static final class OfBoolean extends PrimitivePathListener {
+
+        private final BooleanPathListener listener;
+
+        OfBoolean(SurfingConfiguration config, BooleanPathListener listener) {
+            super(config);
+            this.listener = listener;
+        }
+
+        @Override
+        void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context) {
+            onValue(primitiveHolder.getValue(), context);
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            if (!provider().isPrimitiveNull(value)) {
+                listener.onBoolean((Boolean) provider().cast(value, Boolean.class), context);
+            }
+        }
+    }
+
+    private static final class OfCharSequence extends PrimitivePathListener {
+
+        private final CharSequencePathListener listener;
+
+        OfCharSequence(SurfingConfiguration config, CharSequencePathListener listener) {
+            super(config);
+            this.listener = listener;
+        }
+
+        @Override
+        void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context) {
+            CharSequence text = primitiveHolder.getCharSequence();
+            if (text != null) {
+                listener.onCharSequence(text, context);
+            } else {
+                onValue(primitiveHolder.getValue(), context);
+            }
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            if (!provider().isPrimitiveNull(value)) {
+                listener.onCharSequence((String) provider().cast(value, String.class), context);
+            }
+        }
+    }
+
+    private static final class OfAggregate extends PrimitivePathListener {
+
+        private final Aggregate<?> aggregate;
+
+        OfAggregate(SurfingConfiguration config, Aggregate<?> aggregate) {
+            super(config);
+            this.aggregate = aggregate;
+        }
+
+        @Override
+        void onPrimitive(PrimitiveHolder primitiveHolder, ParsingContext context) {
+            aggregate.accept(primitiveHolder, provider());
+        }
+
+        @Override
+        public void onValue(Object value, ParsingContext context) {
+            aggregate.accept(value, provider());
+        }
+    }
+
+}
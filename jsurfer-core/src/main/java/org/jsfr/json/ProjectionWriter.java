@@ -0,0 +1,474 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.SurfingConfiguration.Binding;
+import org.jsfr.json.path.ArrayIndex;
+import org.jsfr.json.path.ChildNode;
+import org.jsfr.json.path.PathOperator;
+import org.jsfr.json.provider.JsonProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes the values selected by a {@link JsonProjection} to an OutputStream as compact json while the document is
+ * surfed. It keeps a frame per open container and a fixed buffer, so memory does not grow with the size of the
+ * document. The containers enclosing an included value are only written once such a value shows up, the root container
+ * always is. Primitives are copied as the bytes of the input when the parser hands them out, and written from the
+ * primitive holder otherwise.
+ * <p>
+ * What happens to each value is looked up in the automaton of the projection, one cached transition per value. A
+ * container that is dropped, or that nothing of is written, is left to the parser to skip.
+ */
+final class ProjectionWriter implements JsonSaxHandler {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int INITIAL_DEPTH = 16;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final SurfingContext context;
+    private final OutputStream out;
+    private final JsonProjection projection;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+    private boolean failed;
+    private JsonPosition position;
+    private PathAutomaton.State[] states = new PathAutomaton.State[INITIAL_DEPTH];
+    private int validStates;
+    private boolean excluded;
+    private boolean included;
+    private int transform;
+    private RawByteSource rawSource;
+    private boolean[] objects = new boolean[INITIAL_DEPTH];
+    private boolean[] nonEmpty = new boolean[INITIAL_DEPTH];
+    private String[] keys = new String[INITIAL_DEPTH];
+    private int depth;
+    private int openDepth;
+    private int copyDepth;
+    private int skipDepth;
+
+    ProjectionWriter(SurfingContext context, JsonProjection projection, OutputStream out) {
+        this.context = context;
+        this.projection = projection;
+        this.out = out;
+    }
+
+    @Override
+    public boolean startJSON() {
+        position = position == null ? JsonPosition.start() : position.restart();
+        states[0] = projection.getAutomaton().initialState();
+        validStates = 1;
+        rawSource = context.getRawSource();
+        depth = 0;
+        openDepth = 0;
+        copyDepth = projection.hasIncludes() ? -1 : 0;
+        skipDepth = -1;
+        return true;
+    }
+
+    @Override
+    public boolean endJSON() {
+        return true;
+    }
+
+    /**
+     * Writes out what is left in the buffer once parsing has returned, since not every parser reports the end of the
+     * document
+     */
+    void finish() {
+        flushBuffer();
+        if (!failed) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean startObject() {
+        startContainer(true);
+        position.stepIntoObject();
+        syncStates();
+        return !failed;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        position.updateObjectEntry(key);
+        return true;
+    }
+
+    @Override
+    public boolean endObject() {
+        position.stepOutObject();
+        syncStates();
+        endContainer('}');
+        return !failed;
+    }
+
+    @Override
+    public boolean startArray() {
+        startContainer(false);
+        position.stepIntoArray();
+        syncStates();
+        return !failed;
+    }
+
+    @Override
+    public boolean endArray() {
+        position.stepOutArray();
+        syncStates();
+        endContainer(']');
+        return !failed;
+    }
+
+    @Override
+    public boolean primitive(PrimitiveHolder primitiveHolder) {
+        String key = enterValue();
+        if (skipDepth >= 0 || excluded || copyDepth < 0 && !included) {
+            return true;
+        }
+        openEnclosing();
+        if (depth > 0) {
+            writeMember(depth - 1, key);
+        }
+        if (transform >= 0) {
+            writeValue(projection.getTransform(transform).apply(javaValue(primitiveHolder)));
+        } else {
+            writePrimitive(primitiveHolder);
+        }
+        return !failed;
+    }
+
+    private void startContainer(boolean object) {
+        String key = enterValue();
+        if (skipDepth >= 0) {
+            depth++;
+            return;
+        }
+        if (excluded) {
+            depth++;
+            skipDepth = depth;
+            return;
+        }
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+            nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+            keys = Arrays.copyOf(keys, depth * 2);
+        }
+        objects[depth] = object;
+        nonEmpty[depth] = false;
+        keys[depth] = key;
+        depth++;
+        if (copyDepth < 0 && included) {
+            copyDepth = depth;
+        }
+        if (copyDepth >= 0 || depth == 1) {
+            openEnclosing();
+        }
+    }
+
+    private void endContainer(char close) {
+        if (skipDepth >= 0) {
+            if (depth == skipDepth) {
+                skipDepth = -1;
+            }
+            depth--;
+            return;
+        }
+        if (depth == openDepth) {
+            write(close);
+            openDepth--;
+        }
+        if (depth == copyDepth) {
+            copyDepth = -1;
+        }
+        keys[depth - 1] = null;
+        depth--;
+    }
+
+    /**
+     * Tells the context, right after startObject or startArray, whether the parser may skip the content of the
+     * container. It may when the container is dropped, or when it is not copied and no path can match inside it.
+     *
+     * @return whether nothing inside the current container is written
+     */
+    boolean shouldSkipChildren() {
+        if (skipDepth >= 0) {
+            return true;
+        }
+        return copyDepth < 0 && states[position.pathDepth() - 1].isDeadBelow(position.peek());
+    }
+
+    /**
+     * Moves the position to the value starting now and looks up what the projection does with it
+     *
+     * @return key of the value if it is an object entry
+     */
+    private String enterValue() {
+        PathOperator current = position.peek();
+        String key = null;
+        switch (current.getType()) {
+            case ARRAY:
+                ((ArrayIndex) current).increaseArrayIndex();
+                break;
+            case OBJECT:
+                key = ((ChildNode) current).getKey();
+                break;
+            default:
+                break;
+        }
+        excluded = false;
+        included = false;
+        transform = -1;
+        if (skipDepth < 0) {
+            Binding[] bindings = states[position.pathDepth() - 1].next(current).getMatchedBindings();
+            // in binding order, so the first transform is the first one added
+            for (int i = bindings.length - 1; i >= 0; i--) {
+                JsonProjection.PathBinding binding = (JsonProjection.PathBinding) bindings[i];
+                switch (binding.kind) {
+                    case JsonProjection.PathBinding.INCLUDE:
+                        included = true;
+                        break;
+                    case JsonProjection.PathBinding.EXCLUDE:
+                        excluded = true;
+                        break;
+                    default:
+                        transform = binding.transform;
+                        break;
+                }
+            }
+        }
+        return key;
+    }
+
+    private void syncStates() {
+        int stateDepth = position.pathDepth();
+        if (validStates > stateDepth) {
+            validStates = stateDepth;
+        }
+        if (states.length < stateDepth) {
+            states = Arrays.copyOf(states, Math.max(stateDepth, states.length * 2));
+        }
+        while (validStates < stateDepth) {
+            states[validStates] = states[validStates - 1].next(position.get(validStates - 1));
+            validStates++;
+        }
+    }
+
+    /**
+     * Writes the start of the open containers that have not been written yet
+     */
+    private void openEnclosing() {
+        while (openDepth < depth) {
+            if (openDepth > 0) {
+                writeMember(openDepth - 1, keys[openDepth]);
+            }
+            write(objects[openDepth] ? '{' : '[');
+            openDepth++;
+        }
+    }
+
+    private void writeMember(int parent, String key) {
+        if (nonEmpty[parent]) {
+            write(',');
+        }
+        nonEmpty[parent] = true;
+        if (objects[parent]) {
+            writeString(key);
+            write(':');
+        }
+    }
+
+    private void writePrimitive(PrimitiveHolder primitiveHolder) {
+        if (rawSource != null) {
+            write(rawSource.slice(rawSource.valueStart(), rawSource.position()));
+            return;
+        }
+        String rawText = primitiveHolder.getRawText();
+        if (rawText != null) {
+            writeAscii(rawText);
+            return;
+        }
+        CharSequence text = primitiveHolder.getCharSequence();
+        if (text != null) {
+            writeString(text);
+        } else {
+            writeValue(javaValue(primitiveHolder));
+        }
+    }
+
+    private Object javaValue(PrimitiveHolder primitiveHolder) {
+        if (primitiveHolder.isLong()) {
+            return primitiveHolder.getLong();
+        }
+        if (primitiveHolder.isDouble()) {
+            return primitiveHolder.getDouble();
+        }
+        String rawText = primitiveHolder.getRawText();
+        if (rawText != null) {
+            return new BigInteger(rawText);
+        }
+        Object value = primitiveHolder.getValue();
+        JsonProvider provider = context.getConfig().getJsonProvider();
+        if (provider.isPrimitiveNull(value)) {
+            return null;
+        }
+        if (provider.isPrimitiveBoolean(value)) {
+            return provider.cast(value, Boolean.class);
+        }
+        if (provider.isPrimitiveNumber(value)) {
+            return provider.numberValue(value);
+        }
+        return provider.cast(value, String.class);
+    }
+
+    private void writeValue(Object value) {
+        if (value == null) {
+            writeAscii("null");
+        } else if (value instanceof Boolean) {
+            writeAscii(value.toString());
+        } else if (value instanceof Number) {
+            boolean finite = !(value instanceof Double || value instanceof Float)
+                || Double.isFinite(((Number) value).doubleValue());
+            writeAscii(finite ? value.toString() : "null");
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(CharSequence text) {
+        write('"');
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                writeAsciiChar(c);
+            } else if (c < 0x800) {
+                write(0xc0 | c >> 6);
+                write(0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                write(0xf0 | codePoint >> 18);
+                write(0x80 | codePoint >> 12 & 0x3f);
+                write(0x80 | codePoint >> 6 & 0x3f);
+                write(0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                writeUnicodeEscape(c);
+            } else {
+                write(0xe0 | c >> 12);
+                write(0x80 | c >> 6 & 0x3f);
+                write(0x80 | c & 0x3f);
+            }
+        }
+        write('"');
+    }
+
+    private void writeAsciiChar(char c) {
+        switch (c) {
+            case '"':
+            case '\\':
+                write('\\');
+                write(c);
+                break;
+            case '\n':
+                write('\\');
+                write('n');
+                break;
+            case '\r':
+                write('\\');
+                write('r');
+                break;
+            case '\t':
+                write('\\');
+                write('t');
+                break;
+            default:
+                if (c < 0x20) {
+                    writeUnicodeEscape(c);
+                } else {
+                    write(c);
+                }
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        write('\\');
+        write('u');
+        write(HEX[c >> 12]);
+        write(HEX[c >> 8 & 0xf]);
+        write(HEX[c >> 4 & 0xf]);
+        write(HEX[c & 0xf]);
+    }
+
+    private void writeAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            write(text.charAt(i));
+        }
+    }
+
+    private void write(int b) {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    private void write(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            int length = Math.min(bytes.remaining(), buffer.length - count);
+            bytes.get(buffer, count, length);
+            count += length;
+        }
+    }
+
+    private void flushBuffer() {
+        if (!failed && count > 0) {
+            try {
+                out.write(buffer, 0, count);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        count = 0;
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        context.stop();
+        context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Offsets into the input of a parser that can hand out the source bytes of the values it reads. Offsets count bytes
+ * from the start of the input.
+ */
+interface RawByteSource {
+
+    /**
+     * @return offset of the first byte of the value whose first token has just been read
+     */
+    long valueStart();
+
+    /**
+     * @return offset right after the last token read
+     */
+    long position();
+
+    /**
+     * Keeps the bytes from the offset on in memory until released
+     *
+     * @param offset offset of the first byte to keep
+     */
+    void retain(long offset);
+
+    void release();
+
+    /**
+     * @param start offset of the first byte
+     * @param end   offset after the last byte
+     * @return read-only view of the bytes between both offsets
+     */
+    ByteBuffer slice(long start, long end);
+
+}
@@ -32,14 +32,18 @@ import org.jsfr.json.provider.JsonProvider;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
-import static org.jsfr.json.compiler.JsonPathCompiler.compile;
+import static org.jsfr.json.compiler.JsonPathCache.compile;
 
 /**
  * SurfingConfiguration is immutable object that hold all JSONPath binding information
@@ -51,6 +55,7 @@ public class SurfingConfiguration {
     private int maxDepth = -1;
     private boolean skipOverlappedPath;
     private boolean hasFilter;
+    private boolean hasRawBinding;
     private boolean closeParserOnStop = true;
 
     private Binding[][] definitePathLookup;
@@ -58,6 +63,8 @@ public class SurfingConfiguration {
     // sorted by minimum path depth
     private IndefinitePathBinding[] indefinitePathLookup = new IndefinitePathBinding[0];
 
+    private PathAutomaton pathAutomaton;
+
     private JsonProvider jsonProvider;
     private ErrorHandlingStrategy errorHandlingStrategy;
 
@@ -94,10 +101,14 @@ public class SurfingConfiguration {
         JsonPathFilter filter;
         Binding dependency;
         JsonPathListener[] listeners;
+        boolean raw;
+        boolean primitive;
 
         Binding(JsonPath jsonPath, JsonPathListener[] listeners) {
             this.jsonPath = jsonPath;
             this.listeners = listeners;
+            this.primitive = listeners != null && listeners.length > 0
+                && Arrays.stream(listeners).allMatch(listener -> listener instanceof PrimitivePathListener);
         }
 
         JsonPathListener[] getListeners() {
@@ -140,6 +151,7 @@ public class SurfingConfiguration {
                 }
             }
             configuration.hasFilter = this.hasFilter;
+            configuration.pathAutomaton = new PathAutomaton(configuration.orderedBindings());
             return configuration;
         }
 
@@ -222,6 +234,106 @@ public class SurfingConfiguration {
             return this;
         }
 
+        public Builder bindRaw(String path, JsonRawListener... rawListeners) {
+            return bindRaw(compile(path), rawListeners);
+        }
+
+        /**
+         * Bind listeners receiving the source bytes of the matched values. The path must not contain filters.
+         *
+         * @param jsonPath     JsonPath
+         * @param rawListeners listeners
+         * @return builder
+         */
+        public Builder bindRaw(JsonPath jsonPath, JsonRawListener... rawListeners) {
+            if (!getFilterConfigs(jsonPath).isEmpty()) {
+                throw new IllegalArgumentException("Raw bindings do not support filters: " + jsonPath);
+            }
+            JsonPathListener[] listeners = new JsonPathListener[rawListeners.length];
+            for (int i = 0; i < rawListeners.length; i++) {
+                JsonRawListener rawListener = rawListeners[i];
+                listeners[i] = (value, context) -> rawListener.onRawValue((ByteBuffer) value, context);
+            }
+            addBinding(jsonPath, listeners, null).raw = true;
+            configuration.hasRawBinding = true;
+            return this;
+        }
+
+        public Builder bindLong(String path, LongPathListener... longListeners) {
+            return bindLong(compile(path), longListeners);
+        }
+
+        /**
+         * Bind listeners receiving matched numbers as unboxed longs
+         *
+         * @param jsonPath      JsonPath
+         * @param longListeners listeners
+         * @return builder
+         */
+        public Builder bindLong(JsonPath jsonPath, LongPathListener... longListeners) {
+            return bind(jsonPath, PrimitivePathListener.of(configuration, longListeners));
+        }
+
+        public Builder bindDouble(String path, DoublePathListener... doubleListeners) {
+            return bindDouble(compile(path), doubleListeners);
+        }
+
+        /**
+         * Bind listeners receiving matched numbers as unboxed doubles
+         *
+         * @param jsonPath        JsonPath
+         * @param doubleListeners listeners
+         * @return builder
+         */
+        public Builder bindDouble(JsonPath jsonPath, DoublePathListener... doubleListeners) {
+            return bind(jsonPath, PrimitivePathListener.of(configuration, doubleListeners));
+        }
+
+        public Builder bindBoolean(String path, BooleanPathListener... booleanListeners) {
+            return bindBoolean(compile(path), booleanListeners);
+        }
+
+        /**
+         * Bind listeners receiving matched booleans as primitives
+         *
+         * @param jsonPath         JsonPath
+         * @param booleanListeners listeners
+         * @return builder
+         */
+        public Builder bindBoolean(JsonPath jsonPath, BooleanPathListener... booleanListeners) {
+            return bind(jsonPath, PrimitivePathListener.of(configuration, booleanListeners));
+        }
+
+        public Builder bindCharSequence(String path, CharSequencePathListener... textListeners) {
+            return bindCharSequence(compile(path), textListeners);
+        }
+
+        /**
+         * Bind listeners receiving the text of matched strings, read in place when the parser can
+         *
+         * @param jsonPath      JsonPath
+         * @param textListeners listeners
+         * @return builder
+         */
+        public Builder bindCharSequence(JsonPath jsonPath, CharSequencePathListener... textListeners) {
+            return bind(jsonPath, PrimitivePathListener.of(configuration, textListeners));
+        }
+
+        public Builder aggregate(String path, Aggregate<?>... aggregates) {
+            return aggregate(compile(path), aggregates);
+        }
+
+        /**
+         * Bind aggregates of the matched values, read them once surfing has finished
+         *
+         * @param jsonPath   JsonPath
+         * @param aggregates aggregates
+         * @return builder
+         */
+        public Builder aggregate(JsonPath jsonPath, Aggregate<?>... aggregates) {
+            return bind(jsonPath, PrimitivePathListener.of(configuration, aggregates));
+        }
+
         private ArrayList<Binding> getDefiniteBindings(int depth) {
             ArrayList<Binding> bindings = definiteBindings.get(depth);
             if (bindings == null) {
@@ -266,20 +378,25 @@ public class SurfingConfiguration {
                     previous = filterBiding;
                 }
             }
+            addBinding(jsonPath, jsonPathListeners, previous);
+            return this;
+        }
+
+        private Binding addBinding(JsonPath jsonPath, JsonPathListener[] jsonPathListeners, Binding dependency) {
+            Binding binding;
             if (!jsonPath.isDefinite()) {
                 int minimumDepth = JsonPath.minimumPathDepth(jsonPath);
-                IndefinitePathBinding binding = new IndefinitePathBinding(jsonPath, jsonPathListeners, minimumDepth);
-                binding.dependency = previous;
-                indefiniteBindings.add(binding);
+                IndefinitePathBinding indefiniteBinding = new IndefinitePathBinding(jsonPath, jsonPathListeners, minimumDepth);
+                indefiniteBindings.add(indefiniteBinding);
+                binding = indefiniteBinding;
             } else {
                 int depth = jsonPath.pathDepth();
                 updateMinMaxDepth(depth);
-                ArrayList<Binding> bindings = getDefiniteBindings(depth);
-                Binding binding = new Binding(jsonPath, jsonPathListeners);
-                binding.dependency = previous;
-                bindings.add(binding);
+                binding = new Binding(jsonPath, jsonPathListeners);
+                getDefiniteBindings(depth).add(binding);
             }
-            return this;
+            binding.dependency = dependency;
+            return binding;
         }
 
         public Builder skipOverlappedPath() {
@@ -351,6 +468,88 @@ public class SurfingConfiguration {
         return this.definitePathLookup;
     }
 
+    /**
+     * Indefinite bindings come first ordered by minimum path depth, followed by definite bindings in binding order
+     */
+    private Binding[] orderedBindings() {
+        ArrayList<Binding> bindings = new ArrayList<>(Arrays.asList(indefinitePathLookup));
+        if (definitePathLookup != null) {
+            for (Binding[] definiteBindings : definitePathLookup) {
+                if (definiteBindings != null) {
+                    bindings.addAll(Arrays.asList(definiteBindings));
+                }
+            }
+        }
+        return bindings.toArray(new Binding[0]);
+    }
+
+    /**
+     * Copies this configuration with every listener replaced by its mapping. Filter bindings without listeners are copied
+     * as they are.
+     */
+    SurfingConfiguration withListeners(UnaryOperator<JsonPathListener> mapping) {
+        SurfingConfiguration copy = new SurfingConfiguration();
+        copy.parserCharset = parserCharset;
+        copy.minDepth = minDepth;
+        copy.maxDepth = maxDepth;
+        copy.skipOverlappedPath = skipOverlappedPath;
+        copy.hasFilter = hasFilter;
+        copy.hasRawBinding = hasRawBinding;
+        copy.closeParserOnStop = closeParserOnStop;
+        copy.jsonProvider = jsonProvider;
+        copy.errorHandlingStrategy = errorHandlingStrategy;
+        Map<Binding, Binding> copies = new IdentityHashMap<>();
+        copy.indefinitePathLookup = new IndefinitePathBinding[indefinitePathLookup.length];
+        for (int i = 0; i < indefinitePathLookup.length; i++) {
+            copy.indefinitePathLookup[i] = (IndefinitePathBinding) copyBinding(indefinitePathLookup[i], mapping, copies);
+        }
+        if (definitePathLookup != null) {
+            copy.definitePathLookup = new Binding[definitePathLookup.length][];
+            for (int i = 0; i < definitePathLookup.length; i++) {
+                if (definitePathLookup[i] != null) {
+                    copy.definitePathLookup[i] = new Binding[definitePathLookup[i].length];
+                    for (int j = 0; j < definitePathLookup[i].length; j++) {
+                        copy.definitePathLookup[i][j] = copyBinding(definitePathLookup[i][j], mapping, copies);
+                    }
+                }
+            }
+        }
+        copy.pathAutomaton = new PathAutomaton(copy.orderedBindings());
+        return copy;
+    }
+
+    private static Binding copyBinding(Binding binding, UnaryOperator<JsonPathListener> mapping,
+        Map<Binding, Binding> copies) {
+        if (binding == null) {
+            return null;
+        }
+        Binding copy = copies.get(binding);
+        if (copy != null) {
+            return copy;
+        }
+        JsonPathListener[] listeners = null;
+        if (binding.listeners != null) {
+            listeners = new JsonPathListener[binding.listeners.length];
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i] = mapping.apply(binding.listeners[i]);
+            }
+        }
+        if (binding instanceof IndefinitePathBinding) {
+            copy = new IndefinitePathBinding(binding.jsonPath, listeners, ((IndefinitePathBinding) binding).minimumPathDepth);
+        } else {
+            copy = new Binding(binding.jsonPath, listeners);
+        }
+        copy.filter = binding.filter;
+        copy.raw = binding.raw;
+        copies.put(binding, copy);
+        copy.dependency = copyBinding(binding.dependency, mapping, copies);
+        return copy;
+    }
+
+    PathAutomaton getPathAutomaton() {
+        return pathAutomaton;
+    }
+
     public Charset getParserCharset() {
         return parserCharset;
     }
@@ -363,6 +562,10 @@ public class SurfingConfiguration {
         return hasFilter;
     }
 
+    boolean hasRawBinding() {
+        return hasRawBinding;
+    }
+
     public void setCloseParserOnStop(boolean closeParserOnStop) {
         this.closeParserOnStop = closeParserOnStop;
     }
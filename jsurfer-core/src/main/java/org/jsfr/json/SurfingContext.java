@@ -25,7 +25,6 @@
 package org.jsfr.json;
 
 import org.jsfr.json.SurfingConfiguration.Binding;
-import org.jsfr.json.SurfingConfiguration.IndefinitePathBinding;
 import org.jsfr.json.filter.CloneableJsonPathFilter;
 import org.jsfr.json.filter.JsonPathFilter;
 import org.jsfr.json.path.ArrayIndex;
@@ -33,8 +32,10 @@ import org.jsfr.json.path.ChildNode;
 import org.jsfr.json.path.PathOperator;
 import org.jsfr.json.path.PathOperator.Type;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -44,15 +45,30 @@ import java.util.function.Function;
  *
  * SurfingContext is not thread-safe.
  */
+@SuppressWarnings("checkstyle:MethodCount")
 public class SurfingContext implements ParsingContext, JsonSaxHandler {
 
+    private static final int INITIAL_STATE_CAPACITY = 20;
+
     private boolean stopped;
     private boolean paused;
+    private boolean ended;
+    private long events;
+    private long eventLimit = -1;
     private JsonPosition currentPosition;
+    private PathAutomaton.State[] states = new PathAutomaton.State[INITIAL_STATE_CAPACITY];
+    private final ArrayList<JsonPathListener> matchedListeners = new ArrayList<>();
+    private final ArrayDeque<JsonCollector> collectorPool = new ArrayDeque<>();
+    private int validStates;
     private Map<String, Object> transientMap;
     private final ContentDispatcher dispatcher = new ContentDispatcher();
     private final FilterVerifierDispatcher filterVerifierDispatcher;
     private final SurfingConfiguration config;
+    private RawByteSource rawSource;
+    private final ArrayList<JsonPathListener> matchedRawListeners = new ArrayList<>();
+    private final ArrayList<RawCapture> rawCaptures = new ArrayList<>();
+    private int rawDepth;
+    private ProjectionWriter projection;
 
     SurfingContext(SurfingConfiguration config) {
         this.config = config;
@@ -66,108 +82,169 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
 
     private void doMatching(PrimitiveHolder primitiveHolder) {
 
-        LinkedList<JsonPathListener> listeners = null;
-        int currentDepth = currentPosition.pathDepth();
+        matchedListeners.clear();
+        matchedRawListeners.clear();
+        Binding[] bindings = nextState(currentPosition.pathDepth()).getMatchedBindings();
 
         if (config.hasFilter()) {
 
             // skip matching if "skipOverlappedPath" is enabled
-            if (config.isSkipOverlappedPath() && dispatcher.size() > 1) {
+            if (config.isSkipOverlappedPath() && (dispatcher.size() > 1 || rawDepth > 0)) {
                 return;
             }
-            for (IndefinitePathBinding binding : config.getIndefinitePathLookup()) {
-                if (binding.minimumPathDepth <= currentDepth) {
-                    listeners = doMatchingWithFilter(binding, primitiveHolder, listeners, false);
+            for (Binding binding : bindings) {
+                if (binding.raw) {
+                    doRawMatching(binding, primitiveHolder);
                 } else {
-                    break;
-                }
-            }
-            Binding[] bindings = config.getDefinitePathBind(currentDepth);
-            if (bindings != null) {
-                for (Binding binding : bindings) {
-                    listeners = doMatchingWithFilter(binding, primitiveHolder, listeners, true);
+                    doMatchingWithFilter(binding, primitiveHolder);
                 }
             }
 
         } else {
             // skip matching if "skipOverlappedPath" is enabled
-            if (config.isSkipOverlappedPath() && !dispatcher.isEmpty()) {
+            if (config.isSkipOverlappedPath() && (!dispatcher.isEmpty() || rawDepth > 0)) {
                 return;
             }
-
-            for (IndefinitePathBinding binding : config.getIndefinitePathLookup()) {
-                if (binding.minimumPathDepth <= currentDepth) {
-                    listeners = doMatching(binding, primitiveHolder, listeners, false);
+            for (Binding binding : bindings) {
+                if (binding.raw) {
+                    doRawMatching(binding, primitiveHolder);
                 } else {
-                    break;
-                }
-            }
-            Binding[] bindings = config.getDefinitePathBind(currentDepth);
-            if (bindings != null) {
-                for (Binding binding : bindings) {
-                    listeners = doMatching(binding, primitiveHolder, listeners, true);
+                    doMatching(binding, primitiveHolder);
                 }
             }
 
         }
 
-        if (listeners != null) {
-            JsonCollector collector = new JsonCollector(listeners, this, config);
+        if (!matchedListeners.isEmpty()) {
+            // collectors return to the pool once their value is dispatched
+            JsonCollector collector = collectorPool.poll();
+            if (collector == null) {
+                collector = new JsonCollector(this, config, collectorPool);
+            }
+            collector.collectFor(matchedListeners);
             dispatcher.addReceiver(collector);
         }
+        if (!matchedRawListeners.isEmpty()) {
+            startRawCapture();
+        }
 
     }
 
-    private LinkedList<JsonPathListener> doMatchingWithFilter(Binding binding, PrimitiveHolder primitiveHolder,
-        LinkedList<JsonPathListener> listeners, boolean definiteBinding) {
-        boolean matched = definiteBinding
-            ? binding.jsonPath.match(currentPosition) : binding.jsonPath.matchWithDeepScan(currentPosition);
-        if (matched) {
-            if (binding.filter != null) {
-                // JsonPathFilter is stateful so clone is required
-                // TODO not clone for stateless filter
-                this.filterVerifierDispatcher.addVerifier(binding, new JsonFilterVerifier(currentPosition, config,
-                    (JsonPathFilter) ((CloneableJsonPathFilter) binding.filter).cloneMe(),
-                    this.filterVerifierDispatcher.getVerifier(binding.dependency)));
+    /**
+     * Keeps the automaton states of all enclosing positions in step with the json position. Operators below the top
+     * of the position never change, so their states are computed once when the position grows.
+     */
+    private void syncStates() {
+        int depth = currentPosition.pathDepth();
+        if (validStates > depth) {
+            validStates = depth;
+        }
+        if (states.length < depth) {
+            states = Arrays.copyOf(states, Math.max(depth, states.length * 2));
+        }
+        while (validStates < depth) {
+            states[validStates] = nextState(validStates);
+            validStates++;
+        }
+    }
+
+    /**
+     * @param depth depth of the state, the states above it being in sync
+     * @return state at the operator of the current position at depth - 1
+     */
+    private PathAutomaton.State nextState(int depth) {
+        PathAutomaton.State state = states[depth - 1];
+        return currentPosition.isUndecoded(depth - 1) ? state.nextOtherEntry()
+            : state.next(currentPosition.get(depth - 1));
+    }
+
+    private void doMatchingWithFilter(Binding binding, PrimitiveHolder primitiveHolder) {
+        if (binding.filter != null) {
+            // a stateful JsonPathFilter is cloned for every candidate, a stateless one is shared
+            CloneableJsonPathFilter filter = (CloneableJsonPathFilter) binding.filter;
+            this.filterVerifierDispatcher.addVerifier(binding, new JsonFilterVerifier(currentPosition, config,
+                filter.isStateless() ? filter : (JsonPathFilter) filter.cloneMe(),
+                this.filterVerifierDispatcher.getVerifier(binding.dependency)));
+        } else {
+            if (primitiveHolder != null && binding.primitive && binding.dependency == null) {
+                dispatchPrimitive(binding.getListeners(), primitiveHolder);
+            } else if (primitiveHolder != null) {
+                dispatchPrimitiveWithFilter(binding.getListeners(), primitiveHolder.getValue(), binding.dependency);
             } else {
-                if (primitiveHolder != null) {
-                    dispatchPrimitiveWithFilter(binding.getListeners(), primitiveHolder.getValue(), binding.dependency);
-                } else {
-                    JsonFilterVerifier verifier = this.filterVerifierDispatcher.getVerifier(binding.dependency);
-                    return mergeCollections(listeners, binding.listeners,
-                            verifier != null ? verifier::addListener : Function.identity());
-                }
+                JsonFilterVerifier verifier = this.filterVerifierDispatcher.getVerifier(binding.dependency);
+                mergeCollections(matchedListeners, binding.listeners,
+                        verifier != null ? verifier::addListener : Function.identity());
             }
         }
-        return listeners;
     }
 
     /**
      * Adds elements from `srcColl` into `targetColl`, transforming them using
-     * the `srcMapping`. If `targetColl` is null, creates a new collection.
+     * the `srcMapping`.
      */
-    private static <T> LinkedList<T> mergeCollections(LinkedList<T> targetColl, T[] srcColl, Function<T, T> srcMapping) {
-        if (targetColl == null) {
-            targetColl = new LinkedList<>();
-        }
+    private static <T> void mergeCollections(ArrayList<T> targetColl, T[] srcColl, Function<T, T> srcMapping) {
         for (T element : srcColl) {
             targetColl.add(srcMapping.apply(element));
         }
-        return targetColl;
     }
 
-    private LinkedList<JsonPathListener> doMatching(Binding binding, PrimitiveHolder primitiveHolder,
-        LinkedList<JsonPathListener> listeners, boolean definiteBinding) {
-        boolean matched = definiteBinding ? binding.jsonPath.match(currentPosition)
-            : binding.jsonPath.matchWithDeepScan(currentPosition);
-        if (matched) {
-            if (primitiveHolder != null) {
-                dispatchPrimitive(binding.getListeners(), primitiveHolder.getValue());
-            } else {
-                return mergeCollections(listeners, binding.listeners, Function.identity());
-            }
+    private void doMatching(Binding binding, PrimitiveHolder primitiveHolder) {
+        if (primitiveHolder != null && binding.primitive) {
+            dispatchPrimitive(binding.getListeners(), primitiveHolder);
+        } else if (primitiveHolder != null) {
+            dispatchPrimitive(binding.getListeners(), primitiveHolder.getValue());
+        } else {
+            mergeCollections(matchedListeners, binding.listeners, Function.identity());
+        }
+    }
+
+    private void doRawMatching(Binding binding, PrimitiveHolder primitiveHolder) {
+        if (primitiveHolder != null) {
+            dispatchPrimitive(binding.getListeners(), rawSource.slice(rawSource.valueStart(), rawSource.position()));
+        } else {
+            mergeCollections(matchedRawListeners, binding.listeners, Function.identity());
+        }
+    }
+
+    /**
+     * Starts capturing the bytes of the container about to be entered. The root value has not been read when it is
+     * matched, so its capture starts once it is.
+     */
+    private void startRawCapture() {
+        if (rawDepth == rawCaptures.size()) {
+            rawCaptures.add(new RawCapture());
+        }
+        RawCapture capture = rawCaptures.get(rawDepth++);
+        capture.depth = currentPosition.pathDepth();
+        capture.start = currentPosition.peek().getType() == Type.ROOT ? -1 : rawSource.valueStart();
+        capture.listeners.clear();
+        capture.listeners.addAll(matchedRawListeners);
+        if (rawDepth == 1 && capture.start >= 0) {
+            rawSource.retain(capture.start);
+        }
+    }
+
+    private void startRootRawValue() {
+        if (rawDepth > 0 && rawCaptures.get(0).start < 0) {
+            rawCaptures.get(0).start = rawSource.valueStart();
+            rawSource.retain(rawCaptures.get(0).start);
+        }
+    }
+
+    /**
+     * Dispatches the captured bytes once the position is back at the depth of the captured value
+     */
+    private void endRawValue() {
+        if (rawDepth == 0 || rawCaptures.get(rawDepth - 1).depth != currentPosition.pathDepth()) {
+            return;
+        }
+        RawCapture capture = rawCaptures.get(--rawDepth);
+        DispatchUtil.dispatchValueToListeners(rawSource.slice(capture.start, rawSource.position()), capture.listeners, this,
+            config.getErrorHandlingStrategy());
+        capture.listeners.clear();
+        if (rawDepth == 0) {
+            rawSource.release();
         }
-        return listeners;
     }
 
     private void dispatchPrimitiveWithFilter(JsonPathListener[] listeners, Object primitive, Binding dependency) {
@@ -186,9 +263,33 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
         DispatchUtil.dispatchValueToListeners(primitive, listeners, this, config.getErrorHandlingStrategy());
     }
 
+    /**
+     * Hands the holder itself to primitive specialized listeners, which decode the value without the json provider
+     */
+    private void dispatchPrimitive(JsonPathListener[] listeners, PrimitiveHolder primitiveHolder) {
+        for (JsonPathListener listener : listeners) {
+            if (isStopped()) {
+                break;
+            }
+            try {
+                ((PrimitivePathListener) listener).onPrimitive(primitiveHolder, this);
+            } catch (Exception e) {
+                config.getErrorHandlingStrategy().handleExceptionFromListener(e, this);
+            }
+        }
+    }
+
     @Override
     public boolean startJSON() {
-        currentPosition = JsonPosition.start();
+        if (config.hasRawBinding() && rawSource == null) {
+            throw new UnsupportedOperationException("Raw bindings need a parser reading bytes itself, like NativeParser");
+        }
+        currentPosition = currentPosition == null ? JsonPosition.start() : currentPosition.restart();
+        ended = false;
+        events = 0;
+        states[0] = config.getPathAutomaton().initialState();
+        validStates = 1;
+        rawDepth = 0;
         doMatching(null);
         dispatcher.startJSON();
         return true;
@@ -196,10 +297,8 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
 
     @Override
     public boolean endJSON() {
+        ended = true;
         dispatcher.endJSON();
-        // clear resources
-        currentPosition.clear();
-        currentPosition = null;
         this.stop();
         return true;
     }
@@ -220,12 +319,15 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
                 doMatching(null);
                 break;
             case ROOT:
+                startRootRawValue();
                 break;
             default:
                 throw new IllegalStateException();
         }
         currentPosition.stepIntoObject();
+        syncStates();
         dispatcher.startObject();
+        events++;
         return true;
     }
 
@@ -235,7 +337,10 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
             return false;
         }
         currentPosition.stepOutObject();
+        syncStates();
         dispatcher.endObject();
+        endRawValue();
+        events++;
         return true;
     }
 
@@ -246,6 +351,7 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
         }
         currentPosition.updateObjectEntry(key);
         dispatcher.startObjectEntry(key);
+        events++;
         return true;
     }
 
@@ -265,16 +371,98 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
                 doMatching(null);
                 break;
             case ROOT:
+                startRootRawValue();
                 break;
             default:
                 throw new IllegalStateException();
         }
 
         currentPosition.stepIntoArray();
+        syncStates();
         dispatcher.startArray();
+        events++;
         return true;
     }
 
+    /**
+     * Tells the parser, right after startObject or startArray, whether the content of the container can be skipped. It
+     * is true when no bound JsonPath can match anything inside and no collector or filter is consuming the events, and
+     * a projection being written leaves the content out. A parser that skips must still report the corresponding
+     * endObject or endArray event.
+     *
+     * @return Whether the children of the current container can be skipped
+     */
+    public boolean shouldSkipChildren() {
+        if (shouldBreak() || eventLimit >= 0) {
+            return false;
+        }
+        if (projection != null ? receivers() != 1 || !projection.shouldSkipChildren() : receivers() != 0) {
+            return false;
+        }
+        int depth = currentPosition.pathDepth();
+        return currentPosition.isUndecoded(depth - 1) ? states[depth - 1].nextOtherEntry().isDead()
+            : states[depth - 1].isDeadBelow(currentPosition.peek());
+    }
+
+    private int receivers() {
+        return filterVerifierDispatcher == null ? dispatcher.size()
+            : dispatcher.size() - 1 + filterVerifierDispatcher.size();
+    }
+
+    /**
+     * Tells a parser holding the raw UTF-8 bytes of the next field name whether it has to decode it. A name outside
+     * the returned set can only lead to a position where nothing matches, so the parser may report it through
+     * {@link #startUndecodedObjectEntry()} instead.
+     *
+     * @return UTF-8 forms of the names to report through {@link #startObjectEntry(String)}, or null for every name
+     */
+    Utf8NameSet getDecodedNames() {
+        return receivers() == 0 ? states[currentPosition.pathDepth() - 1].getDecodedNames() : null;
+    }
+
+    /**
+     * Starts an object entry whose name is not one of {@link #getDecodedNames()}
+     *
+     * @return Whether to continue parsing
+     */
+    boolean startUndecodedObjectEntry() {
+        if (shouldBreak()) {
+            return false;
+        }
+        // no one is receiving the events, so the entry is not dispatched
+        currentPosition.updateUndecodedObjectEntry();
+        events++;
+        return true;
+    }
+
+    /**
+     * Makes {@link #shouldBreak()} true once the parser has reported as many start, end, object entry and primitive events
+     * since startJSON, for a parser that must not read beyond the tokens known to be complete. Meanwhile no children are
+     * skipped, so that every token is reported.
+     *
+     * @param limit number of events, or -1 for no limit
+     */
+    void limitEvents(long limit) {
+        this.eventLimit = limit;
+    }
+
+    /**
+     * @return whether parsing broke off because the event limit was reached
+     */
+    boolean isEventLimitReached() {
+        return events == eventLimit;
+    }
+
+    /**
+     * Moves the index of the current array forward as if count elements had been read, for a parser resuming in the
+     * middle of an array
+     *
+     * @param count number of skipped elements
+     */
+    void skipArrayElements(int count) {
+        ((ArrayIndex) currentPosition.peek()).increaseArrayIndex(count);
+    }
+
     private void accumulateArrayIndex(PathOperator arrayIndex) {
         if (arrayIndex instanceof ArrayIndex) {
             ((ArrayIndex) arrayIndex).increaseArrayIndex();
@@ -289,7 +477,10 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
             return false;
         }
         currentPosition.stepOutArray();
+        syncStates();
         dispatcher.endArray();
+        endRawValue();
+        events++;
         return true;
     }
 
@@ -309,12 +500,15 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
                 doMatching(primitiveHolder);
                 break;
             case ROOT:
+                startRootRawValue();
+                endRawValue();
                 break;
             default:
                 throw new IllegalStateException();
         }
 
         dispatcher.primitive(primitiveHolder);
+        events++;
         return true;
     }
 
@@ -363,7 +557,7 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
     }
 
     public boolean shouldBreak() {
-        return this.stopped || this.paused;
+        return this.stopped || this.paused || this.events == this.eventLimit;
     }
 
     @Override
@@ -392,8 +586,61 @@ public class SurfingContext implements ParsingContext, JsonSaxHandler {
         return this.paused;
     }
 
+    /**
+     * @param rawSource source of the bytes captured for raw bindings
+     */
+    void setRawSource(RawByteSource rawSource) {
+        this.rawSource = rawSource;
+    }
+
+    /**
+     * @return source of the bytes of the current value, or null if the parser does not hand them out
+     */
+    RawByteSource getRawSource() {
+        return rawSource;
+    }
+
+    /**
+     * Sends the events of the whole document to the writer of a projection too, which tracks the structure itself and
+     * tells which containers the parser can skip
+     *
+     * @param writer writer receiving every event after the position of the context has been updated
+     */
+    void setProjection(ProjectionWriter writer) {
+        this.projection = writer;
+        dispatcher.addReceiver(writer);
+    }
+
+    /**
+     * @return whether the last document surfed with this context was read to its end, so that the context can be
+     * {@link #reset()} for another one
+     */
+    boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Makes a context whose previous document ended for another document, dropping the saved transient data
+     */
+    void reset() {
+        this.stopped = false;
+        this.paused = false;
+        this.transientMap = null;
+    }
+
     public SurfingConfiguration getConfig() {
         return config;
     }
 
+    /**
+     * Listeners of a raw binding waiting for the end of the container they matched
+     */
+    private static final class RawCapture {
+
+        private final ArrayList<JsonPathListener> listeners = new ArrayList<>();
+        private int depth;
+        private long start;
+
+    }
+
 }
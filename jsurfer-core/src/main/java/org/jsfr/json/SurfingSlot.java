@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * One SurfingContext, and with the built-in tokenizer its parsers, reused for documents surfed one after the other on a
+ * single thread. A context whose document did not end, because parsing failed or was stopped, is replaced rather than
+ * reused.
+ *
+ * @param <C> type of the reused context
+ */
+final class SurfingSlot<C extends SurfingContext> {
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final JsonParserAdapter jsonParserAdapter;
+    private final SurfingConfiguration configuration;
+    private final Function<SurfingConfiguration, C> contextFactory;
+    private final boolean nativeUtf8;
+    private BytesInputStream bytesStream = new BytesInputStream();
+    private C context;
+    private NativeParser.NativeResumableParser bytesParser;
+    private NativeParser.NativeResumableParser streamParser;
+
+    SurfingSlot(JsonParserAdapter jsonParserAdapter, SurfingConfiguration configuration,
+        Function<SurfingConfiguration, C> contextFactory) {
+        this.jsonParserAdapter = jsonParserAdapter;
+        this.configuration = configuration;
+        this.contextFactory = contextFactory;
+        Charset charset = configuration.getParserCharset();
+        this.nativeUtf8 = jsonParserAdapter instanceof NativeParser
+            && (charset == null || StandardCharsets.UTF_8.equals(charset));
+    }
+
+    /**
+     * @return context for the next document, to be surfed by one of the parse methods
+     */
+    C next() {
+        if (context == null || !context.isEnded()) {
+            // also the case when a listener surfs another document with this slot, so nothing in use is shared
+            context = contextFactory.apply(configuration);
+            bytesStream = new BytesInputStream();
+            bytesParser = null;
+            streamParser = null;
+        } else {
+            context.reset();
+        }
+        return context;
+    }
+
+    void parse(byte[] bytes, int start, int end) {
+        try {
+            if (!nativeUtf8) {
+                bytesStream.reset(bytes, start, end);
+                jsonParserAdapter.parse(bytesStream, context);
+            } else if (bytesParser == null) {
+                bytesParser = new NativeParser.NativeResumableParser(new Utf8Lexer(bytes, start, end), context);
+                bytesParser.parse();
+            } else {
+                bytesParser.lexer.reset(bytes, start, end);
+                bytesParser.parse();
+            }
+        } finally {
+            // a slot outlives its documents on pooled threads, it must not keep the last one reachable
+            bytesStream.reset(NO_BYTES, 0, 0);
+            if (bytesParser != null) {
+                bytesParser.lexer.reset(NO_BYTES, 0, 0);
+            }
+        }
+    }
+
+    void parse(String json) {
+        if (nativeUtf8) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            parse(bytes, 0, bytes.length);
+        } else {
+            jsonParserAdapter.parse(json, context);
+        }
+    }
+
+    void parse(InputStream input) {
+        if (!nativeUtf8) {
+            jsonParserAdapter.parse(input, context);
+        } else if (streamParser == null) {
+            streamParser = new NativeParser.NativeResumableParser(new Utf8Lexer(input), context);
+            parseStream();
+        } else {
+            streamParser.lexer.reset(input);
+            parseStream();
+        }
+    }
+
+    private void parseStream() {
+        try {
+            streamParser.parse();
+        } finally {
+            streamParser.lexer.releaseInput();
+        }
+    }
+
+    private static final class BytesInputStream extends ByteArrayInputStream {
+
+        BytesInputStream() {
+            super(new byte[0]);
+        }
+
+        void reset(byte[] bytes, int start, int end) {
+            this.buf = bytes;
+            this.pos = start;
+            this.mark = start;
+            this.count = end;
+        }
+
+    }
+
+}
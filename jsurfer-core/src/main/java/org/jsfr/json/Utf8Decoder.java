@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.exception.JsonSurfingException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the content of a JSON string token with escape sequences
+ */
+final class Utf8Decoder {
+
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    private Utf8Decoder() {
+    }
+
+    /**
+     * @param buf   buffer
+     * @param start position after the opening quote
+     * @param end   position of the closing quote
+     * @return decoded string
+     */
+    static String decode(byte[] buf, int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        int run = start;
+        int p = start;
+        while (p < end) {
+            if (buf[p] != '\\') {
+                p++;
+                continue;
+            }
+            sb.append(new String(buf, run, p - run, StandardCharsets.UTF_8));
+            byte c = buf[p + 1];
+            p += 2;
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) c);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append(hexChar(buf, p, end));
+                    p += UNICODE_ESCAPE_LENGTH;
+                    break;
+                default:
+                    throw new JsonSurfingException("Illegal escape '\\" + (char) (c & 0xff) + "'");
+            }
+            run = p;
+        }
+        sb.append(new String(buf, run, end - run, StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    private static char hexChar(byte[] buf, int p, int end) {
+        if (p + UNICODE_ESCAPE_LENGTH > end) {
+            throw new JsonSurfingException("Incomplete unicode escape");
+        }
+        int value = 0;
+        for (int i = p; i < p + UNICODE_ESCAPE_LENGTH; i++) {
+            int digit = Character.digit(buf[i], 16);
+            if (digit < 0) {
+                throw new JsonSurfingException("Illegal unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+}
@@ -0,0 +1,828 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import org.jsfr.json.exception.JsonSurfingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pull tokenizer working directly on UTF-8 bytes. Strings and numbers are only located, their bytes stay in the buffer
+ * until the current token is decoded on request or the next token is read. The lexer never blocks without an input stream,
+ * it reports NOT_AVAILABLE instead and picks up from the start of the incomplete token once more bytes are fed.
+ */
+@SuppressWarnings("checkstyle:MethodCount")
+final class Utf8Lexer {
+
+    enum Token {
+        START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, FIELD_NAME, STRING, NUMBER, TRUE, FALSE, NULL, NOT_AVAILABLE, END
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int EXPECT_VALUE = 0;
+    private static final int EXPECT_FIRST_VALUE = 1;
+    private static final int EXPECT_NAME = 2;
+    private static final int EXPECT_FIRST_NAME = 3;
+    private static final int EXPECT_COLON = 4;
+    private static final int EXPECT_SEPARATOR = 5;
+
+    private static final int LONG_SAFE_DIGITS = 18;
+
+    private static final byte[] TRUE_BYTES = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE_BYTES = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL_BYTES = {'n', 'u', 'l', 'l'};
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * Bytes that end the fast scan of a string: the closing quote, a backslash and control characters
+     */
+    private static final boolean[] STRING_STOPS = new boolean[256];
+
+    private static final boolean[] WHITESPACES = new boolean[256];
+
+    private static final boolean[] NUMBER_BYTES = new boolean[256];
+
+    private static final boolean[] DIGITS = new boolean[256];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            STRING_STOPS[i] = true;
+        }
+        STRING_STOPS['"'] = true;
+        STRING_STOPS['\\'] = true;
+        for (char c : " \n\r\t".toCharArray()) {
+            WHITESPACES[c] = true;
+        }
+        for (char c : "0123456789-+.eE".toCharArray()) {
+            NUMBER_BYTES[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            DIGITS[c] = true;
+        }
+    }
+
+    private byte[] buffer;
+    private int pos;
+    private int limit;
+    private InputStream input;
+    private MappedInputStream mapped;
+    private boolean ended;
+    private long discarded;
+
+    private int state = EXPECT_VALUE;
+    private boolean[] objectStack = new boolean[32];
+    private int depth;
+    private int baseDepth;
+
+    private int tokenStart;
+    private int tokenEnd;
+    private boolean escaped;
+    private boolean integral;
+
+    private int skippedDepth;
+    private boolean skippingString;
+
+    private long valueStart;
+    private long retained = -1;
+
+    private final NameTable names = new NameTable();
+
+    /**
+     * Tokenizes a complete document
+     */
+    Utf8Lexer(byte[] bytes, int start, int end) {
+        this(bytes, start, end, false);
+    }
+
+    /**
+     * Tokenizes a complete document, or with arrayElements a run of comma separated array elements cut out of one. In
+     * that case the lexer starts inside the array and reports END after the last element instead of expecting the
+     * closing bracket.
+     */
+    Utf8Lexer(byte[] bytes, int start, int end, boolean arrayElements) {
+        reset(bytes, start, end);
+        if (arrayElements) {
+            push(false);
+            baseDepth = 1;
+        }
+    }
+
+    /**
+     * Tokenizes a stream, blocking on it whenever the buffer runs out
+     */
+    Utf8Lexer(InputStream input) {
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+        this.input = input;
+    }
+
+    /**
+     * Tokenizes a memory-mapped file. Skipped objects and arrays are scanned in the mapped regions themselves, only the
+     * bytes around the tokens that are returned go through the buffer.
+     */
+    Utf8Lexer(MappedInputStream mapped) {
+        this((InputStream) mapped);
+        this.mapped = mapped;
+    }
+
+    /**
+     * Tokenizes bytes handed over by {@link #feed(byte[], int, int)}
+     */
+    Utf8Lexer() {
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Starts over on another complete document, keeping the names interned so far
+     */
+    void reset(byte[] bytes, int start, int end) {
+        this.buffer = bytes;
+        this.pos = start;
+        this.limit = end;
+        this.input = null;
+        this.mapped = null;
+        this.ended = true;
+        this.discarded = -start;
+        this.state = EXPECT_VALUE;
+        this.depth = 0;
+        this.baseDepth = 0;
+        this.skippedDepth = 0;
+        this.retained = -1;
+        skipByteOrderMark();
+    }
+
+    /**
+     * Starts over on another stream, reading into the buffer of this lexer. Only a lexer tokenizing a stream owns its
+     * buffer, any other lexer would read into bytes handed over by the caller.
+     */
+    void reset(InputStream stream) {
+        reset(buffer, 0, 0);
+        this.input = stream;
+        this.ended = false;
+    }
+
+    /**
+     * Lets go of the stream of the last document, keeping the buffer owned by this lexer for the next one
+     */
+    void releaseInput() {
+        reset(buffer, 0, 0);
+    }
+
+    /**
+     * @return false if the input has already ended
+     */
+    boolean feed(byte[] bytes, int start, int end) {
+        if (ended) {
+            return false;
+        }
+        int length = end - start;
+        compact();
+        if (buffer.length - limit < length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + length));
+        }
+        System.arraycopy(bytes, start, buffer, limit, length);
+        limit += length;
+        skipByteOrderMark();
+        return true;
+    }
+
+    void endOfInput() {
+        ended = true;
+    }
+
+    void close() throws IOException {
+        if (input != null) {
+            input.close();
+        }
+    }
+
+    /**
+     * Skips the content of the object or array whose start token has just been returned. The next call of
+     * {@link #next()} returns its end token without tokenizing anything in between.
+     */
+    void skipChildren() {
+        skippedDepth = 1;
+        skippingString = false;
+    }
+
+    /**
+     * Jumps over the content of the object or array whose start token has just been returned, to the position of its
+     * closing bracket in a complete document
+     */
+    void skipTo(int closingBracket) {
+        pos = closingBracket;
+        state = objectStack[depth - 1] ? EXPECT_FIRST_NAME : EXPECT_FIRST_VALUE;
+        skippedDepth = 0;
+        skippingString = false;
+    }
+
+    /**
+     * @return the position of the opening bracket of the object or array whose start token has just been returned
+     */
+    int containerStart() {
+        return pos - 1;
+    }
+
+    Token next() throws IOException {
+        while (true) {
+            Token token = skippedDepth > 0 ? skip() : tryNext();
+            if (token != null) {
+                return token;
+            }
+            if (!fill()) {
+                return Token.NOT_AVAILABLE;
+            }
+        }
+    }
+
+    /**
+     * @return the next token or null if the buffer ends before it does
+     */
+    private Token tryNext() {
+        while (true) {
+            int p = pos;
+            while (p < limit && WHITESPACES[buffer[p] & 0xff]) {
+                p++;
+            }
+            pos = p;
+            if (p == limit) {
+                return ended ? endOfDocument() : null;
+            }
+            byte b = buffer[p];
+            switch (state) {
+                case EXPECT_SEPARATOR:
+                    if (depth == 0) {
+                        throw error("Unexpected character after the root value");
+                    }
+                    pos++;
+                    if (b == ',') {
+                        state = objectStack[depth - 1] ? EXPECT_NAME : EXPECT_VALUE;
+                        break;
+                    }
+                    return close(b);
+                case EXPECT_COLON:
+                    if (b != ':') {
+                        throw error("Expected ':'");
+                    }
+                    pos++;
+                    state = EXPECT_VALUE;
+                    break;
+                case EXPECT_FIRST_NAME:
+                case EXPECT_FIRST_VALUE:
+                    boolean object = state == EXPECT_FIRST_NAME;
+                    if (b == (object ? '}' : ']')) {
+                        pos++;
+                        return close(b);
+                    }
+                    return object ? name(b) : value(b);
+                case EXPECT_NAME:
+                    return name(b);
+                default:
+                    return value(b);
+            }
+        }
+    }
+
+    private Token endOfDocument() {
+        if (depth == baseDepth && (state == EXPECT_SEPARATOR || (state == EXPECT_VALUE && depth == 0))) {
+            return Token.END;
+        }
+        throw error("Unexpected end of input");
+    }
+
+    private Token name(byte b) {
+        if (b != '"') {
+            throw error("Expected a field name");
+        }
+        if (!scanString()) {
+            return null;
+        }
+        state = EXPECT_COLON;
+        return Token.FIELD_NAME;
+    }
+
+    private Token value(byte b) {
+        valueStart = discarded + pos;
+        switch (b) {
+            case '{':
+                pos++;
+                push(true);
+                state = EXPECT_FIRST_NAME;
+                return Token.START_OBJECT;
+            case '[':
+                pos++;
+                push(false);
+                state = EXPECT_FIRST_VALUE;
+                return Token.START_ARRAY;
+            case '"':
+                return scanString() ? Token.STRING : null;
+            case 't':
+                return literal(TRUE_BYTES) ? Token.TRUE : null;
+            case 'f':
+                return literal(FALSE_BYTES) ? Token.FALSE : null;
+            case 'n':
+                return literal(NULL_BYTES) ? Token.NULL : null;
+            default:
+                if (b == '-' || DIGITS[b & 0xff]) {
+                    return scanNumber() ? Token.NUMBER : null;
+                }
+                throw error("Unexpected character '" + (char) (b & 0xff) + "'");
+        }
+    }
+
+    private Token close(byte b) {
+        boolean object = objectStack[depth - 1];
+        if (b != (object ? '}' : ']')) {
+            throw error("Unexpected character '" + (char) (b & 0xff) + "'");
+        }
+        depth--;
+        state = EXPECT_SEPARATOR;
+        return object ? Token.END_OBJECT : Token.END_ARRAY;
+    }
+
+    private void push(boolean object) {
+        if (depth == objectStack.length) {
+            objectStack = Arrays.copyOf(objectStack, depth * 2);
+        }
+        objectStack[depth++] = object;
+    }
+
+    private boolean scanString() {
+        byte[] buf = buffer;
+        int lim = limit;
+        boolean hasEscape = false;
+        for (int p = pos + 1; p < lim; p++) {
+            int c = buf[p] & 0xff;
+            if (STRING_STOPS[c]) {
+                if (c == '"') {
+                    tokenStart = pos + 1;
+                    tokenEnd = p;
+                    escaped = hasEscape;
+                    pos = p + 1;
+                    state = EXPECT_SEPARATOR;
+                    return true;
+                } else if (c == '\\') {
+                    hasEscape = true;
+                    p++;
+                } else {
+                    throw error("Unescaped control character in string");
+                }
+            }
+        }
+        if (ended) {
+            throw error("Unexpected end of input in string");
+        }
+        return false;
+    }
+
+    private boolean literal(byte[] expected) {
+        if (limit - pos < expected.length) {
+            if (ended) {
+                throw error("Unexpected end of input");
+            }
+            return false;
+        }
+        if (!Arrays.equals(buffer, pos, pos + expected.length, expected, 0, expected.length)) {
+            throw error("Unrecognized literal");
+        }
+        pos += expected.length;
+        state = EXPECT_SEPARATOR;
+        return true;
+    }
+
+    private boolean scanNumber() {
+        byte[] buf = buffer;
+        int p = pos;
+        while (p < limit && NUMBER_BYTES[buf[p] & 0xff]) {
+            p++;
+        }
+        if (p == limit && !ended) {
+            return false;
+        }
+        int digitsEnd = validateNumber(pos, p);
+        if (digitsEnd != p) {
+            throw error("Malformed number");
+        }
+        tokenStart = pos;
+        tokenEnd = p;
+        pos = p;
+        state = EXPECT_SEPARATOR;
+        return true;
+    }
+
+    /**
+     * @return the end of the longest valid number starting at start, sets the integral flag along the way
+     */
+    private int validateNumber(int start, int end) {
+        byte[] buf = buffer;
+        int p = start;
+        if (buf[p] == '-') {
+            p++;
+        }
+        if (p < end && buf[p] == '0') {
+            p++;
+        } else {
+            int digits = p;
+            p = skipDigits(p, end);
+            if (p == digits) {
+                return -1;
+            }
+        }
+        integral = true;
+        if (p < end && buf[p] == '.') {
+            int digits = ++p;
+            p = skipDigits(p, end);
+            if (p == digits) {
+                return -1;
+            }
+            integral = false;
+        }
+        if (p < end && (buf[p] == 'e' || buf[p] == 'E')) {
+            p++;
+            if (p < end && (buf[p] == '+' || buf[p] == '-')) {
+                p++;
+            }
+            int digits = p;
+            p = skipDigits(p, end);
+            if (p == digits) {
+                return -1;
+            }
+            integral = false;
+        }
+        return p;
+    }
+
+    private int skipDigits(int p, int end) {
+        while (p < end && DIGITS[buffer[p] & 0xff]) {
+            p++;
+        }
+        return p;
+    }
+
+    /**
+     * Counts brackets up to the end of the skipped container, looking inside strings only for their closing quote
+     */
+    private Token skip() throws IOException {
+        byte[] buf = buffer;
+        int lim = limit;
+        int p = pos;
+        int skipped = skippedDepth;
+        boolean inString = skippingString;
+        while (p < lim) {
+            byte b = buf[p++];
+            if (inString) {
+                if (b == '"') {
+                    inString = false;
+                } else if (b == '\\') {
+                    if (p == lim) {
+                        p--;
+                        break;
+                    }
+                    p++;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                skipped++;
+            } else if ((b == '}' || b == ']') && --skipped == 0) {
+                pos = p;
+                skippedDepth = 0;
+                return close(b);
+            }
+        }
+        pos = p;
+        skippedDepth = skipped;
+        skippingString = inString;
+        if (mapped != null && p == lim && retained < 0) {
+            return skipInRegions();
+        }
+        if (ended) {
+            throw error("Unexpected end of input");
+        }
+        return null;
+    }
+
+    /**
+     * Goes on skipping in the mapped regions once the buffer is exhausted, so that the skipped bytes are never copied
+     */
+    private Token skipInRegions() throws IOException {
+        discarded += limit;
+        pos = 0;
+        limit = 0;
+        int skipped = skippedDepth;
+        boolean inString = skippingString;
+        boolean escape = false;
+        ByteBuffer region;
+        while ((region = mapped.region()) != null) {
+            int start = region.position();
+            int end = region.limit();
+            for (int p = start; p < end; p++) {
+                byte b = region.get(p);
+                if (escape) {
+                    escape = false;
+                } else if (inString) {
+                    if (b == '"') {
+                        inString = false;
+                    } else if (b == '\\') {
+                        escape = true;
+                    }
+                } else if (b == '"') {
+                    inString = true;
+                } else if (b == '{' || b == '[') {
+                    skipped++;
+                } else if ((b == '}' || b == ']') && --skipped == 0) {
+                    region.position(p + 1);
+                    discarded += p + 1 - start;
+                    skippedDepth = 0;
+                    return close(b);
+                }
+            }
+            region.position(end);
+            discarded += end - start;
+        }
+        ended = true;
+        input = null;
+        mapped = null;
+        throw error("Unexpected end of input");
+    }
+
+    private boolean fill() throws IOException {
+        if (input == null) {
+            return false;
+        }
+        compact();
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = mapped != null ? transfer() : input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            ended = true;
+            input = null;
+            mapped = null;
+        } else {
+            limit += read;
+        }
+        if (limit > 0 && pos == 0) {
+            skipByteOrderMark();
+        }
+        return true;
+    }
+
+    /**
+     * Copies the next bytes of the current mapped region into the buffer
+     */
+    private int transfer() throws IOException {
+        ByteBuffer region = mapped.region();
+        if (region == null) {
+            return -1;
+        }
+        int count = Math.min(region.remaining(), buffer.length - limit);
+        region.get(buffer, limit, count);
+        return count;
+    }
+
+    private void compact() {
+        int keep = retained < 0 ? pos : (int) Math.min(pos, retained - discarded);
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            discarded += keep;
+            pos -= keep;
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (state != EXPECT_VALUE || depth > 0 || limit - pos < BYTE_ORDER_MARK.length) {
+            return;
+        }
+        if (Arrays.equals(buffer, pos, pos + BYTE_ORDER_MARK.length, BYTE_ORDER_MARK, 0, BYTE_ORDER_MARK.length)) {
+            pos += BYTE_ORDER_MARK.length;
+        }
+    }
+
+    /**
+     * @param names UTF-8 forms of field names
+     * @return Whether the current field name may be one of the names, an escaped name is compared only once decoded
+     */
+    boolean isNameIn(Utf8NameSet names) {
+        return escaped ? names.contains(getName()) : names.contains(buffer, tokenStart, tokenEnd);
+    }
+
+    String getName() {
+        return escaped ? Utf8Decoder.decode(buffer, tokenStart, tokenEnd) : names.lookup(buffer, tokenStart, tokenEnd);
+    }
+
+    String getString() {
+        if (escaped) {
+            return Utf8Decoder.decode(buffer, tokenStart, tokenEnd);
+        }
+        return new String(buffer, tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8);
+    }
+
+    boolean isIntegral() {
+        return integral;
+    }
+
+    long getLong() {
+        byte[] buf = buffer;
+        int p = tokenStart;
+        boolean negative = buf[p] == '-';
+        if (negative) {
+            p++;
+        }
+        long value = 0;
+        for (; p < tokenEnd; p++) {
+            value = value * 10 + (buf[p] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return true if the current integral number is sure to fit in a long
+     */
+    boolean isLongSafe() {
+        return tokenEnd - tokenStart <= LONG_SAFE_DIGITS;
+    }
+
+    String getNumberText() {
+        return new String(buffer, tokenStart, tokenEnd - tokenStart, StandardCharsets.ISO_8859_1);
+    }
+
+    private JsonSurfingException error(String message) {
+        return new JsonSurfingException(message + " at byte offset " + (discarded + pos));
+    }
+
+    /**
+     * Source bytes of this lexer for bindings capturing matched values as they are
+     */
+    final class RawBytes implements RawByteSource {
+
+        @Override
+        public long valueStart() {
+            return valueStart;
+        }
+
+        @Override
+        public long position() {
+            return discarded + pos;
+        }
+
+        @Override
+        public void retain(long offset) {
+            retained = offset;
+        }
+
+        @Override
+        public void release() {
+            retained = -1;
+        }
+
+        @Override
+        public ByteBuffer slice(long start, long end) {
+            return ByteBuffer.wrap(buffer, (int) (start - discarded), (int) (end - start)).asReadOnlyBuffer();
+        }
+
+    }
+
+    /**
+     * View of the current string token for listeners reading text in place. Only strings of ASCII characters without
+     * escape sequences are viewed, as their bytes are their chars.
+     */
+    final class AsciiText implements CharSequence {
+
+        private byte[] bytes;
+        private int start;
+        private int length;
+
+        /**
+         * @return whether the current string token is viewed, until the lexer moves on
+         */
+        boolean wrapCurrent() {
+            if (escaped) {
+                return false;
+            }
+            for (int i = tokenStart; i < tokenEnd; i++) {
+                if (buffer[i] < 0) {
+                    return false;
+                }
+            }
+            bytes = buffer;
+            start = tokenStart;
+            length = tokenEnd - tokenStart;
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return (char) bytes[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || from > to || to > length) {
+                throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + length);
+            }
+            return new String(bytes, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        }
+
+    }
+
+    /**
+     * Interns field names by their raw bytes so a name repeated throughout a document is decoded only once.
+     * Growth stops at a fixed size to keep documents with unbounded key sets from bloating it.
+     */
+    private static final class NameTable {
+
+        private static final int MAX_SIZE = 2048;
+
+        private int[] hashes = new int[64];
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int size;
+
+        String lookup(byte[] buf, int start, int end) {
+            int hash = Utf8NameSet.hash(buf, start, end);
+            int mask = keys.length - 1;
+            int slot = Utf8NameSet.mix(hash) & mask;
+            byte[] key;
+            while ((key = keys[slot]) != null) {
+                if (hashes[slot] == hash && Arrays.equals(key, 0, key.length, buf, start, end)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            String value = new String(buf, start, end - start, StandardCharsets.UTF_8);
+            if (size < MAX_SIZE) {
+                hashes[slot] = hash;
+                keys[slot] = Arrays.copyOfRange(buf, start, end);
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    rehash();
+                }
+            }
+            return value;
+        }
+
+        private void rehash() {
+            int[] oldHashes = hashes;
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            int capacity = oldKeys.length * 2;
+            hashes = new int[capacity];
+            keys = new byte[capacity][];
+            values = new String[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = Utf8NameSet.mix(oldHashes[i]) & (capacity - 1);
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    hashes[slot] = oldHashes[i];
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+    }
+
+}
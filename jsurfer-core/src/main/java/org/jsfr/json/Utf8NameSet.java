@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of field names held in their UTF-8 form, probed with the raw bytes of a name so that a name outside
+ * the set is rejected without being decoded.
+ */
+final class Utf8NameSet {
+
+    private final int[] hashes;
+    private final byte[][] names;
+
+    Utf8NameSet(Collection<String> names) {
+        int capacity = Integer.highestOneBit(Math.max(names.size(), 1) * 4);
+        this.hashes = new int[capacity];
+        this.names = new byte[capacity][];
+        for (String name : names) {
+            if (name != null) {
+                add(name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void add(byte[] name) {
+        int hash = hash(name, 0, name.length);
+        int mask = names.length - 1;
+        int slot = mix(hash) & mask;
+        while (names[slot] != null) {
+            if (Arrays.equals(names[slot], name)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        names[slot] = name;
+    }
+
+    /**
+     * @param buf   buffer holding the name
+     * @param start offset of the first byte of the name
+     * @param end   offset after the last byte of the name
+     * @return Whether the unescaped UTF-8 bytes of a name are those of a name of the set
+     */
+    boolean contains(byte[] buf, int start, int end) {
+        int hash = hash(buf, start, end);
+        int mask = names.length - 1;
+        int slot = mix(hash) & mask;
+        byte[] name;
+        while ((name = names[slot]) != null) {
+            if (hashes[slot] == hash && Arrays.equals(name, 0, name.length, buf, start, end)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean contains(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return contains(bytes, 0, bytes.length);
+    }
+
+    static int hash(byte[] buf, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        return hash;
+    }
+
+    static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json.compiler;
+
+import org.jsfr.json.path.JsonPath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of compiled JsonPaths keyed by their string. The string based APIs of JsonSurfer, SurfingConfiguration
+ * and Collector compile through the default cache, so a path used again is not lexed and parsed again and the same
+ * JsonPath instance is shared. Compiled paths are not changed by surfing, and stateful filters are cloned for every
+ * document, so sharing them across configurations and threads is safe.
+ * <p>
+ * Entries are spread over segments by hash, each evicting its least recently used entry once full. Lookups only lock
+ * their segment, and a path is compiled outside of any lock.
+ */
+public final class JsonPathCache {
+
+    /**
+     * Maximum number of paths in the default cache
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private static volatile JsonPathCache defaultCache = new JsonPathCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of cached paths, 0 to compile every time
+     */
+    public JsonPathCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Negative maximum size: " + maximumSize);
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 * MIN_SEGMENT_SIZE <= maximumSize) {
+            count *= 2;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return cache used by the string based APIs
+     */
+    public static JsonPathCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Replaces the cache used by the string based APIs, a cache of maximum size 0 turns caching off
+     *
+     * @param cache new default cache
+     */
+    public static void setDefault(JsonPathCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache must not be null");
+        }
+        defaultCache = cache;
+    }
+
+    /**
+     * @param path JsonPath string
+     * @return compiled path from the default cache
+     */
+    public static JsonPath compile(String path) {
+        return defaultCache.get(path);
+    }
+
+    /**
+     * @param paths JsonPath strings
+     * @return compiled paths from the default cache
+     */
+    public static JsonPath[] compile(String... paths) {
+        JsonPathCache cache = defaultCache;
+        JsonPath[] jsonPaths = new JsonPath[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            jsonPaths[i] = cache.get(paths[i]);
+        }
+        return jsonPaths;
+    }
+
+    /**
+     * @param path JsonPath string
+     * @return cached path, compiled with {@link JsonPathCompiler#compile(String)} if missing. Paths that do not compile
+     * are not cached
+     */
+    public JsonPath get(String path) {
+        Segment segment = segments[segmentIndex(path)];
+        JsonPath jsonPath;
+        synchronized (segment) {
+            jsonPath = segment.get(path);
+        }
+        if (jsonPath != null) {
+            hits.increment();
+            return jsonPath;
+        }
+        misses.increment();
+        jsonPath = JsonPathCompiler.compile(path);
+        if (segment.capacity > 0) {
+            synchronized (segment) {
+                JsonPath raced = segment.putIfAbsent(path, jsonPath);
+                if (raced != null) {
+                    return raced;
+                }
+            }
+        }
+        return jsonPath;
+    }
+
+    /**
+     * Drops every cached path, the statistics are kept
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return number of cached paths
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that compiled the path
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of paths evicted to stay within the maximum size
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private int segmentIndex(String path) {
+        int hash = path.hashCode();
+        return (hash ^ hash >>> 16) & (segments.length - 1);
+    }
+
+    /**
+     * Paths of a segment in access order, guarded by the segment itself
+     */
+    private final class Segment extends LinkedHashMap<String, JsonPath> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(MIN_SEGMENT_SIZE, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+}
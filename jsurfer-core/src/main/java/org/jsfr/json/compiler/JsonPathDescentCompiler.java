@@ -0,0 +1,668 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json.compiler;
+
+import org.jsfr.json.exception.JsonPathCompilerException;
+import org.jsfr.json.filter.ConstantPredicate;
+import org.jsfr.json.filter.EqualityBoolPredicate;
+import org.jsfr.json.filter.EqualityNullPredicate;
+import org.jsfr.json.filter.EqualityNumPredicate;
+import org.jsfr.json.filter.EqualityStrPredicate;
+import org.jsfr.json.filter.EqualityTypePredicate;
+import org.jsfr.json.filter.ExistencePredicate;
+import org.jsfr.json.filter.FilterBuilder;
+import org.jsfr.json.filter.GreaterOrEqualThanNumPredicate;
+import org.jsfr.json.filter.GreaterThanNumPredicate;
+import org.jsfr.json.filter.ItemMethod;
+import org.jsfr.json.filter.JsonPathFilter;
+import org.jsfr.json.filter.LessOrEqualThanNumPredicate;
+import org.jsfr.json.filter.LessThanNumPredicate;
+import org.jsfr.json.filter.MatchRegexPredicate;
+import org.jsfr.json.filter.NotEqualityBoolPredicate;
+import org.jsfr.json.filter.NotEqualityNullPredicate;
+import org.jsfr.json.filter.NotEqualityNumPredicate;
+import org.jsfr.json.filter.NotEqualityStrPredicate;
+import org.jsfr.json.filter.NotEqualityTypePredicate;
+import org.jsfr.json.filter.Type;
+import org.jsfr.json.path.JsonPath;
+import org.jsfr.json.path.SyntaxMode;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.InputMismatchException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static org.jsfr.json.compiler.JsonPathTokenizer.AND;
+import static org.jsfr.json.compiler.JsonPathTokenizer.ANY_INDEX;
+import static org.jsfr.json.compiler.JsonPathTokenizer.AT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.BOOL;
+import static org.jsfr.json.compiler.JsonPathTokenizer.CLOSE_PAREN;
+import static org.jsfr.json.compiler.JsonPathTokenizer.CLOSE_SQ_BRACKET;
+import static org.jsfr.json.compiler.JsonPathTokenizer.COMMA;
+import static org.jsfr.json.compiler.JsonPathTokenizer.DOLLAR;
+import static org.jsfr.json.compiler.JsonPathTokenizer.DOT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.DOT_DOT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.DOT_STAR;
+import static org.jsfr.json.compiler.JsonPathTokenizer.EOF;
+import static org.jsfr.json.compiler.JsonPathTokenizer.EQ;
+import static org.jsfr.json.compiler.JsonPathTokenizer.EXISTS;
+import static org.jsfr.json.compiler.JsonPathTokenizer.FILTER_START;
+import static org.jsfr.json.compiler.JsonPathTokenizer.GE;
+import static org.jsfr.json.compiler.JsonPathTokenizer.GT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.KEY;
+import static org.jsfr.json.compiler.JsonPathTokenizer.LAX;
+import static org.jsfr.json.compiler.JsonPathTokenizer.LE;
+import static org.jsfr.json.compiler.JsonPathTokenizer.LIKE_REGEX;
+import static org.jsfr.json.compiler.JsonPathTokenizer.LT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.NE;
+import static org.jsfr.json.compiler.JsonPathTokenizer.NOT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.NULL;
+import static org.jsfr.json.compiler.JsonPathTokenizer.NUM;
+import static org.jsfr.json.compiler.JsonPathTokenizer.OPEN_PAREN;
+import static org.jsfr.json.compiler.JsonPathTokenizer.OPEN_SQ_BRACKET;
+import static org.jsfr.json.compiler.JsonPathTokenizer.OR;
+import static org.jsfr.json.compiler.JsonPathTokenizer.PARENS;
+import static org.jsfr.json.compiler.JsonPathTokenizer.QUOTED_STRING;
+import static org.jsfr.json.compiler.JsonPathTokenizer.STAR;
+import static org.jsfr.json.compiler.JsonPathTokenizer.STRICT;
+import static org.jsfr.json.compiler.JsonPathTokenizer.TO;
+
+/**
+ * Recursive-descent compiler of the grammar in JsonPath.g4, without the ANTLR runtime. The first pass only checks the
+ * syntax, so that syntax errors are reported before anything is built, like ANTLR parsing the whole path before
+ * {@link JsonPathAntlrCompiler} visits it. The second pass builds the path with the same builder calls in the same order
+ * as that visitor, which also visits every filter a second time after building the array node holding it.
+ */
+@SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:ClassDataAbstractionCoupling"})
+final class JsonPathDescentCompiler {
+
+    private final JsonPathTokenizer tokens;
+
+    /**
+     * Per token: for the first token of an array, the token after its indexes. For the start of a filter, the token after
+     * the filter
+     */
+    private final int[] ends;
+
+    /**
+     * Per token: number of && or || operators of the conjunction or disjunction starting at the token
+     */
+    private final int[] andCounts;
+    private final int[] orCounts;
+
+    private boolean building;
+    private int pos;
+    private JsonPath.Builder pathBuilder;
+    private JsonPath.Builder filterPathBuilder;
+    private FilterBuilder filterBuilder;
+
+    private JsonPathDescentCompiler(JsonPathTokenizer tokens) {
+        this.tokens = tokens;
+        this.ends = new int[tokens.count()];
+        this.andCounts = new int[tokens.count()];
+        this.orCounts = new int[tokens.count()];
+    }
+
+    /**
+     * @param path JsonPath string
+     * @return compiled path
+     * @throws JsonPathCompilerException if the path does not follow the grammar
+     */
+    static JsonPath compile(String path) {
+        JsonPathDescentCompiler compiler = new JsonPathDescentCompiler(JsonPathTokenizer.tokenize(path));
+        compiler.path();
+        compiler.building = true;
+        compiler.pos = 0;
+        return compiler.path();
+    }
+
+    static String unescapeString(String quotedString) {
+        assert quotedString.startsWith("\"") && quotedString.endsWith("\"");
+        StringBuilder res = new StringBuilder(quotedString.length() - 2);
+        int end = quotedString.length() - 1;
+        for (int i = 1; i < end; i++) {
+            char ch = quotedString.charAt(i);
+            assert ch != '"' : "unexpected end quote";
+            if (ch == '\\') {
+                ch = quotedString.charAt(++i);
+                switch (ch) {
+                    case '"':
+                    case '\'':
+                    case '\\':
+                    case '/':
+                        break;
+
+                    case 'b':
+                        ch = '\b';
+                        break;
+
+                    case 'f':
+                        ch = '\f';
+                        break;
+
+                    case 'n':
+                        ch = '\n';
+                        break;
+
+                    case 'r':
+                        ch = '\r';
+                        break;
+
+                    case 't':
+                        ch = '\t';
+                        break;
+
+                    case 'u':
+                        if (i + 4 >= end) {
+                            throw new JsonPathCompilerException("Invalid escape");
+                        }
+                        ch = (char) Integer.parseInt(""
+                                + quotedString.charAt(++i)
+                                + quotedString.charAt(++i)
+                                + quotedString.charAt(++i)
+                                + quotedString.charAt(++i), 16);
+                        break;
+
+                    default:
+                        throw new JsonPathCompilerException("Invalid escape");
+                }
+            }
+            res.append(ch);
+        }
+        return res.toString();
+    }
+
+    static Pattern toPattern(String str) {
+        if (!str.startsWith("\"") || !str.endsWith("\"")) {
+            throw new JsonPathCompilerException("Invalid regex literal pattern");
+        }
+        String unquoted = unescapeString(str);
+        return Pattern.compile(unquoted);
+    }
+
+    static ItemMethod itemMethod(String methodName) {
+        ItemMethod itemMethod = ItemMethod.from(methodName);
+        if (itemMethod == null) {
+            throw new InputMismatchException(String.format("Invalid item method %s. Supported: %s", methodName,
+                Arrays.toString(ItemMethod.values())));
+        }
+        return itemMethod;
+    }
+
+    /**
+     * path: syntaxMode? '$' relativePath* EOF
+     */
+    private JsonPath path() {
+        SyntaxMode mode = SyntaxMode.LAX;
+        if (type() == LAX || type() == STRICT) {
+            int modeToken = pos++;
+            if (building) {
+                mode = SyntaxMode.parse(tokens.text(modeToken));
+            }
+        }
+        expect(DOLLAR);
+        if (building) {
+            pathBuilder = JsonPath.Builder.start(mode);
+        }
+        relativePaths();
+        expect(EOF);
+        return building ? pathBuilder.build() : null;
+    }
+
+    private void relativePaths() {
+        while (startsRelativePath()) {
+            relativePath();
+        }
+    }
+
+    /**
+     * A dot followed by a key and parentheses is the item method ending the path of a filter, everything else that may
+     * start a relative path is parsed as one
+     */
+    private boolean startsRelativePath() {
+        switch (type()) {
+            case DOT_DOT:
+            case DOT_STAR:
+            case STAR:
+            case ANY_INDEX:
+            case OPEN_SQ_BRACKET:
+                return true;
+            case DOT:
+                return tokens.type(pos + 1) != KEY || tokens.type(pos + 2) != PARENS;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * relativePath: searchChild | childNode | array | childrenNode | anyChild | any
+     */
+    private void relativePath() {
+        switch (type()) {
+            case DOT_DOT:
+                child(true);
+                break;
+            case DOT:
+                if (tokens.type(pos + 1) == NUM) {
+                    array(null);
+                } else {
+                    child(false);
+                }
+                break;
+            case OPEN_SQ_BRACKET:
+                if (tokens.type(pos + 1) == QUOTED_STRING) {
+                    children();
+                } else {
+                    array(null);
+                }
+                break;
+            case ANY_INDEX:
+                array(null);
+                break;
+            case DOT_STAR:
+                pos++;
+                if (building) {
+                    currentPathBuilder().anyChild();
+                }
+                break;
+            case STAR:
+                pos++;
+                if (building) {
+                    currentPathBuilder().any();
+                }
+                break;
+            default:
+                throw unexpected();
+        }
+    }
+
+    /**
+     * searchChild: '..' (KEY | QUOTED_STRING) array?
+     * childNode: '.' (KEY | QUOTED_STRING) array?
+     */
+    private void child(boolean search) {
+        pos++;
+        int keyToken = pos;
+        if (type() != KEY && type() != QUOTED_STRING) {
+            throw unexpected();
+        }
+        pos++;
+        String key = building ? keyOf(keyToken) : null;
+        if (building && search) {
+            currentPathBuilder().scan();
+        }
+        if (startsArray()) {
+            array(key);
+        } else if (building) {
+            currentPathBuilder().child(key);
+        }
+    }
+
+    /**
+     * Optional arrays are taken whenever they can start, as ANTLR prefers entering an optional block
+     */
+    private boolean startsArray() {
+        switch (type()) {
+            case ANY_INDEX:
+                return true;
+            case OPEN_SQ_BRACKET:
+            case DOT:
+                return tokens.type(pos + 1) == NUM;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * array: (index | indexes | ANY_INDEX) filter?
+     */
+    private void array(String key) {
+        int start = pos;
+        if (building) {
+            pos = ends[start];
+        } else {
+            indexes();
+            ends[start] = pos;
+        }
+        int filterStart = type() == FILTER_START ? pos : -1;
+        if (filterStart < 0) {
+            if (building) {
+                buildArray(key, start, null);
+            }
+            return;
+        }
+        if (!building) {
+            pos++;
+            filterExpr();
+            expect(CLOSE_PAREN);
+            ends[filterStart] = pos;
+            return;
+        }
+        filterBuilder = new FilterBuilder();
+        replayFilter(filterStart);
+        buildArray(key, start, filterBuilder.build());
+        replayFilter(filterStart);
+        pos = ends[filterStart];
+    }
+
+    /**
+     * index: '[' NUM ']' | '.' NUM
+     * indexes: '[' NUM (TO NUM)? (',' NUM (TO NUM)?)* ']'
+     */
+    private void indexes() {
+        switch (type()) {
+            case ANY_INDEX:
+                pos++;
+                break;
+            case DOT:
+                pos++;
+                expect(NUM);
+                break;
+            default:
+                expect(OPEN_SQ_BRACKET);
+                range();
+                while (type() == COMMA) {
+                    pos++;
+                    range();
+                }
+                expect(CLOSE_SQ_BRACKET);
+        }
+    }
+
+    private void range() {
+        expect(NUM);
+        if (type() == TO) {
+            pos++;
+            expect(NUM);
+        }
+    }
+
+    private void buildArray(String key, int start, JsonPathFilter filter) {
+        JsonPath.Builder builder = currentPathBuilder();
+        int indexesEnd = ends[start];
+        if (tokens.type(start) == ANY_INDEX) {
+            builder.arrayWildcard(key, filter);
+        } else if (indexesEnd - start <= 3) {
+            builder.array(key, filter, Integer.parseInt(tokens.text(start + 1)));
+        } else {
+            Set<Integer> indexes = new HashSet<>();
+            TreeMap<Integer, Integer> ranges = new TreeMap<>();
+            for (int i = start + 1; i < indexesEnd - 1; i++) {
+                if (tokens.type(i) == COMMA) {
+                    continue;
+                }
+                int index = Integer.parseInt(tokens.text(i));
+                if (tokens.type(i + 1) == TO) {
+                    i += 2;
+                    int rangeEnd = Integer.parseInt(tokens.text(i));
+                    if (rangeEnd < index) {
+                        throw new RuntimeException("Array subscript invalid range");
+                    }
+                    ranges.put(index, rangeEnd);
+                } else {
+                    indexes.add(index);
+                }
+            }
+            builder.array(key, filter, indexes, ranges);
+        }
+    }
+
+    private void replayFilter(int filterStart) {
+        pos = filterStart + 1;
+        filterExpr();
+    }
+
+    /**
+     * childrenNode: '[' QUOTED_STRING (',' QUOTED_STRING)* ']'
+     */
+    private void children() {
+        int start = pos++;
+        expect(QUOTED_STRING);
+        while (type() == COMMA) {
+            pos++;
+            expect(QUOTED_STRING);
+        }
+        expect(CLOSE_SQ_BRACKET);
+        if (building) {
+            String[] strings = new String[(pos - start - 1) / 2];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = unescapeString(tokens.text(start + 1 + i * 2));
+            }
+            currentPathBuilder().children(strings);
+        }
+    }
+
+    /**
+     * filterExpr with || binding weaker than &amp;&amp;, both left associative. The visitor starts the predicates of
+     * all operators of a chain before visiting its first operand, so the first pass counts them.
+     */
+    private void filterExpr() {
+        int start = pos;
+        if (building) {
+            for (int i = 0; i < orCounts[start]; i++) {
+                filterBuilder.startOrPredicate();
+            }
+        }
+        conjunction();
+        int operators = 0;
+        while (type() == OR) {
+            pos++;
+            conjunction();
+            operators++;
+            if (building) {
+                filterBuilder.endOrPredicate();
+            }
+        }
+        orCounts[start] = operators;
+    }
+
+    private void conjunction() {
+        int start = pos;
+        if (building) {
+            for (int i = 0; i < andCounts[start]; i++) {
+                filterBuilder.startAndPredicate();
+            }
+        }
+        predicate();
+        int operators = 0;
+        while (type() == AND) {
+            pos++;
+            predicate();
+            operators++;
+            if (building) {
+                filterBuilder.endAndPredicate();
+            }
+        }
+        andCounts[start] = operators;
+    }
+
+    private void predicate() {
+        switch (type()) {
+            case NOT:
+                pos++;
+                expect(OPEN_PAREN);
+                if (building) {
+                    filterBuilder.startNegationPredicate();
+                }
+                filterExpr();
+                expect(CLOSE_PAREN);
+                if (building) {
+                    filterBuilder.endNegationAndPredicate();
+                }
+                break;
+            case EXISTS:
+                pos++;
+                expect(OPEN_PAREN);
+                expect(AT);
+                startFilterPath();
+                relativePaths();
+                expect(CLOSE_PAREN);
+                if (building) {
+                    filterBuilder.append(new ExistencePredicate(filterPathBuilder.build()));
+                    filterPathBuilder = null;
+                }
+                break;
+            case AT:
+                pos++;
+                startFilterPath();
+                relativePaths();
+                comparison();
+                break;
+            default:
+                throw unexpected();
+        }
+    }
+
+    private void startFilterPath() {
+        if (building) {
+            filterPathBuilder = JsonPath.Builder.startFilterPath();
+        }
+    }
+
+    /**
+     * The end of the filter predicates starting with '@' relativePath*
+     */
+    private void comparison() {
+        if (type() == DOT) {
+            pos++;
+            int methodToken = expect(KEY);
+            expect(PARENS);
+            int operator = expectAny(EQ, NE);
+            int literal = expect(QUOTED_STRING);
+            if (building) {
+                appendItemMethod(methodToken, operator, literal);
+            }
+            return;
+        }
+        int operator = expectAny(GT, GE, LT, LE, EQ, NE, LIKE_REGEX);
+        switch (tokens.type(operator)) {
+            case EQ:
+            case NE:
+                expectAny(NUM, BOOL, QUOTED_STRING, NULL);
+                break;
+            case LIKE_REGEX:
+                expect(QUOTED_STRING);
+                break;
+            default:
+                expect(NUM);
+        }
+        int literal = pos - 1;
+        if (building) {
+            filterBuilder.append(comparisonPredicate(tokens.type(operator), literal));
+            filterPathBuilder = null;
+        }
+    }
+
+    private JsonPathFilter comparisonPredicate(int operator, int literal) {
+        JsonPath path = filterPathBuilder.build();
+        String text = tokens.text(literal);
+        switch (tokens.type(literal)) {
+            case BOOL:
+                return operator == EQ ? new EqualityBoolPredicate(path, Boolean.parseBoolean(text))
+                    : new NotEqualityBoolPredicate(path, Boolean.parseBoolean(text));
+            case NULL:
+                return operator == EQ ? new EqualityNullPredicate(path) : new NotEqualityNullPredicate(path);
+            case QUOTED_STRING:
+                if (operator == LIKE_REGEX) {
+                    return new MatchRegexPredicate(path, toPattern(text));
+                }
+                return operator == EQ ? new EqualityStrPredicate(path, unescapeString(text))
+                    : new NotEqualityStrPredicate(path, unescapeString(text));
+            default:
+                return numberPredicate(operator, path, new BigDecimal(text));
+        }
+    }
+
+    private static JsonPathFilter numberPredicate(int operator, JsonPath path, BigDecimal value) {
+        switch (operator) {
+            case EQ:
+                return new EqualityNumPredicate(path, value);
+            case NE:
+                return new NotEqualityNumPredicate(path, value);
+            case GT:
+                return new GreaterThanNumPredicate(path, value);
+            case GE:
+                return new GreaterOrEqualThanNumPredicate(path, value);
+            case LT:
+                return new LessThanNumPredicate(path, value);
+            default:
+                return new LessOrEqualThanNumPredicate(path, value);
+        }
+    }
+
+    private void appendItemMethod(int methodToken, int operator, int literal) {
+        ItemMethod itemMethod = itemMethod(tokens.text(methodToken));
+        if (itemMethod != ItemMethod.TYPE) {
+            throw new InputMismatchException("Unsupported item method: " + itemMethod);
+        }
+        Type type = Type.from(unescapeString(tokens.text(literal)));
+        boolean equal = tokens.type(operator) == EQ;
+        if (type == null) {
+            filterBuilder.append(new ConstantPredicate(filterPathBuilder.build(), !equal));
+        } else if (equal) {
+            filterBuilder.append(new EqualityTypePredicate(filterPathBuilder.build(), type));
+        } else {
+            filterBuilder.append(new NotEqualityTypePredicate(filterPathBuilder.build(), type));
+        }
+        filterPathBuilder = null;
+    }
+
+    private JsonPath.Builder currentPathBuilder() {
+        return filterPathBuilder != null ? filterPathBuilder : pathBuilder;
+    }
+
+    private String keyOf(int token) {
+        String text = tokens.text(token);
+        return tokens.type(token) == KEY ? text : unescapeString(text);
+    }
+
+    private int type() {
+        return tokens.type(pos);
+    }
+
+    private int expect(int type) {
+        if (type() != type) {
+            throw unexpected();
+        }
+        return pos++;
+    }
+
+    private int expectAny(int... types) {
+        for (int type : types) {
+            if (type() == type) {
+                return pos++;
+            }
+        }
+        throw unexpected();
+    }
+
+    private JsonPathCompilerException unexpected() {
+        return tokens.error(pos, type() == EOF ? "unexpected end of path" : "mismatched input '" + tokens.text(pos) + "'");
+    }
+
+}
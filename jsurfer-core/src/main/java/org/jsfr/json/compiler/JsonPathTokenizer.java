@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json.compiler;
+
+import org.jsfr.json.exception.JsonPathCompilerException;
+
+import java.util.Arrays;
+
+/**
+ * Splits a JsonPath string into the tokens of the lexer generated from JsonPath.g4, without the ANTLR runtime. Like
+ * that lexer it takes the longest token at every position and, between tokens of the same length, the one declared
+ * first in the grammar, so keywords like 'to' or 'true' never come out as keys. Whitespace is skipped.
+ */
+final class JsonPathTokenizer {
+
+    static final int EOF = 0;
+    static final int DOLLAR = 1;
+    static final int LAX = 2;
+    static final int STRICT = 3;
+    static final int DOT_DOT = 4;
+    static final int DOT_STAR = 5;
+    static final int STAR = 6;
+    static final int DOT = 7;
+    static final int FILTER_START = 8;
+    static final int CLOSE_PAREN = 9;
+    static final int OPEN_PAREN = 10;
+    static final int EXISTS = 11;
+    static final int AT = 12;
+    static final int GT = 13;
+    static final int GE = 14;
+    static final int LT = 15;
+    static final int LE = 16;
+    static final int EQ = 17;
+    static final int LIKE_REGEX = 18;
+    static final int PARENS = 19;
+    static final int ANY_INDEX = 20;
+    static final int OPEN_SQ_BRACKET = 21;
+    static final int CLOSE_SQ_BRACKET = 22;
+    static final int TO = 23;
+    static final int COMMA = 24;
+    static final int COLON = 25;
+    static final int NOT = 26;
+    static final int AND = 27;
+    static final int OR = 28;
+    static final int NUM = 29;
+    static final int QUOTED_STRING = 30;
+    static final int BOOL = 31;
+    static final int NULL = 32;
+    static final int NE = 33;
+    static final int KEY = 34;
+
+    /**
+     * Tokens of a fixed spelling, with their types in LITERAL_TYPES
+     */
+    private static final String[] LITERALS = {
+        "$", "lax", "strict", "..", ".*", "*", ".", "?(", ")", "(", "exists", "@", ">", ">=", "<", "<=", "==", "like_regex",
+        "()", "[*]", "[", "]", "to", ",", ":", "!", "&&", "||", "true", "false", "null", "<>", "!="
+    };
+    private static final int[] LITERAL_TYPES = {
+        DOLLAR, LAX, STRICT, DOT_DOT, DOT_STAR, STAR, DOT, FILTER_START, CLOSE_PAREN, OPEN_PAREN, EXISTS, AT, GT, GE, LT, LE,
+        EQ, LIKE_REGEX, PARENS, ANY_INDEX, OPEN_SQ_BRACKET, CLOSE_SQ_BRACKET, TO, COMMA, COLON, NOT, AND, OR, BOOL, BOOL,
+        NULL, NE, NE
+    };
+    private static final String KEY_STOPS = "\"\\.*[](),:=@?&|><'! \t\n\r";
+    private static final String ESCAPED = "\"\\/bfnrt";
+
+    private final String path;
+    private int[] types = new int[16];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+
+    private JsonPathTokenizer(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @param path JsonPath string
+     * @return tokens of the path, ending with an EOF token
+     */
+    static JsonPathTokenizer tokenize(String path) {
+        JsonPathTokenizer tokenizer = new JsonPathTokenizer(path);
+        int pos = 0;
+        while (true) {
+            pos = skipWhitespace(path, pos);
+            if (pos == path.length()) {
+                tokenizer.add(EOF, pos, pos);
+                return tokenizer;
+            }
+            int type = EOF;
+            int length = 0;
+            for (int i = 0; i < LITERALS.length; i++) {
+                String literal = LITERALS[i];
+                if (literal.length() > length && path.startsWith(literal, pos)) {
+                    type = LITERAL_TYPES[i];
+                    length = literal.length();
+                }
+            }
+            int numLength = numLength(path, pos);
+            if (numLength > length) {
+                type = NUM;
+                length = numLength;
+            }
+            int quotedLength = quotedLength(path, pos);
+            if (quotedLength > length) {
+                type = QUOTED_STRING;
+                length = quotedLength;
+            }
+            int keyLength = keyLength(path, pos);
+            if (keyLength > length) {
+                type = KEY;
+                length = keyLength;
+            }
+            if (length == 0) {
+                throw tokenizer.errorAt(pos, "token recognition error at: '" + path.charAt(pos) + "'");
+            }
+            tokenizer.add(type, pos, pos + length);
+            pos += length;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int type(int token) {
+        return types[token];
+    }
+
+    String text(int token) {
+        return path.substring(starts[token], ends[token]);
+    }
+
+    /**
+     * @param token   offending token
+     * @param message what is wrong with it
+     * @return exception locating the token by line and column like the errors of the ANTLR parser
+     */
+    JsonPathCompilerException error(int token, String message) {
+        return errorAt(starts[token], message);
+    }
+
+    private JsonPathCompilerException errorAt(int offset, String message) {
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < offset; i++) {
+            if (path.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new JsonPathCompilerException("Line " + line + ", column " + (offset - lineStart) + ": " + message);
+    }
+
+    private void add(int type, int start, int end) {
+        if (count == types.length) {
+            types = Arrays.copyOf(types, count * 2);
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        types[count] = type;
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    private static int skipWhitespace(String path, int pos) {
+        while (pos < path.length() && " \t\n\r".indexOf(path.charAt(pos)) >= 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * NUM: '-'? INT ('.' [0-9]+ EXP? | EXP)? where INT is '0' or digits without leading zero and EXP is
+     * [Ee] [+-]? INT
+     */
+    private static int numLength(String path, int start) {
+        int pos = start;
+        if (pos < path.length() && path.charAt(pos) == '-') {
+            pos++;
+        }
+        int intEnd = intEnd(path, pos);
+        if (intEnd == pos) {
+            return 0;
+        }
+        pos = intEnd;
+        if (pos + 1 < path.length() && path.charAt(pos) == '.' && isDigit(path.charAt(pos + 1))) {
+            pos += 2;
+            while (pos < path.length() && isDigit(path.charAt(pos))) {
+                pos++;
+            }
+        }
+        return expEnd(path, pos) - start;
+    }
+
+    private static int intEnd(String path, int pos) {
+        if (pos == path.length() || !isDigit(path.charAt(pos))) {
+            return pos;
+        }
+        if (path.charAt(pos++) != '0') {
+            while (pos < path.length() && isDigit(path.charAt(pos))) {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private static int expEnd(String path, int pos) {
+        if (pos == path.length() || path.charAt(pos) != 'e' && path.charAt(pos) != 'E') {
+            return pos;
+        }
+        int signEnd = pos + 1;
+        if (signEnd < path.length() && (path.charAt(signEnd) == '+' || path.charAt(signEnd) == '-')) {
+            signEnd++;
+        }
+        int intEnd = intEnd(path, signEnd);
+        return intEnd == signEnd ? pos : intEnd;
+    }
+
+    /**
+     * QUOTED_STRING: '"' (~["\\] | '\\' .)* '"'
+     */
+    private static int quotedLength(String path, int start) {
+        if (path.charAt(start) != '"') {
+            return 0;
+        }
+        int pos = start + 1;
+        while (pos < path.length()) {
+            char c = path.charAt(pos);
+            if (c == '"') {
+                return pos + 1 - start;
+            }
+            pos += c == '\\' ? 2 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * KEY: (ESC | any char but the stops)+ where ESC is a backslash followed by one of "\/bfnrt or by u and four hex
+     * digits
+     */
+    private static int keyLength(String path, int start) {
+        int pos = start;
+        while (pos < path.length()) {
+            char c = path.charAt(pos);
+            if (c == '\\') {
+                int escapeLength = escapeLength(path, pos);
+                if (escapeLength == 0) {
+                    break;
+                }
+                pos += escapeLength;
+            } else if (KEY_STOPS.indexOf(c) < 0) {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        return pos - start;
+    }
+
+    private static int escapeLength(String path, int pos) {
+        if (pos + 1 == path.length()) {
+            return 0;
+        }
+        char c = path.charAt(pos + 1);
+        if (ESCAPED.indexOf(c) >= 0) {
+            return 2;
+        }
+        if (c != 'u' || pos + 6 > path.length()) {
+            return 0;
+        }
+        for (int i = pos + 2; i < pos + 6; i++) {
+            if ("0123456789abcdefABCDEF".indexOf(path.charAt(i)) < 0) {
+                return 0;
+            }
+        }
+        return 6;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
@@ -42,12 +42,23 @@ public abstract class AggregatePredicate extends CloneableJsonPathFilter {
         this.filters.add(filter);
     }
 
+    @Override
+    public boolean isStateless() {
+        for (JsonPathFilter filter : this.filters) {
+            if (!((CloneableJsonPathFilter) filter).isStateless()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected Object clone() throws CloneNotSupportedException {
         AggregatePredicate cloned = (AggregatePredicate) super.clone();
         List<JsonPathFilter> newFilters = new ArrayList<>();
         for (JsonPathFilter filter : this.filters) {
-            newFilters.add((JsonPathFilter) ((CloneableJsonPathFilter) filter).clone());
+            CloneableJsonPathFilter child = (CloneableJsonPathFilter) filter;
+            newFilters.add(child.isStateless() ? child : (JsonPathFilter) child.clone());
         }
         cloned.filters = newFilters;
         return cloned;
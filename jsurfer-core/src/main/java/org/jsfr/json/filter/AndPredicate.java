@@ -37,6 +37,11 @@ public class AndPredicate extends AggregatePredicate {
 
     // AndPredicate becomes stateful
 
+    @Override
+    public boolean isStateless() {
+        return false;
+    }
+
     @Override
     public boolean apply(JsonPath jsonPosition, PrimitiveHolder primitiveHolder, JsonProvider jsonProvider) {
         Iterator<JsonPathFilter> itr = this.getFilters().iterator();
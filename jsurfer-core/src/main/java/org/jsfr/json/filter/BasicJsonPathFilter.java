@@ -40,6 +40,15 @@ public abstract class BasicJsonPathFilter extends CloneableJsonPathFilter {
         return relativePath;
     }
 
+    /**
+     * Basic predicates only compare a value against constants. Subclasses that remember anything across calls of
+     * apply must return false.
+     */
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     protected Object clone() throws CloneNotSupportedException {
         BasicJsonPathFilter cloned = (BasicJsonPathFilter) super.clone();
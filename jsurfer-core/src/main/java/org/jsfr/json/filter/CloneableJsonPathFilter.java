@@ -40,6 +40,16 @@ public class CloneableJsonPathFilter implements JsonPathFilter, Cloneable {
         return super.clone();
     }
 
+    /**
+     * A stateless filter keeps nothing between calls of apply, so one instance can verify every candidate instead of
+     * a clone per candidate. Filters are assumed stateful unless they say otherwise.
+     *
+     * @return Whether the filter can be shared
+     */
+    public boolean isStateless() {
+        return false;
+    }
+
     public Object cloneMe() {
         try {
             return this.clone();
@@ -35,18 +35,17 @@ import java.math.BigDecimal;
  */
 public class EqualityNumPredicate extends BasicJsonPathFilter {
 
-    private final BigDecimal value;
+    private final NumberLiteral value;
 
     public EqualityNumPredicate(JsonPath relativePath, BigDecimal value) {
         super(relativePath);
-        this.value = value;
+        this.value = new NumberLiteral(value);
     }
 
     @Override
     public boolean apply(JsonPath jsonPosition, PrimitiveHolder primitiveHolder, JsonProvider jsonProvider) {
         if (primitiveHolder != null && this.getRelativePath().matchFilterPath(jsonPosition)) {
-            Object candidate = primitiveHolder.getValue();
-            Integer comparison = tryCompare(candidate, value);
+            Integer comparison = value.compareFrom(primitiveHolder, jsonProvider);
             return comparison != null && comparison == 0;
         } else {
             return false;
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json.filter;
+
+import org.jsfr.json.PrimitiveHolder;
+import org.jsfr.json.provider.JsonProvider;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Number literal of a filter. Candidates holding a long or a double are compared as primitives, BigDecimal is only
+ * used for other numbers or for literals a long or a double cannot compare exactly.
+ */
+final class NumberLiteral implements Serializable {
+
+    // decimals of up to 15 significant digits survive a round trip through double
+    private static final int DOUBLE_PRECISION = 15;
+    private static final int LONG_BITS = 63;
+
+    private final BigDecimal value;
+    private final boolean inLongRange;
+    private final long floor;
+    private final boolean integral;
+    private final boolean doubleComparable;
+    private final double doubleValue;
+
+    NumberLiteral(BigDecimal value) {
+        this.value = value;
+        BigDecimal floorValue = value.setScale(0, RoundingMode.FLOOR);
+        this.inLongRange = floorValue.toBigInteger().bitLength() <= LONG_BITS;
+        this.floor = inLongRange ? floorValue.longValue() : 0;
+        this.integral = floorValue.compareTo(value) == 0;
+        this.doubleValue = value.doubleValue();
+        this.doubleComparable = value.precision() <= DOUBLE_PRECISION && !Double.isInfinite(doubleValue)
+            && (doubleValue != 0 || value.signum() == 0);
+    }
+
+    /**
+     * Compares a candidate straight from the parser when its holder can decode it as a long or a double, so the
+     * primitive value of the json provider is only created for other candidates
+     *
+     * @param candidate    Holder of the candidate
+     * @param jsonProvider Json provider
+     * @return Sign of candidate minus this literal, or null if the candidate is not a number
+     */
+    Integer compareFrom(PrimitiveHolder candidate, JsonProvider jsonProvider) {
+        if (inLongRange && candidate.isLong()) {
+            return compareLong(candidate.getLong());
+        } else if (doubleComparable && candidate.isDouble()) {
+            double candidateValue = candidate.getDouble();
+            if (!Double.isNaN(candidateValue) && !Double.isInfinite(candidateValue)) {
+                return compareDouble(candidateValue);
+            }
+        }
+        return compareFrom(candidate.getValue(), jsonProvider);
+    }
+
+    /**
+     * @param candidate    Primitive value of the json provider
+     * @param jsonProvider Json provider
+     * @return Sign of candidate minus this literal, or null if the candidate is not a number
+     */
+    Integer compareFrom(Object candidate, JsonProvider jsonProvider) {
+        if (candidate == null) {
+            return null;
+        }
+        Number number = jsonProvider.numberValue(candidate);
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            if (inLongRange) {
+                return compareLong(number.longValue());
+            }
+        } else if (number instanceof Double && doubleComparable) {
+            double candidateValue = number.doubleValue();
+            if (!Double.isNaN(candidateValue) && !Double.isInfinite(candidateValue)) {
+                return compareDouble(candidateValue);
+            }
+        }
+        return BasicJsonPathFilter.tryCompare(number != null ? number : candidate, value);
+    }
+
+    private int compareDouble(double candidateValue) {
+        return candidateValue < doubleValue ? -1 : (candidateValue > doubleValue ? 1 : 0);
+    }
+
+    private int compareLong(long candidateValue) {
+        if (integral) {
+            return Long.compare(candidateValue, floor);
+        }
+        return candidateValue <= floor ? -1 : 1;
+    }
+
+}
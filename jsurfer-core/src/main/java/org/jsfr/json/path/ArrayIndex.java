@@ -52,6 +52,10 @@ public class ArrayIndex extends FilterableChildNode {
         this.arrayIndex++;
     }
 
+    public void increaseArrayIndex(int count) {
+        this.arrayIndex += count;
+    }
+
     @Override
     public boolean match(PathOperator pathOperator) {
         if (!super.match(pathOperator)) {
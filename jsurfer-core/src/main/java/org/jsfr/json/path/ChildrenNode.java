@@ -25,6 +25,7 @@
 package org.jsfr.json.path;
 
 import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Created by Administrator on 2015/3/26.
@@ -37,6 +38,10 @@ public class ChildrenNode extends PathOperator {
         this.children = children;
     }
 
+    public Set<String> getChildren() {
+        return children;
+    }
+
     @Override
     public boolean match(PathOperator pathOperator) {
         return pathOperator instanceof ChildNode && children.contains(((ChildNode) pathOperator).getKey());
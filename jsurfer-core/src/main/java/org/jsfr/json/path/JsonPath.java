@@ -29,7 +29,6 @@ import org.jsfr.json.filter.JsonPathFilter;
 import org.jsfr.json.resolver.DocumentResolver;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -109,15 +108,27 @@ public class JsonPath implements Iterable<PathOperator>, Serializable {
         }
 
         public Builder child(String key) {
-            jsonPath.push(new ChildNode(key));
+            jsonPath.push(new ChildNode(canonical(key)));
             return this;
         }
 
         public Builder children(String... children) {
-            jsonPath.push(new ChildrenNode(new HashSet<String>(Arrays.asList(children))));
+            HashSet<String> keys = new HashSet<String>();
+            for (String child : children) {
+                keys.add(canonical(child));
+            }
+            jsonPath.push(new ChildrenNode(keys));
             return this;
         }
 
+        /**
+         * Keys are interned, the canonical form Jackson gives field names by default, so that a name matching a key is
+         * the same reference and compares on the identity check of String.equals and of hash lookups
+         */
+        private static String canonical(String key) {
+            return key == null ? null : key.intern();
+        }
+
         public Builder anyChild() {
             jsonPath.push(Wildcard.SINGLETON);
             return this;
@@ -125,19 +136,19 @@ public class JsonPath implements Iterable<PathOperator>, Serializable {
 
 
         public Builder array(String key, JsonPathFilter jsonPathFilter, int index) {
-            jsonPath.push(new ArrayIndex(key, jsonPathFilter, index));
+            jsonPath.push(new ArrayIndex(canonical(key), jsonPathFilter, index));
             return this;
         }
 
         @SuppressWarnings("checkstyle:IllegalType")
         public Builder array(String key, JsonPathFilter jsonPathFilter, Set<Integer> indexes,
             TreeMap<Integer, Integer> ranges) {
-            jsonPath.push(new ArrayIndexes(key, jsonPathFilter, indexes, ranges));
+            jsonPath.push(new ArrayIndexes(canonical(key), jsonPathFilter, indexes, ranges));
             return this;
         }
 
         public Builder arrayWildcard(String key, JsonPathFilter jsonPathFilter) {
-            jsonPath.push(new ArrayWildcard(key, jsonPathFilter));
+            jsonPath.push(new ArrayWildcard(canonical(key), jsonPathFilter));
             return this;
         }
 
@@ -107,6 +107,11 @@ public final class JavaCollectionProvider implements JsonProvider<Map<String, Ob
         return null;
     }
 
+    @Override
+    public Object primitive(byte[] value) {
+        return value;
+    }
+
     @Override
     public <T> T cast(Object value, Class<T> tClass) {
         return castJavaObject(value, tClass);
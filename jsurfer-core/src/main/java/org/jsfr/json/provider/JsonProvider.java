@@ -24,9 +24,11 @@
 
 package org.jsfr.json.provider;
 
+import org.jsfr.json.PrimitiveHolder;
 import org.jsfr.json.resolver.DocumentResolver;
 
 import java.math.BigInteger;
+import java.util.Base64;
 
 public interface JsonProvider<O, A, P> extends DocumentResolver<O, A> {
 
@@ -52,12 +54,49 @@ public interface JsonProvider<O, A, P> extends DocumentResolver<O, A> {
 
     P primitiveNull();
 
+    /**
+     * Creates the primitive of a binary value of a binary format such as Smile, CBOR or Ion. Providers without a
+     * binary type get it as a base64 string, the way Jackson writes binary values to json
+     *
+     * @param value binary value
+     * @return primitive value
+     */
+    default P primitive(byte[] value) {
+        return primitive(Base64.getEncoder().encodeToString(value));
+    }
+
+    /**
+     * Creates the primitive of a number the parser has not decoded yet. Providers that keep numbers as text or as
+     * BigDecimal can read {@link PrimitiveHolder#getRawText()} instead of paying for a long or a double first
+     *
+     * @param number holder of a number
+     * @return primitive value
+     */
+    default P primitiveNumber(PrimitiveHolder number) {
+        if (number.isLong()) {
+            return primitive(number.getLong());
+        } else if (number.isDouble()) {
+            return primitive(number.getDouble());
+        }
+        return primitive(new BigInteger(number.getRawText()));
+    }
+
     <T> T cast(P value, Class<T> tClass);
 
     boolean isPrimitiveNull(Object value);
 
     boolean isPrimitiveNumber(Object value);
 
+    /**
+     * Unwraps the number held by a primitive value, so filters can compare it without parsing its text
+     *
+     * @param value primitive value
+     * @return the number, or null if the value is not a number
+     */
+    default Number numberValue(Object value) {
+        return value instanceof Number ? (Number) value : null;
+    }
+
     boolean isPrimitiveBoolean(Object value);
 
     boolean isPrimitiveString(Object value);
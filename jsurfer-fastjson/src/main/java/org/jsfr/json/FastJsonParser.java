@@ -63,6 +63,8 @@ public final class FastJsonParser implements JsonParserAdapter {
         private final JSONLexerBase lexer;
         private final SurfingContext context;
         private final StaticPrimitiveHolder staticPrimitiveHolder;
+        // the token read after a string was left unhandled because parsing broke off at the event of the string
+        private boolean tokenPending;
 
         FastJsonResumableParser(JSONLexerBase lexer, SurfingContext context, StaticPrimitiveHolder staticPrimitiveHolder) {
             this.lexer = lexer;
@@ -98,7 +100,11 @@ public final class FastJsonParser implements JsonParserAdapter {
                 String tempString = null;
 
                 while (!lexer.isEOF() && !context.shouldBreak()) {
-                    lexer.nextToken();
+                    if (tokenPending) {
+                        tokenPending = false;
+                    } else {
+                        lexer.nextToken();
+                    }
                     int token = lexer.token();
                     if (tempString != null) {
                         if (token == COLON) {
@@ -107,6 +113,10 @@ public final class FastJsonParser implements JsonParserAdapter {
                             context.primitive(staticPrimitiveHolder.withValue(tempString));
                         }
                         tempString = null;
+                        if (context.shouldBreak()) {
+                            tokenPending = true;
+                            break;
+                        }
                     }
                     switch (token) {
                         case SET:
@@ -212,7 +222,7 @@ public final class FastJsonParser implements JsonParserAdapter {
 
     @Override
     public NonBlockingParser createNonBlockingParser(SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return new BufferingNonBlockingParser(context, this);
     }
 
 }
@@ -33,6 +33,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.math.BigInteger;
 
 public class GsonParser implements JsonParserAdapter {
 
@@ -75,6 +76,14 @@ public class GsonParser implements JsonParserAdapter {
             }
         }
 
+        private void skipChildrenIfRequested() throws IOException {
+            if (context.shouldSkipChildren()) {
+                while (jsonReader.hasNext()) {
+                    jsonReader.skipValue();
+                }
+            }
+        }
+
         private void doParse() {
             try {
                 while (!context.shouldBreak()) {
@@ -83,6 +92,7 @@ public class GsonParser implements JsonParserAdapter {
                         case BEGIN_ARRAY:
                             jsonReader.beginArray();
                             context.startArray();
+                            skipChildrenIfRequested();
                             break;
                         case END_ARRAY:
                             jsonReader.endArray();
@@ -91,6 +101,7 @@ public class GsonParser implements JsonParserAdapter {
                         case BEGIN_OBJECT:
                             jsonReader.beginObject();
                             context.startObject();
+                            skipChildrenIfRequested();
                             break;
                         case END_OBJECT:
                             jsonReader.endObject();
@@ -186,17 +197,7 @@ public class GsonParser implements JsonParserAdapter {
                 jsonReader.skipValue();
             }
         };
-        AbstractPrimitiveHolder numberHolder = new AbstractPrimitiveHolder(context.getConfig()) {
-            @Override
-            public Object doGetValue() throws IOException {
-                return jsonProvider.primitive(jsonReader.nextDouble());
-            }
-
-            @Override
-            public void doSkipValue() throws IOException {
-                jsonReader.skipValue();
-            }
-        };
+        AbstractPrimitiveHolder numberHolder = new NumberHolder(jsonReader, context.getConfig());
         AbstractPrimitiveHolder booleanHolder = new AbstractPrimitiveHolder(context.getConfig()) {
             @Override
             public Object doGetValue() throws IOException {
@@ -235,7 +236,83 @@ public class GsonParser implements JsonParserAdapter {
 
     @Override
     public NonBlockingParser createNonBlockingParser(SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return new BufferingNonBlockingParser(context, this);
+    }
+
+    /**
+     * Holder of a number. JsonReader consumes a number once it is read, so its text is kept for the typed accessors
+     */
+    private static final class NumberHolder extends AbstractPrimitiveHolder {
+
+        private final JsonReader jsonReader;
+        private final JsonProvider jsonProvider;
+        private String text;
+
+        NumberHolder(JsonReader jsonReader, SurfingConfiguration config) {
+            super(config);
+            this.jsonReader = jsonReader;
+            this.jsonProvider = config.getJsonProvider();
+        }
+
+        @Override
+        public void init() {
+            super.init();
+            text = null;
+        }
+
+        @Override
+        public Object doGetValue() throws IOException {
+            return jsonProvider.primitive(Double.parseDouble(doGetRawText()));
+        }
+
+        @Override
+        public void doSkipValue() throws IOException {
+            if (text == null) {
+                jsonReader.skipValue();
+            }
+        }
+
+        @Override
+        protected String doGetRawText() throws IOException {
+            if (text == null) {
+                text = jsonReader.nextString();
+            }
+            return text;
+        }
+
+        @Override
+        protected boolean doIsLong() throws IOException {
+            if (doIsDouble()) {
+                return false;
+            }
+            try {
+                Long.parseLong(text);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean doIsDouble() throws IOException {
+            String number = doGetRawText();
+            return number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0;
+        }
+
+        @Override
+        protected long doGetLong() throws IOException {
+            String number = doGetRawText();
+            try {
+                return Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                return doIsDouble() ? (long) Double.parseDouble(number) : new BigInteger(number).longValue();
+            }
+        }
+
+        @Override
+        protected double doGetDouble() throws IOException {
+            return Double.parseDouble(doGetRawText());
+        }
     }
 
 }
@@ -140,6 +140,14 @@ public class GsonProvider implements JsonProvider<JsonObject, JsonArray, JsonEle
         return value instanceof JsonNull;
     }
 
+    @Override
+    public Number numberValue(Object value) {
+        if (value instanceof JsonPrimitive && ((JsonPrimitive) value).isNumber()) {
+            return ((JsonPrimitive) value).getAsNumber();
+        }
+        return null;
+    }
+
     @Override
     public boolean isPrimitiveNumber(Object value) {
         boolean isPrimitive = value instanceof JsonPrimitive;
@@ -80,6 +80,7 @@ public class JacksonJrParser implements JsonParserAdapter {
         private final AbstractPrimitiveHolder longHolder;
         private final AbstractPrimitiveHolder doubleHolder;
         private final StaticPrimitiveHolder staticHolder;
+        private int skippedDepth;
 
         JacksonResumableParser(final JsonParser jsonParser, SurfingContext context) {
             this.jsonParser = jsonParser;
@@ -95,30 +96,8 @@ public class JacksonJrParser implements JsonParserAdapter {
                 public void doSkipValue() throws IOException {
                 }
             };
-            this.longHolder = new AbstractPrimitiveHolder(context.getConfig()) {
-                @Override
-                public Object doGetValue() throws IOException {
-                    if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
-                        return jsonProvider.primitive(jsonParser.getBigIntegerValue());
-                    }  else {
-                        return jsonProvider.primitive(jsonParser.getLongValue());
-                    }
-                }
-
-                @Override
-                public void doSkipValue() {
-                }
-            };
-            this.doubleHolder = new AbstractPrimitiveHolder(context.getConfig()) {
-                @Override
-                public Object doGetValue() throws IOException {
-                    return jsonProvider.primitive(jsonParser.getDoubleValue());
-                }
-
-                @Override
-                public void doSkipValue() {
-                }
-            };
+            this.longHolder = new LongHolder(jsonParser, context.getConfig());
+            this.doubleHolder = new DoubleHolder(jsonParser, context.getConfig());
             this.staticHolder = new StaticPrimitiveHolder();
         }
 
@@ -147,6 +126,86 @@ public class JacksonJrParser implements JsonParserAdapter {
             }
         }
 
+        /**
+         * Consumes a token of a subtree nobody listens to. Nesting is counted here rather than delegated to
+         * JsonParser.skipChildren() which cannot stop at NOT_AVAILABLE and so does not work with non-blocking input.
+         */
+        private void skip(JsonToken token) {
+            switch (token) {
+                case NOT_AVAILABLE:
+                    context.pause();
+                    break;
+                case START_OBJECT:
+                case START_ARRAY:
+                    skippedDepth++;
+                    break;
+                case END_OBJECT:
+                    if (--skippedDepth == 0) {
+                        context.endObject();
+                    }
+                    break;
+                case END_ARRAY:
+                    if (--skippedDepth == 0) {
+                        context.endArray();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void dispatch(JsonToken token, JsonProvider jsonProvider) throws IOException {
+            switch (token) {
+                case NOT_AVAILABLE:
+                    context.pause();
+                    break;
+                case START_OBJECT:
+                    context.startObject();
+                    skippedDepth = context.shouldSkipChildren() ? 1 : 0;
+                    break;
+                case END_OBJECT:
+                    context.endObject();
+                    break;
+                case START_ARRAY:
+                    context.startArray();
+                    skippedDepth = context.shouldSkipChildren() ? 1 : 0;
+                    break;
+                case END_ARRAY:
+                    context.endArray();
+                    break;
+                case FIELD_NAME:
+                    context.startObjectEntry(jsonParser.getCurrentName());
+                    break;
+                case VALUE_STRING:
+                    stringHolder.init();
+                    context.primitive(stringHolder);
+                    stringHolder.skipValue();
+                    break;
+                case VALUE_NUMBER_INT:
+                    longHolder.init();
+                    context.primitive(longHolder);
+                    longHolder.skipValue();
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    doubleHolder.init();
+                    context.primitive(doubleHolder);
+                    doubleHolder.skipValue();
+                    break;
+                case VALUE_TRUE:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitive(true)));
+                    break;
+                case VALUE_FALSE:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitive(false)));
+                    break;
+                case VALUE_NULL:
+                    context.primitive(staticHolder.withValue(jsonProvider.primitiveNull()));
+                    break;
+                case VALUE_EMBEDDED_OBJECT:
+                default:
+                    throw new IllegalStateException("Unexpected token");
+            }
+        }
+
         void doParse() throws IOException {
             JsonProvider jsonProvider = context.getConfig().getJsonProvider();
             while (!context.shouldBreak()) {
@@ -155,52 +214,10 @@ public class JacksonJrParser implements JsonParserAdapter {
                     context.endJSON();
                     break;
                 }
-                switch (token) {
-                    case NOT_AVAILABLE:
-                        context.pause();
-                        break;
-                    case START_OBJECT:
-                        context.startObject();
-                        break;
-                    case END_OBJECT:
-                        context.endObject();
-                        break;
-                    case START_ARRAY:
-                        context.startArray();
-                        break;
-                    case END_ARRAY:
-                        context.endArray();
-                        break;
-                    case FIELD_NAME:
-                        context.startObjectEntry(jsonParser.getCurrentName());
-                        break;
-                    case VALUE_STRING:
-                        stringHolder.init();
-                        context.primitive(stringHolder);
-                        stringHolder.skipValue();
-                        break;
-                    case VALUE_NUMBER_INT:
-                        longHolder.init();
-                        context.primitive(longHolder);
-                        longHolder.skipValue();
-                        break;
-                    case VALUE_NUMBER_FLOAT:
-                        doubleHolder.init();
-                        context.primitive(doubleHolder);
-                        doubleHolder.skipValue();
-                        break;
-                    case VALUE_TRUE:
-                        context.primitive(staticHolder.withValue(jsonProvider.primitive(true)));
-                        break;
-                    case VALUE_FALSE:
-                        context.primitive(staticHolder.withValue(jsonProvider.primitive(false)));
-                        break;
-                    case VALUE_NULL:
-                        context.primitive(staticHolder.withValue(jsonProvider.primitiveNull()));
-                        break;
-                    case VALUE_EMBEDDED_OBJECT:
-                    default:
-                        throw new IllegalStateException("Unexpected token");
+                if (skippedDepth > 0) {
+                    skip(token);
+                } else {
+                    dispatch(token, jsonProvider);
                 }
             }
             if (context.getConfig().isCloseParserOnStop() && context.isStopped()) {
@@ -284,4 +301,112 @@ public class JacksonJrParser implements JsonParserAdapter {
         return new JacksonResumableParser(jp, context);
     }
 
+    /**
+     * Holder of an integral number, decoded by the parser only in the representation that is asked for
+     */
+    private static final class LongHolder extends AbstractPrimitiveHolder {
+
+        private final JsonParser jsonParser;
+        private final JsonProvider jsonProvider;
+
+        LongHolder(JsonParser jsonParser, SurfingConfiguration config) {
+            super(config);
+            this.jsonParser = jsonParser;
+            this.jsonProvider = config.getJsonProvider();
+        }
+
+        @Override
+        public Object doGetValue() throws IOException {
+            if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return jsonProvider.primitive(jsonParser.getBigIntegerValue());
+            }
+            return jsonProvider.primitive(jsonParser.getLongValue());
+        }
+
+        @Override
+        public void doSkipValue() {
+        }
+
+        @Override
+        protected String doGetRawText() throws IOException {
+            // the non-blocking parser decodes the number after a big integer read as text to the value of the big integer
+            if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return jsonParser.getBigIntegerValue().toString();
+            }
+            return jsonParser.getText();
+        }
+
+        @Override
+        protected boolean doIsLong() throws IOException {
+            return jsonParser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+        }
+
+        @Override
+        protected boolean doIsDouble() {
+            return false;
+        }
+
+        @Override
+        protected long doGetLong() throws IOException {
+            if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return jsonParser.getBigIntegerValue().longValue();
+            }
+            return jsonParser.getLongValue();
+        }
+
+        @Override
+        protected double doGetDouble() throws IOException {
+            return jsonParser.getDoubleValue();
+        }
+    }
+
+    /**
+     * Holder of a floating point number, decoded by the parser only in the representation that is asked for
+     */
+    private static final class DoubleHolder extends AbstractPrimitiveHolder {
+
+        private final JsonParser jsonParser;
+        private final JsonProvider jsonProvider;
+
+        DoubleHolder(JsonParser jsonParser, SurfingConfiguration config) {
+            super(config);
+            this.jsonParser = jsonParser;
+            this.jsonProvider = config.getJsonProvider();
+        }
+
+        @Override
+        public Object doGetValue() {
+            return jsonProvider.primitiveNumber(this);
+        }
+
+        @Override
+        public void doSkipValue() {
+        }
+
+        @Override
+        protected String doGetRawText() throws IOException {
+            return jsonParser.getText();
+        }
+
+        @Override
+        protected boolean doIsLong() {
+            return false;
+        }
+
+        @Override
+        protected boolean doIsDouble() {
+            return true;
+        }
+
+        @Override
+        protected long doGetLong() throws IOException {
+            return (long) jsonParser.getDoubleValue();
+        }
+
+        @Override
+        protected double doGetDouble() throws IOException {
+            return jsonParser.getDoubleValue();
+        }
+    }
+
 }
@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.jsfr.json.provider.JacksonProvider;
+
+/**
+ * JsonSurfer reading CBOR through Jackson, which needs jackson-dataformat-cbor on the classpath. Binary values are
+ * delivered as byte[] by JavaCollectionProvider and as BinaryNode by JacksonProvider.
+ */
+public final class JsonSurferCbor {
+
+    /**
+     *
+     */
+    public static final JsonSurfer INSTANCE = new JsonSurfer(new JacksonParser(new CBORFactory()), JacksonProvider.INSTANCE);
+
+    private JsonSurferCbor() {
+    }
+
+}
@@ -120,6 +120,11 @@ public class JacksonProvider implements JsonProvider<ObjectNode, ArrayNode, Json
         return factory.nullNode();
     }
 
+    @Override
+    public JsonNode primitive(byte[] value) {
+        return factory.binaryNode(value);
+    }
+
     @Override
     public <T> T cast(JsonNode value, Class<T> tClass) {
         try {
@@ -140,6 +145,14 @@ public class JacksonProvider implements JsonProvider<ObjectNode, ArrayNode, Json
         return value instanceof NullNode;
     }
 
+    @Override
+    public Number numberValue(Object value) {
+        if (value instanceof JsonNode && ((JsonNode) value).isNumber()) {
+            return ((JsonNode) value).numberValue();
+        }
+        return null;
+    }
+
     @Override
     public boolean isPrimitiveNumber(Object value) {
         boolean isPrimitive = value instanceof JsonNode;
@@ -36,9 +36,20 @@ public class JsonSimpleHandlerAdapter implements ContentHandler {
 
     private JsonSaxHandler jsonSaxHandler;
     private StaticPrimitiveHolder staticPrimitiveHolder = new StaticPrimitiveHolder();
+    private SurfingContext context;
 
     public JsonSimpleHandlerAdapter(JsonSaxHandler jsonSaxHandler) {
         this.jsonSaxHandler = jsonSaxHandler;
+        if (jsonSaxHandler instanceof SurfingContext) {
+            this.context = (SurfingContext) jsonSaxHandler;
+        }
+    }
+
+    /**
+     * json-simple returns from parsing once a handler returns false, and resumes after that token
+     */
+    private boolean carryOn() {
+        return context == null || !context.shouldBreak();
     }
 
     @Override
@@ -53,17 +64,17 @@ public class JsonSimpleHandlerAdapter implements ContentHandler {
 
     @Override
     public boolean startObject() throws ParseException, IOException {
-        return jsonSaxHandler.startObject();
+        return jsonSaxHandler.startObject() && carryOn();
     }
 
     @Override
     public boolean endObject() throws ParseException, IOException {
-        return jsonSaxHandler.endObject();
+        return jsonSaxHandler.endObject() && carryOn();
     }
 
     @Override
     public boolean startObjectEntry(String key) throws ParseException, IOException {
-        return jsonSaxHandler.startObjectEntry(key);
+        return jsonSaxHandler.startObjectEntry(key) && carryOn();
     }
 
     @Override
@@ -73,16 +84,16 @@ public class JsonSimpleHandlerAdapter implements ContentHandler {
 
     @Override
     public boolean startArray() throws ParseException, IOException {
-        return jsonSaxHandler.startArray();
+        return jsonSaxHandler.startArray() && carryOn();
     }
 
     @Override
     public boolean endArray() throws ParseException, IOException {
-        return jsonSaxHandler.endArray();
+        return jsonSaxHandler.endArray() && carryOn();
     }
 
     @Override
     public boolean primitive(Object value) throws ParseException, IOException {
-        return jsonSaxHandler.primitive(staticPrimitiveHolder.withValue(value));
+        return jsonSaxHandler.primitive(staticPrimitiveHolder.withValue(value)) && carryOn();
     }
 }
@@ -25,7 +25,9 @@
 package org.jsfr.json;
 
 import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -33,6 +35,56 @@ import java.io.StringReader;
 
 public final class JsonSimpleParser implements JsonParserAdapter {
 
+    private static final class JsonSimpleResumableParser implements ResumableParser {
+
+        private final JSONParser parser = new JSONParser();
+        private final Reader reader;
+        private final SurfingContext context;
+        private final JsonSimpleHandlerAdapter handler;
+        private boolean started;
+
+        JsonSimpleResumableParser(Reader reader, SurfingContext context) {
+            this.reader = reader;
+            this.context = context;
+            this.handler = new JsonSimpleHandlerAdapter(context);
+        }
+
+        @Override
+        public void parse() {
+            // json-simple reports the start of the document itself, so a context paused beforehand waits for resume()
+            if (context.shouldBreak()) {
+                return;
+            }
+            try {
+                doParse();
+            } catch (Exception e) {
+                context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+            }
+        }
+
+        private void doParse() throws IOException, ParseException {
+            boolean resuming = started;
+            started = true;
+            parser.parse(reader, handler, resuming);
+        }
+
+        @Override
+        public boolean resume() {
+            try {
+                if (!context.isPaused()) {
+                    return false;
+                }
+                context.resume();
+                doParse();
+                return true;
+            } catch (Exception e) {
+                context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+                return false;
+            }
+        }
+
+    }
+
     /**
      * Immutable shared instance
      */
@@ -47,12 +99,7 @@ public final class JsonSimpleParser implements JsonParserAdapter {
     }
 
     private void parseImpl(Reader reader, SurfingContext context) {
-        JSONParser parser = new JSONParser();
-        try {
-            parser.parse(reader, new JsonSimpleHandlerAdapter(context));
-        } catch (Exception e) {
-            context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
-        }
+        createResumableParser(reader, context).parse();
     }
 
     @Override
@@ -67,22 +114,22 @@ public final class JsonSimpleParser implements JsonParserAdapter {
 
     @Override
     public ResumableParser createResumableParser(Reader reader, SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return new JsonSimpleResumableParser(reader, context);
     }
 
     @Override
     public ResumableParser createResumableParser(String json, SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return createResumableParser(new StringReader(json), context);
     }
 
     @Override
     public ResumableParser createResumableParser(InputStream json, SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return createResumableParser(new InputStreamReader(json, context.getConfig().getParserCharset()), context);
     }
 
     @Override
     public NonBlockingParser createNonBlockingParser(SurfingContext context) {
-        throw new UnsupportedOperationException("Unsupported");
+        return new BufferingNonBlockingParser(context, this);
     }
 
 }
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+/**
+ * Classifies a block of 64 bytes into one bit per byte for each kind of character that the structural index is built
+ * from. Brackets are matched case-insensitively on bit 5, so that '{' and '[' both count as opening and '}' and ']'
+ * both as closing brackets.
+ */
+abstract class BlockClassifier {
+
+    static final int BLOCK_SIZE = 64;
+
+    private static final boolean VECTORIZED = vectorized();
+
+    long quotes;
+    long backslashes;
+    long opens;
+    long closes;
+
+    /**
+     * Classifies bytes[offset] to bytes[offset + 63]
+     */
+    abstract void classify(byte[] bytes, int offset);
+
+    /**
+     * @return a classifier on the JDK Vector API when the jdk.incubator.vector module is resolved and the platform
+     * offers vectors of at least 16 bytes, a scalar one otherwise
+     */
+    static BlockClassifier create() {
+        return VECTORIZED ? new VectorBlockClassifier() : new ScalarBlockClassifier();
+    }
+
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    private static boolean vectorized() {
+        try {
+            return VectorBlockClassifier.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fallback for JVMs started without --add-modules jdk.incubator.vector
+     */
+    static final class ScalarBlockClassifier extends BlockClassifier {
+
+        @Override
+        void classify(byte[] bytes, int offset) {
+            long q = 0;
+            long b = 0;
+            long o = 0;
+            long c = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                int ch = bytes[offset + i];
+                long bit = 1L << i;
+                if (ch == '"') {
+                    q |= bit;
+                } else if (ch == '\\') {
+                    b |= bit;
+                } else if ((ch | 0x20) == '{') {
+                    o |= bit;
+                } else if ((ch | 0x20) == '}') {
+                    c |= bit;
+                }
+            }
+            quotes = q;
+            backslashes = b;
+            opens = o;
+            closes = c;
+        }
+
+    }
+
+}
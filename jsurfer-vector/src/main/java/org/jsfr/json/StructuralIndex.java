@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the opening brackets of a complete document paired with those of their closing brackets, the stage-1
+ * pass of simdjson reduced to what skipping a subtree needs. Each block of 64 bytes is classified into bitmaps, the
+ * escaped characters are found by carrying runs of backslashes across blocks, the bytes inside strings by a prefix
+ * xor of the unescaped quotes and finally the brackets outside strings are matched with a stack.
+ * <p>
+ * Like {@link Utf8Lexer#skipChildren()} the pairing tells '{' from '[' apart only by their position, leaving the
+ * validation of the bracket kinds to the lexer at the closing bracket.
+ */
+final class StructuralIndex {
+
+    private static final long EVEN_BITS = 0x5555555555555555L;
+    private static final long ODD_BITS = ~EVEN_BITS;
+    private static final byte PADDING = ' ';
+
+    private int[] opens;
+    private int[] closes;
+    private int size;
+    private int cursor;
+
+    private StructuralIndex(int capacity) {
+        this.opens = new int[capacity];
+        this.closes = new int[capacity];
+    }
+
+    static StructuralIndex build(byte[] json, int start, int end) {
+        return build(json, start, end, BlockClassifier.create());
+    }
+
+    static StructuralIndex build(byte[] json, int start, int end, BlockClassifier classifier) {
+        StructuralIndex index = new StructuralIndex(16);
+        int[] stack = new int[16];
+        int depth = 0;
+        long prevEndsOddBackslash = 0;
+        long prevInString = 0;
+        for (int block = start; block < end; block += BlockClassifier.BLOCK_SIZE) {
+            if (end - block >= BlockClassifier.BLOCK_SIZE) {
+                classifier.classify(json, block);
+            } else {
+                byte[] tail = new byte[BlockClassifier.BLOCK_SIZE];
+                Arrays.fill(tail, PADDING);
+                System.arraycopy(json, block, tail, 0, end - block);
+                classifier.classify(tail, 0);
+            }
+            long escaped = 0;
+            long backslashes = classifier.backslashes;
+            if (backslashes != 0 || prevEndsOddBackslash != 0) {
+                long startEdges = backslashes & ~(backslashes << 1);
+                long evenStartMask = EVEN_BITS ^ prevEndsOddBackslash;
+                long evenStarts = startEdges & evenStartMask;
+                long oddStarts = startEdges & ~evenStartMask;
+                long evenCarries = backslashes + evenStarts;
+                long oddCarries = backslashes + oddStarts;
+                boolean overflow = Long.compareUnsigned(oddCarries, backslashes) < 0;
+                oddCarries |= prevEndsOddBackslash;
+                prevEndsOddBackslash = overflow ? 1 : 0;
+                long evenCarryEnds = evenCarries & ~backslashes;
+                long oddCarryEnds = oddCarries & ~backslashes;
+                escaped = (evenCarryEnds & ODD_BITS) | (oddCarryEnds & EVEN_BITS);
+            }
+            long inString = prefixXor(classifier.quotes & ~escaped) ^ prevInString;
+            prevInString = inString >> 63;
+            long structurals = (classifier.opens | classifier.closes) & ~inString;
+            long opening = classifier.opens;
+            while (structurals != 0) {
+                int bit = Long.numberOfTrailingZeros(structurals);
+                if ((opening >>> bit & 1) != 0) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = index.add(block + bit);
+                } else if (depth > 0) {
+                    index.closes[stack[--depth]] = block + bit;
+                }
+                structurals &= structurals - 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return bit i set when an odd number of bits at or below i are set
+     */
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    private int add(int open) {
+        if (size == opens.length) {
+            opens = Arrays.copyOf(opens, size * 2);
+            closes = Arrays.copyOf(closes, size * 2);
+        }
+        opens[size] = open;
+        closes[size] = -1;
+        return size++;
+    }
+
+    /**
+     * Looks up an opening bracket, starting from the one looked up last since a parser skips forward
+     *
+     * @param open position of an opening bracket outside strings
+     * @return position of the matching closing bracket, or -1 if the document ends before it or the position is not
+     * that of an opening bracket
+     */
+    int closingBracket(int open) {
+        int from = cursor < size && opens[cursor] <= open ? cursor : 0;
+        int i = Arrays.binarySearch(opens, from, size, open);
+        if (i < 0) {
+            return -1;
+        }
+        cursor = i;
+        return closes[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+}
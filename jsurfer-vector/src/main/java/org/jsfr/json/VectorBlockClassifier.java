@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BlockClassifier comparing a whole vector of bytes at a time. Loading this class fails with a LinkageError unless the
+ * jdk.incubator.vector module is resolved, which {@link BlockClassifier#create()} falls back on.
+ */
+final class VectorBlockClassifier extends BlockClassifier {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = SPECIES.withLanes(long.class);
+    private static final int MIN_LANES = 16;
+    private static final long SUM_OF_BYTES = 0x0101010101010101L;
+
+    private static final ByteVector ZERO = ByteVector.zero(SPECIES);
+    private static final ByteVector BIT_OF_LANE = ByteVector.fromArray(SPECIES, bitOfLane(), 0);
+    private static final LongVector SHIFT_OF_LANE = LongVector.fromArray(LONG_SPECIES, shiftOfLane(), 0);
+
+    private static byte[] bitOfLane() {
+        byte[] bits = new byte[SPECIES.length()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = (byte) (1 << (i % Byte.SIZE));
+        }
+        return bits;
+    }
+
+    private static long[] shiftOfLane() {
+        long[] shifts = new long[LONG_SPECIES.length()];
+        for (int i = 0; i < shifts.length; i++) {
+            shifts[i] = (long) i * Byte.SIZE;
+        }
+        return shifts;
+    }
+
+    static boolean isSupported() {
+        int lanes = SPECIES.length();
+        return lanes >= MIN_LANES && BLOCK_SIZE % lanes == 0;
+    }
+
+    @Override
+    void classify(byte[] bytes, int offset) {
+        long q = 0;
+        long b = 0;
+        long o = 0;
+        long c = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += SPECIES.length()) {
+            ByteVector chars = ByteVector.fromArray(SPECIES, bytes, offset + i);
+            ByteVector folded = chars.or((byte) 0x20);
+            q |= bits(chars.eq((byte) '"')) << i;
+            b |= bits(chars.eq((byte) '\\')) << i;
+            o |= bits(folded.eq((byte) '{')) << i;
+            c |= bits(folded.eq((byte) '}')) << i;
+        }
+        quotes = q;
+        backslashes = b;
+        opens = o;
+        closes = c;
+    }
+
+    /**
+     * Same as {@link VectorMask#toLong()}, which JDK 17 does not compile to vector instructions but to a loop over a
+     * boolean array. Each lane holds its bit within its byte, the bytes of each long lane are summed into its top byte
+     * and the lanes are or-ed together.
+     */
+    private static long bits(VectorMask<Byte> mask) {
+        return ZERO.blend(BIT_OF_LANE, mask)
+                .reinterpretAsLongs()
+                .lanewise(VectorOperators.MUL, SUM_OF_BYTES)
+                .lanewise(VectorOperators.LSHR, Long.SIZE - Byte.SIZE)
+                .lanewise(VectorOperators.LSHL, SHIFT_OF_LANE)
+                .reduceLanes(VectorOperators.OR);
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 WANG Lingsong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jsfr.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NativeParser jumping over unmatched objects and arrays with a {@link StructuralIndex} instead of tokenizing their
+ * content. The index is built on the first skipped container, with the JDK Vector API when the JVM runs with
+ * --add-modules jdk.incubator.vector and a scalar classifier otherwise. The lexer still tokenizes and validates
+ * everything that is not skipped.
+ * <p>
+ * Since the index needs the whole document, an InputStream is read up front. Readers, streams in another charset
+ * than UTF-8 and non-blocking parsing are left to NativeParser.
+ */
+public class VectorParser extends NativeParser {
+
+    /**
+     * Immutable shared instance
+     */
+    public static final VectorParser INSTANCE = new VectorParser();
+
+    /**
+     * @return whether structural indexes are classified with the JDK Vector API in this JVM
+     */
+    public static boolean isVectorized() {
+        return BlockClassifier.isVectorized();
+    }
+
+    private static final class IndexedResumableParser extends NativeResumableParser {
+
+        private InputStream input;
+        private byte[] json;
+        private int start;
+        private int end;
+        private StructuralIndex index;
+
+        IndexedResumableParser(byte[] json, int start, int end, SurfingContext context) {
+            super(new Utf8Lexer(json, start, end), context);
+            this.json = json;
+            this.start = start;
+            this.end = end;
+        }
+
+        IndexedResumableParser(InputStream input, SurfingContext context) {
+            super(new Utf8Lexer(input), context);
+            this.input = input;
+        }
+
+        @Override
+        public void parse() {
+            if (input != null) {
+                try {
+                    json = input.readAllBytes();
+                } catch (IOException e) {
+                    context.getConfig().getErrorHandlingStrategy().handleParsingException(e);
+                    return;
+                }
+                start = 0;
+                end = json.length;
+                lexer.reset(json, start, end);
+                input = null;
+            }
+            super.parse();
+        }
+
+        @Override
+        protected void skipChildren() {
+            if (index == null) {
+                index = StructuralIndex.build(json, start, end);
+            }
+            int closingBracket = index.closingBracket(lexer.containerStart());
+            if (closingBracket < 0) {
+                lexer.skipChildren();
+            } else {
+                lexer.skipTo(closingBracket);
+            }
+        }
+
+    }
+
+    @Override
+    public ResumableParser createResumableParser(String json, SurfingContext context) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new IndexedResumableParser(bytes, 0, bytes.length, context);
+    }
+
+    @Override
+    public ResumableParser createResumableParser(InputStream json, SurfingContext context) {
+        Charset charset = context.getConfig().getParserCharset();
+        if (charset != null && !StandardCharsets.UTF_8.equals(charset)) {
+            return super.createResumableParser(json, context);
+        }
+        return new IndexedResumableParser(json, context);
+    }
+
+}